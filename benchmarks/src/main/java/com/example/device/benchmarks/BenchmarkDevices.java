@@ -0,0 +1,59 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.entity.id.UuidV7;
+import com.example.device.mapper.DeviceMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class BenchmarkDevices {
+
+    static final int BRANDS = 20;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private BenchmarkDevices() {
+    }
+
+    static String brand(int i) {
+        return "brand-" + (i % BRANDS);
+    }
+
+    static DeviceState state(int i) {
+        DeviceState[] states = DeviceState.values();
+        return states[i % states.length];
+    }
+
+    static Device newDevice(int i) {
+        return Device.builder()
+                .name("device-" + i)
+                .brand(brand(i))
+                .state(state(i))
+                .build();
+    }
+
+    static List<DeviceEntity> entities(int count) {
+        List<DeviceEntity> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entities.add(DeviceEntity.builder()
+                    .id(UuidV7.next())
+                    .name("device-" + i)
+                    .brand(brand(i))
+                    .state(state(i))
+                    .createdAt(CREATED_AT.plusSeconds(i))
+                    .build());
+        }
+        return entities;
+    }
+
+    static List<Device> devices(int count) {
+        return DeviceMapper.toDtoList(entities(count));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.device.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line, but writes the results as JSON to
+ * {@code target/jmh-result.json} unless {@code -rf}/{@code -rff} are given, so every run leaves a file that can
+ * be compared with the previous build.
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", DEFAULT_RESULT_FILE));
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.device.benchmarks;
+
+import com.example.device.DeviceServiceApplication;
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.service.DeviceBatchService;
+import com.example.device.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Devices created per millisecond when {@value #DEVICES} devices are saved one {@link DeviceService#saveDevice} call
+ * at a time, against one {@link DeviceBatchService#saveDevices} call. Both validate every device with the same rules;
+ * the difference is one transaction and flush per device against JDBC batches per chunk. Uses the same application
+ * context and databases as {@link DeviceServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceBatchBenchmark {
+
+    private static final int DEVICES = 500;
+
+    private ConfigurableApplicationContext context;
+
+    private DeviceService deviceService;
+
+    private DeviceBatchService deviceBatchService;
+
+    private int saved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(DeviceServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(DeviceServiceBenchmark.applicationArguments());
+        this.deviceService = context.getBean(DeviceService.class);
+        this.deviceBatchService = context.getBean(DeviceBatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public List<Device> saveDevice() {
+        List<Device> devices = new ArrayList<>(DEVICES);
+        for (Device device : nextDevices()) {
+            devices.add(deviceService.saveDevice(device));
+        }
+        return devices;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public List<BatchItemResult> saveDevices() {
+        return deviceBatchService.saveDevices(nextDevices().iterator());
+    }
+
+    private List<Device> nextDevices() {
+        List<Device> devices = new ArrayList<>(DEVICES);
+        for (int i = 0; i < DEVICES; i++) {
+            devices.add(BenchmarkDevices.newDevice(saved++));
+        }
+        return devices;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.device.benchmarks;
+
+import com.example.device.config.DeviceImportProperties;
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.repository.DeviceCopyRepository;
+import com.example.device.service.DeviceCopyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per millisecond through the application side of {@code POST /device/v1/import}: parsing, validation and
+ * encoding for COPY, with the copy itself written to nowhere. Compare with what Postgres ingests to see which side
+ * bounds an import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private DeviceCopyService deviceCopyService;
+
+    private String csv;
+
+    private String ndjson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        StringBuilder csv = new StringBuilder("name,brand,state\n");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("device-").append(i).append(',').append(BenchmarkDevices.brand(i)).append(',')
+                    .append(BenchmarkDevices.state(i)).append('\n');
+            ndjson.append(objectMapper.writeValueAsString(BenchmarkDevices.newDevice(i))).append('\n');
+        }
+        this.csv = csv.toString();
+        this.ndjson = ndjson.toString();
+        this.deviceCopyService = new DeviceCopyService(new DiscardingCopyRepository(), event -> { }, objectMapper,
+                new NoTransactionManager(), new DeviceImportProperties(100), "TIME_ORDERED");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public DeviceImportResult csv() {
+        return this.deviceCopyService.importCsv(new StringReader(this.csv));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public DeviceImportResult ndjson() {
+        return this.deviceCopyService.importNdjson(new StringReader(this.ndjson));
+    }
+
+    private static final class DiscardingCopyRepository extends DeviceCopyRepository {
+
+        DiscardingCopyRepository() {
+            super(null);
+        }
+
+        @Override
+        public long insertNew(RowWriter rows) {
+            try {
+                rows.write(Writer.nullWriter());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Nothing inserted, so the service does not announce the import.
+            return 0;
+        }
+    }
+
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
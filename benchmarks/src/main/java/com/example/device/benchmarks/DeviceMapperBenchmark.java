@@ -0,0 +1,51 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.mapper.DeviceMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMapperBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private List<DeviceEntity> entities;
+
+    private DeviceEntity entity;
+
+    @Setup
+    public void setUp() {
+        this.entities = BenchmarkDevices.entities(size);
+        this.entity = entities.get(0);
+    }
+
+    @Benchmark
+    public Device toDto() {
+        return DeviceMapper.toDto(entity);
+    }
+
+    @Benchmark
+    public List<Device> toDtoList() {
+        return DeviceMapper.toDtoList(entities);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.device.benchmarks;
+
+import com.example.device.config.ErrorLoggingProperties;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.handler.ExceptionHandlerAdvice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the not-found path from the throw to the response body, {@code depth} frames below the handler the
+ * way a service call sits below the MVC dispatch. {@code legacy} is the previous path: a stack-capturing exception,
+ * an error DTO serialized by Jackson and a meter lookup per error (without its per-error ERROR log, which made it
+ * slower still). {@code problem} is the current {@link ExceptionHandlerAdvice}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceNotFoundBenchmark {
+
+    @Param({"16", "128"})
+    private int depth;
+
+    private final UUID id = UUID.randomUUID();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExceptionHandlerAdvice advice;
+
+    @Setup
+    public void setUp() {
+        this.advice = new ExceptionHandlerAdvice(this.meterRegistry, new ErrorLoggingProperties(10));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> legacy() throws JsonProcessingException {
+        try {
+            return legacyLookup(depth);
+        } catch (RuntimeException ex) {
+            LegacyErrorResponse errorResponse = new LegacyErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND.value());
+            meterRegistry.counter("device.errors",
+                            "exception", ex.getClass().getSimpleName(),
+                            "status", String.valueOf(errorResponse.status()))
+                    .increment();
+            return new ResponseEntity<>(objectMapper.writeValueAsBytes(errorResponse), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> problem() {
+        try {
+            return lookup(depth);
+        } catch (DeviceNotFoundException ex) {
+            return advice.handleDeviceNotFound(ex);
+        }
+    }
+
+    private ResponseEntity<byte[]> legacyLookup(int remaining) {
+        if (remaining == 0) {
+            throw new RuntimeException("Device not found: " + id);
+        }
+        return legacyLookup(remaining - 1);
+    }
+
+    private ResponseEntity<byte[]> lookup(int remaining) {
+        if (remaining == 0) {
+            throw new DeviceNotFoundException(id);
+        }
+        return lookup(remaining - 1);
+    }
+
+    private record LegacyErrorResponse(String message, int status) {
+    }
+}
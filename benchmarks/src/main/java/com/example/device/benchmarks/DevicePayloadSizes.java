@@ -0,0 +1,28 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+
+import java.util.List;
+
+/**
+ * Prints the size of a list response per wire format, raw and gzipped:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.example.device.benchmarks.DevicePayloadSizes [devices]}.
+ */
+public final class DevicePayloadSizes {
+
+    private DevicePayloadSizes() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        List<Device> devices = BenchmarkDevices.devices(size);
+
+        System.out.printf("%-10s %12s %12s %10s%n", "format", "bytes", "gzip bytes", "vs JSON");
+        long json = WireFormat.JSON.encode(devices).length;
+        for (WireFormat format : WireFormat.values()) {
+            byte[] payload = format.encode(devices);
+            System.out.printf("%-10s %12d %12d %9.0f%%%n", format, payload.length, WireFormat.gzip(payload).length,
+                    100.0 * payload.length / json);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.device.benchmarks;
+
+import com.example.device.DeviceServiceApplication;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the whole device table, {@value #ROWS} rows, the way the read paths did before and after they moved to DTO
+ * projections: managed entities in a read-write transaction copied through {@link DeviceMapper}, against a JPQL
+ * constructor expression in a read-only transaction. Uses the same application context and databases as
+ * {@link DeviceServiceBenchmark}; run with {@code -prof gc} for the allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeviceReadPathBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+
+    private DeviceRepository deviceRepository;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(DeviceServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(DeviceServiceBenchmark.applicationArguments());
+        this.deviceRepository = context.getBean(DeviceRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+
+        List<DeviceEntity> entities = BenchmarkDevices.entities(ROWS);
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "insert into device (id, name, brand, state, created_at, version) values (?, ?, ?, ?, ?, 0)",
+                entities, 1000, (statement, entity) -> {
+                    statement.setObject(1, entity.getId());
+                    statement.setString(2, entity.getName());
+                    statement.setString(3, entity.getBrand());
+                    statement.setString(4, entity.getState().name());
+                    statement.setTimestamp(5, Timestamp.valueOf(entity.getCreatedAt()));
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Device> entitiesAndMapper() {
+        return readWrite.execute(status -> DeviceMapper.toDtoList(deviceRepository.findAll()));
+    }
+
+    @Benchmark
+    public List<Device> projection() {
+        return readOnly.execute(status -> deviceRepository.findAllDevices());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a {@code List<Device>} the way the list endpoints do, with an ObjectMapper configured like Spring
+ * Boot's (java.time support, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private List<Device> devices;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        this.devices = BenchmarkDevices.devices(size);
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.listWriter = objectMapper.writerFor(new TypeReference<List<Device>>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(devices);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(devices);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.device.benchmarks;
+
+import com.example.device.DeviceServiceApplication;
+import com.example.device.config.CacheConfig;
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the {@link DeviceService} methods inside the real application context, without the web layer.
+ * <p>
+ * By default the database is an in-memory H2 stand-in whose schema Hibernate creates, so the numbers measure the
+ * service, JPA and cache overhead rather than Postgres. Pass {@code -Djdbc.url=jdbc:postgresql://...} (plus
+ * {@code -Djdbc.username}/{@code -Djdbc.password}) via {@code -jvmArgs} to run against a local Postgres migrated
+ * by Flyway instead.
+ * <p>
+ * Lookups by id are served from the {@code devices} cache once an id has been saved or read, so they are measured
+ * both ways: {@link #getDeviceById()} evicts the id first and goes through the repository,
+ * {@link #getDeviceByIdCacheHit()} measures the hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceServiceBenchmark {
+
+    private static final int SEED_DEVICES = 10_000;
+
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private DeviceService deviceService;
+
+    private Cache deviceCache;
+
+    private List<UUID> ids;
+
+    private int saved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(DeviceServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(applicationArguments());
+        this.deviceService = context.getBean(DeviceService.class);
+        this.deviceCache = context.getBean(CacheManager.class).getCache(CacheConfig.DEVICES);
+
+        this.ids = new ArrayList<>(SEED_DEVICES);
+        for (int i = 0; i < SEED_DEVICES; i++) {
+            ids.add(deviceService.saveDevice(BenchmarkDevices.newDevice(i)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Device getDeviceById() {
+        UUID id = randomId();
+        deviceCache.evict(id);
+        return deviceService.getDeviceById(id);
+    }
+
+    @Benchmark
+    public Device getDeviceByIdCacheHit() {
+        return deviceService.getDeviceById(randomId());
+    }
+
+    @Benchmark
+    public DevicePage findPage() {
+        return deviceService.findPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public DevicePage searchByBrand() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .brand(BenchmarkDevices.brand(ThreadLocalRandom.current().nextInt(BenchmarkDevices.BRANDS)))
+                .build();
+        return deviceService.search(request, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Device> findAllDevicesByBrand() {
+        return deviceService.findAllDevicesByBrand(
+                BenchmarkDevices.brand(ThreadLocalRandom.current().nextInt(BenchmarkDevices.BRANDS)));
+    }
+
+    @Benchmark
+    public Device saveDevice() {
+        return deviceService.saveDevice(BenchmarkDevices.newDevice(SEED_DEVICES + saved++));
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    static String[] applicationArguments() {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.profiles.active=benchmark",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--device.schema.verify-indexes=false"));
+        String jdbcUrl = System.getProperty("jdbc.url");
+        if (jdbcUrl == null) {
+            arguments.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:devices;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false",
+                    // The outbox relay relies on Postgres advisory locks.
+                    "--device.events.relay-enabled=false"));
+        } else {
+            arguments.addAll(List.of(
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + System.getProperty("jdbc.username", "postgres"),
+                    "--spring.datasource.password=" + System.getProperty("jdbc.password", ""),
+                    "--spring.jpa.hibernate.ddl-auto=validate"));
+        }
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of a {@code List<Device>} per wire format, with and without the gzip the server applies to large
+ * responses. Payload sizes are printed by {@link DevicePayloadSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceWireFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private WireFormat format;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Device> devices;
+
+    @Setup
+    public void setUp() {
+        this.devices = BenchmarkDevices.devices(size);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return format.encode(devices);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() {
+        return WireFormat.gzip(format.encode(devices));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.device.benchmarks;
+
+import com.example.device.dto.Device;
+import com.example.device.mapper.DeviceMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The encodings the list endpoints can answer with, encoded the way their message converters do.
+ */
+public enum WireFormat {
+
+    JSON(Jackson2ObjectMapperBuilder.json().build()),
+    CBOR(Jackson2ObjectMapperBuilder.cbor().build()),
+    SMILE(Jackson2ObjectMapperBuilder.smile().build()),
+    PROTOBUF(null);
+
+    private final ObjectWriter listWriter;
+
+    WireFormat(ObjectMapper objectMapper) {
+        this.listWriter = objectMapper == null ? null : objectMapper.writerFor(new TypeReference<List<Device>>() {
+        });
+    }
+
+    byte[] encode(List<Device> devices) {
+        try {
+            return this.listWriter == null
+                    ? DeviceMapper.toProto(devices).toByteArray()
+                    : this.listWriter.writeValueAsBytes(devices);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+-- Compares primary-key insert cost and index size for random (v4) and time-ordered (v7) UUIDs.
+-- Run against a scratch database: psql -v rows=5000000 -f uuid_v4_vs_v7_inserts.sql
+-- The service generates v7 ids on the application side (DeviceIdStrategy.TIME_ORDERED); uuid_v7() below
+-- produces the same layout in SQL so the comparison does not depend on client round trips.
+
+\if :{?rows}
+\else
+    \set rows 5000000
+\endif
+
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v7() RETURNS uuid AS $$
+    -- 48-bit millisecond timestamp over the first six bytes of a v4 UUID, version nibble flipped from 4 to 7
+    SELECT encode(
+        set_bit(set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    placing substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1), 53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+DROP TABLE IF EXISTS bench_device_v4, bench_device_v7;
+
+CREATE TABLE bench_device_v4 (
+    id         UUID PRIMARY KEY,
+    name       VARCHAR(50) NOT NULL,
+    brand      VARCHAR(50) NOT NULL,
+    state      VARCHAR(20),
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE bench_device_v7 (LIKE bench_device_v4 INCLUDING ALL);
+
+-- Insert in 10k-row statements, like batched application inserts, rather than one huge statement.
+SELECT clock_timestamp() AS started \gset
+SELECT format('INSERT INTO bench_device_v4 (id, name, brand, state) SELECT gen_random_uuid(), ''device-'' || g, ''brand-'' || (g %% 100), ''AVAILABLE'' FROM generate_series(%s, %s) g',
+              s, least(s + 9999, :rows))
+FROM generate_series(1, :rows, 10000) s \gexec
+SELECT clock_timestamp() - :'started' AS v4_elapsed;
+
+SELECT clock_timestamp() AS started \gset
+SELECT format('INSERT INTO bench_device_v7 (id, name, brand, state) SELECT pg_temp.uuid_v7(), ''device-'' || g, ''brand-'' || (g %% 100), ''AVAILABLE'' FROM generate_series(%s, %s) g',
+              s, least(s + 9999, :rows))
+FROM generate_series(1, :rows, 10000) s \gexec
+SELECT clock_timestamp() - :'started' AS v7_elapsed;
+
+SELECT relname AS index, pg_size_pretty(pg_relation_size(oid)) AS size
+FROM pg_class
+WHERE relname IN ('bench_device_v4_pkey', 'bench_device_v7_pkey');
+
+DROP TABLE bench_device_v4, bench_device_v7;
@@ -13,7 +13,7 @@ import java.util.UUID;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Device {
 
     private UUID id;
@@ -26,4 +26,10 @@ public class Device {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime createdAt;
+
+    /**
+     * Optimistic-locking version, also sent as the ETag of the device.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
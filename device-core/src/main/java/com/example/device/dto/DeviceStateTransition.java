@@ -0,0 +1,22 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of {@code POST /device/v1/id/{id}/state}: the state the device must currently be in, and the state to move
+ * it to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStateTransition {
+
+    private DeviceState from;
+
+    private DeviceState to;
+}
@@ -0,0 +1,27 @@
+package com.example.device.entity.id;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public enum DeviceIdStrategy implements Supplier<UUID> {
+
+    /**
+     * UUIDv7, keeps primary-key inserts appending to the right-hand side of the B-tree.
+     */
+    TIME_ORDERED {
+        @Override
+        public UUID get() {
+            return UuidV7.next();
+        }
+    },
+
+    /**
+     * UUIDv4, what Hibernate generated before ids became time-ordered.
+     */
+    RANDOM {
+        @Override
+        public UUID get() {
+            return UUID.randomUUID();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.device.entity.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs as defined by RFC 9562, version 7: a 48-bit Unix millisecond timestamp, a 12-bit
+ * sequence counter and 62 random bits. IDs generated in this JVM are strictly increasing, even within the
+ * same millisecond; when the counter of a millisecond is exhausted the timestamp is advanced by one.
+ */
+public final class UuidV7 {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    /**
+     * Last issued {@code (timestamp << 12) | sequence}, advanced with CAS so generation never blocks.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = LAST.get();
+            next = Math.max(now, last + 1);
+        } while (!LAST.compareAndSet(last, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long mostSigBits = (timestamp << 16) | 0x7000L | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Unix epoch milliseconds encoded in a version 7 UUID.
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
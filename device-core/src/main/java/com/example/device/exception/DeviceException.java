@@ -0,0 +1,13 @@
+package com.example.device.exception;
+
+/**
+ * Base of the exceptions that end in a 4xx answer. They are expected outcomes of client input, never logged with a
+ * stack trace, so none is captured; without a stack trace or suppressed exceptions an instance with a fixed message
+ * can be created once and rethrown.
+ */
+public abstract class DeviceException extends RuntimeException {
+
+    protected DeviceException(String message) {
+        super(message, null, false, false);
+    }
+}
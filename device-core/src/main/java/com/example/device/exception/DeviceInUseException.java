@@ -1,6 +1,6 @@
 package com.example.device.exception;
 
-public class DeviceInUseException extends RuntimeException {
+public class DeviceInUseException extends DeviceException {
     public DeviceInUseException(String message) {
         super(message);
     }
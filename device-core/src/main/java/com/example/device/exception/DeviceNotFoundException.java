@@ -0,0 +1,27 @@
+package com.example.device.exception;
+
+import java.util.UUID;
+
+public class DeviceNotFoundException extends DeviceException {
+
+    private final UUID id;
+
+    public DeviceNotFoundException(String message) {
+        super(message);
+        this.id = null;
+    }
+
+    /**
+     * Not-found is the most frequent error, so the message is only built if someone reads it.
+     */
+    public DeviceNotFoundException(UUID id) {
+        super(null);
+        this.id = id;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : "Device not found: " + this.id;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class DeviceStateConflictException extends DeviceException {
+    public DeviceStateConflictException(String message) {
+        super(message);
+    }
+}
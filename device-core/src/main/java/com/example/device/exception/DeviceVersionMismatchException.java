@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class DeviceVersionMismatchException extends DeviceException {
+    public DeviceVersionMismatchException(String message) {
+        super(message);
+    }
+}
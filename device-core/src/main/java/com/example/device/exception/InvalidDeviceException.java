@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class InvalidDeviceException extends DeviceException {
+    public InvalidDeviceException(String message) {
+        super(message);
+    }
+}
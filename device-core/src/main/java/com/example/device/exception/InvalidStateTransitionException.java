@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class InvalidStateTransitionException extends DeviceException {
+    public InvalidStateTransitionException(String message) {
+        super(message);
+    }
+}
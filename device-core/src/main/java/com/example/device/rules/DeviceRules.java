@@ -0,0 +1,63 @@
+package com.example.device.rules;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.InvalidDeviceException;
+
+/**
+ * Business rules shared by every write path: single and batch, blocking and reactive.
+ */
+public final class DeviceRules {
+
+    /**
+     * Longest name or brand accepted, the width of the database columns.
+     */
+    public static final int MAX_LENGTH = 50;
+
+    private static final InvalidDeviceException DEVICE_REQUIRED = new InvalidDeviceException("Device is required");
+
+    private static final InvalidDeviceException INVALID_NAME =
+            new InvalidDeviceException("Device name is required and must be at most " + MAX_LENGTH + " characters");
+
+    private static final InvalidDeviceException INVALID_BRAND =
+            new InvalidDeviceException("Device brand is required and must be at most " + MAX_LENGTH + " characters");
+
+    private static final DeviceInUseException NAME_OR_BRAND_IN_USE =
+            new DeviceInUseException("Cannot update name or brand when device is in use.");
+
+    private static final DeviceInUseException DELETE_IN_USE = new DeviceInUseException("Device in use cannot be deleted");
+
+    private DeviceRules() {
+    }
+
+    public static void checkCreatable(Device device) {
+        if (device == null) {
+            throw DEVICE_REQUIRED;
+        }
+        if (!isValidText(device.getName())) {
+            throw INVALID_NAME;
+        }
+        if (!isValidText(device.getBrand())) {
+            throw INVALID_BRAND;
+        }
+    }
+
+    public static void checkUpdatable(StoredDevice storedDevice, Device deviceToUpdate) {
+        if (storedDevice.getState() == DeviceState.IN_USE) {
+            if (!storedDevice.getName().equals(deviceToUpdate.getName()) || !storedDevice.getBrand().equals(deviceToUpdate.getBrand())) {
+                throw NAME_OR_BRAND_IN_USE;
+            }
+        }
+    }
+
+    public static void checkDeletable(StoredDevice storedDevice) {
+        if (storedDevice.getState() == DeviceState.IN_USE) {
+            throw DELETE_IN_USE;
+        }
+    }
+
+    private static boolean isValidText(String value) {
+        return value != null && !value.isBlank() && value.length() <= MAX_LENGTH;
+    }
+}
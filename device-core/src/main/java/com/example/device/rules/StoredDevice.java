@@ -0,0 +1,15 @@
+package com.example.device.rules;
+
+import com.example.device.entity.DeviceState;
+
+/**
+ * What {@link DeviceRules} need to know of a device as it is stored, whichever persistence model holds it.
+ */
+public interface StoredDevice {
+
+    String getName();
+
+    String getBrand();
+
+    DeviceState getState();
+}
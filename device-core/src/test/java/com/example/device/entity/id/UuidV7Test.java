@@ -0,0 +1,71 @@
+package com.example.device.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void testNext_versionAndVariant() {
+        UUID uuid = UuidV7.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testNext_embedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        long timestamp = UuidV7.timestamp(uuid);
+        // the timestamp may run ahead by a few ms when a millisecond's sequence is exhausted
+        assertTrue(timestamp >= before && timestamp <= after + 10);
+    }
+
+    @Test
+    void testNext_strictlyIncreasingInStringOrder() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(UuidV7.next());
+        }
+
+        for (int i = 1; i < uuids.size(); i++) {
+            // Postgres orders uuid columns bytewise, which matches the order of their string form
+            assertTrue(uuids.get(i - 1).toString().compareTo(uuids.get(i).toString()) < 0);
+        }
+    }
+
+    @Test
+    void testNext_uniqueAcrossThreads() {
+        Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> uuids.add(UuidV7.next()));
+
+        assertEquals(200_000, uuids.size());
+    }
+
+    @Test
+    void testTimestamp_rejectsRandomUuid() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+
+    @Test
+    void testRandomStrategy_stillProducesVersion4() {
+        Set<Integer> versions = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            versions.add(DeviceIdStrategy.RANDOM.get().version());
+        }
+
+        assertEquals(Set.of(4), versions);
+    }
+}
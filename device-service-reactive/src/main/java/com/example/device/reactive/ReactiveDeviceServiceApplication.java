@@ -1,13 +1,13 @@
-package com.example.device;
+package com.example.device.reactive;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
-public class DeviceServiceApplication {
+public class ReactiveDeviceServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DeviceServiceApplication.class, args);
+        SpringApplication.run(ReactiveDeviceServiceApplication.class, args);
     }
 
 }
@@ -0,0 +1,131 @@
+package com.example.device.reactive.controller;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceStateTransition;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.reactive.service.ReactiveDeviceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The endpoints of the servlet service's {@code DeviceController} that map onto single queries. Lists are written as
+ * the rows arrive: as a JSON array by default, one device per line for {@code application/x-ndjson}, and in both
+ * cases no faster than the client reads them.
+ */
+@RequestMapping("/device/v1")
+@RestController
+@Tag(name = "Device API (reactive)", description = "Endpoints for managing devices")
+public class ReactiveDeviceController {
+
+    private final ReactiveDeviceService deviceService;
+
+    public ReactiveDeviceController(ReactiveDeviceService deviceService) {
+        this.deviceService = deviceService;
+    }
+
+    @Operation(summary = "Create a new device", description = "Saves a new device in the database")
+    @PostMapping
+    public Mono<ResponseEntity<Device>> saveDevice(@RequestBody Device device) {
+        return this.deviceService.saveDevice(device)
+                .map(savedDevice -> ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(savedDevice)).body(savedDevice));
+    }
+
+    @Operation(summary = "Find device by id", description = "Fetches a device from the database")
+    @GetMapping("/id/{id}")
+    public Mono<ResponseEntity<Device>> getDeviceById(@PathVariable UUID id) {
+        return this.deviceService.getDeviceById(id)
+                .map(device -> ResponseEntity.status(HttpStatus.OK).eTag(eTag(device)).body(device));
+    }
+
+    @Operation(summary = "Find all devices", description = "Streams all devices from the database")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Device> getAllDevices() {
+        return this.deviceService.findAll();
+    }
+
+    @Operation(summary = "Stream all devices", description = "Streams all devices as newline-delimited JSON")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Device> streamAllDevices() {
+        return this.deviceService.findAll();
+    }
+
+    @Operation(summary = "Find all devices by brand", description = "Streams all devices matching the provided brand")
+    @GetMapping(value = "/brand/{brand}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Device> getAllDevicesByBrand(@PathVariable String brand) {
+        return this.deviceService.findAllDevicesByBrand(brand);
+    }
+
+    @Operation(summary = "Find all devices by device state", description = "Streams all devices matching the provided device state")
+    @GetMapping(value = "/state/{state}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Device> getAllDevicesByState(@PathVariable DeviceState state) {
+        return this.deviceService.findAllDevicesByState(state);
+    }
+
+    @Operation(summary = "Update device by id", description = "Update device by id in the database. "
+            + "With an If-Match header the update only applies if the device still has that ETag, otherwise 412 is returned")
+    @PatchMapping
+    public Mono<ResponseEntity<Device>> updateDevice(@RequestBody Device device,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return this.deviceService.updateDevice(device, expectedVersion(ifMatch))
+                .map(updatedDevice -> ResponseEntity.status(HttpStatus.OK).eTag(eTag(updatedDevice)).body(updatedDevice));
+    }
+
+    @Operation(summary = "Change device state", description = "Moves the device to the 'to' state if it is currently in the 'from' state, "
+            + "atomically. Returns 409 when the device is in another state")
+    @PostMapping("/id/{id}/state")
+    public Mono<ResponseEntity<Device>> transitionState(@PathVariable UUID id, @RequestBody DeviceStateTransition transition) {
+        return this.deviceService.transitionState(id, transition.getFrom(), transition.getTo())
+                .map(device -> ResponseEntity.status(HttpStatus.OK).eTag(eTag(device)).body(device));
+    }
+
+    @Operation(summary = "Delete device by id", description = "Delete device by id from the database")
+    @DeleteMapping("/id/{id}")
+    public Mono<ResponseEntity<Void>> deleteDevice(@PathVariable UUID id) {
+        return this.deviceService.deleteDeviceById(id)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.OK).build()));
+    }
+
+    /**
+     * The weak version tag the servlet service sends, so a device has the same validator whichever service answers.
+     */
+    private static String eTag(Device device) {
+        return device.getVersion() == null ? null : "W/\"" + device.getVersion() + "\"";
+    }
+
+    /**
+     * Reads the version out of an If-Match header; {@code *} matches any version.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        ETag eTag = ETag.create(ifMatch.trim());
+        if (eTag.isWildcard()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eTag.tag());
+        } catch (NumberFormatException e) {
+            throw new DeviceVersionMismatchException("If-Match " + ifMatch + " does not match any device version");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.device.reactive.entity;
+
+import com.example.device.entity.DeviceState;
+import com.example.device.rules.StoredDevice;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The {@code device} table as R2DBC maps it; the schema is owned by the servlet service's Flyway migrations. A row
+ * whose version is {@code null} is new, so saving one with an id already assigned inserts it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("device")
+public class DeviceRow implements StoredDevice {
+
+    @Id
+    private UUID id;
+
+    private String name;
+
+    private String brand;
+
+    private DeviceState state;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Version
+    private Long version;
+}
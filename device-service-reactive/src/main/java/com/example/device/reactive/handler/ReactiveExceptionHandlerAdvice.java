@@ -0,0 +1,106 @@
+package com.example.device.reactive.handler;
+
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.exception.InvalidStateTransitionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.net.URI;
+
+/**
+ * Answers with the same {@code application/problem+json} types and titles as the servlet service. Expected client
+ * errors are logged at DEBUG, server errors at ERROR.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ReactiveExceptionHandlerAdvice {
+
+    private static final String TYPE_PREFIX = "urn:device-service:problem:";
+
+    @ExceptionHandler(DeviceNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleDeviceNotFound(DeviceNotFoundException ex) {
+        return clientError(ex, HttpStatus.NOT_FOUND, "device-not-found", "Device not found", ex.getMessage());
+    }
+
+    @ExceptionHandler(DeviceInUseException.class)
+    public ResponseEntity<ProblemDetail> handleDeviceInUse(DeviceInUseException ex) {
+        return clientError(ex, HttpStatus.CONFLICT, "device-in-use", "Device in use", ex.getMessage());
+    }
+
+    @ExceptionHandler(DeviceStateConflictException.class)
+    public ResponseEntity<ProblemDetail> handleDeviceStateConflict(DeviceStateConflictException ex) {
+        return clientError(ex, HttpStatus.CONFLICT, "device-state-conflict", "Device state conflict", ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return clientError(ex, HttpStatus.CONFLICT, "concurrent-modification", "Concurrent modification",
+                "Device was modified concurrently, reload it and retry");
+    }
+
+    @ExceptionHandler(DeviceVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleDeviceVersionMismatch(DeviceVersionMismatchException ex) {
+        return clientError(ex, HttpStatus.PRECONDITION_FAILED, "version-mismatch", "Version mismatch", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidDeviceException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidDevice(InvalidDeviceException ex) {
+        return clientError(ex, HttpStatus.BAD_REQUEST, "invalid-device", "Invalid device", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidStateTransitionException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidStateTransition(InvalidStateTransitionException ex) {
+        return clientError(ex, HttpStatus.BAD_REQUEST, "invalid-state-transition", "Invalid state transition", ex.getMessage());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ProblemDetail> handleServerWebInput(ServerWebInputException ex) {
+        return clientError(ex, HttpStatus.BAD_REQUEST, "invalid-parameter", "Invalid parameter", ex.getReason());
+    }
+
+    /**
+     * Includes a connection pool that could not hand out a connection within {@code spring.r2dbc.pool.max-acquire-time}.
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessResourceException.class})
+    public ResponseEntity<ProblemDetail> handleDatabaseUnavailable(Exception ex) {
+        log.error(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem(HttpStatus.SERVICE_UNAVAILABLE, "database-busy", "Database busy", "Database is busy, retry later"));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleGenericException(Exception ex) {
+        log.error(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(problem(HttpStatus.INTERNAL_SERVER_ERROR, "internal-error", "Internal server error", "Internal server error"));
+    }
+
+    private static ResponseEntity<ProblemDetail> clientError(Exception ex, HttpStatus status, String type, String title,
+                                                             String detail) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} {}: {}", status.value(), ex.getClass().getSimpleName(), ex.getMessage());
+        }
+        return ResponseEntity.status(status).body(problem(status, type, title, detail));
+    }
+
+    private static ProblemDetail problem(HttpStatus status, String type, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setType(URI.create(TYPE_PREFIX + type));
+        problem.setTitle(title);
+        return problem;
+    }
+}
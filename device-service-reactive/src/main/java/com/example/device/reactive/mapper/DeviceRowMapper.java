@@ -0,0 +1,42 @@
+package com.example.device.reactive.mapper;
+
+import com.example.device.dto.Device;
+import com.example.device.reactive.entity.DeviceRow;
+
+import java.util.Optional;
+
+public class DeviceRowMapper {
+
+    public static Device toDto(DeviceRow deviceRow) {
+        return Device.builder()
+                .id(deviceRow.getId())
+                .name(deviceRow.getName())
+                .state(deviceRow.getState())
+                .brand(deviceRow.getBrand())
+                .createdAt(deviceRow.getCreatedAt())
+                .version(deviceRow.getVersion())
+                .build();
+    }
+
+    public static DeviceRow toRow(Device device) {
+        return DeviceRow.builder()
+                .name(device.getName())
+                .state(device.getState())
+                .brand(device.getBrand())
+                .build();
+    }
+
+    /**
+     * Copies the non-null fields of the device onto the row, leaving the others untouched.
+     */
+    public static void updateRow(DeviceRow deviceRow, Device device) {
+        Optional.ofNullable(device.getName())
+                .ifPresent(deviceRow::setName);
+
+        Optional.ofNullable(device.getBrand())
+                .ifPresent(deviceRow::setBrand);
+
+        Optional.ofNullable(device.getState())
+                .ifPresent(deviceRow::setState);
+    }
+}
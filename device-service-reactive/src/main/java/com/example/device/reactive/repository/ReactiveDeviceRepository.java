@@ -0,0 +1,40 @@
+package com.example.device.reactive.repository;
+
+import com.example.device.entity.DeviceState;
+import com.example.device.reactive.entity.DeviceRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The reactive counterpart of the servlet service's {@code DeviceRepository}. The {@link Flux} results are read from
+ * the connection as the subscriber requests them, so a slow client holds back the query instead of the rows
+ * piling up in memory.
+ */
+@Repository
+public interface ReactiveDeviceRepository extends R2dbcRepository<DeviceRow, UUID> {
+
+    Flux<DeviceRow> findAllByBrand(String brand);
+
+    Flux<DeviceRow> findAllByState(DeviceState state);
+
+    /**
+     * Moves the device from one state to another with a single conditional UPDATE and no prior SELECT, bumping its
+     * version. Emits the updated row, or nothing when the device does not exist or is in another state.
+     */
+    @Query("update device set state = :to, version = version + 1 where id = :id and state = :from returning *")
+    Mono<DeviceRow> transitionState(UUID id, String from, String to);
+
+    /**
+     * Deletes the device only while it is still at {@code version}. {@code deleteById} and {@code delete(row)} send
+     * no version, so they would also delete a device changed since it was read. Emits the number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from device where id = :id and version = :version")
+    Mono<Integer> deleteByIdAndVersion(UUID id, Long version);
+}
@@ -0,0 +1,131 @@
+package com.example.device.reactive.service;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.entity.id.DeviceIdStrategy;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.exception.InvalidStateTransitionException;
+import com.example.device.reactive.entity.DeviceRow;
+import com.example.device.reactive.mapper.DeviceRowMapper;
+import com.example.device.reactive.repository.ReactiveDeviceRepository;
+import com.example.device.rules.DeviceRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The device operations of the servlet service's {@code DeviceService} without a thread per request: every method
+ * returns at once and the work runs as the database answers. The in-use rules are the same {@link DeviceRules}.
+ * <p>
+ * Writes made here do not go through the outbox, so they are not in the servlet service's change stream, and its
+ * caches, counts and in-memory index only see them once they expire or reconcile.
+ */
+@Service
+public class ReactiveDeviceService {
+
+    private static final InvalidStateTransitionException MISSING_STATES =
+            new InvalidStateTransitionException("Both from and to states are required");
+
+    private final ReactiveDeviceRepository deviceRepository;
+
+    private final DeviceIdStrategy idStrategy;
+
+    public ReactiveDeviceService(ReactiveDeviceRepository deviceRepository,
+                                 @Value("${device.id.strategy:TIME_ORDERED}") String idStrategy) {
+        this.deviceRepository = deviceRepository;
+        this.idStrategy = DeviceIdStrategy.valueOf(idStrategy.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Mono<Device> saveDevice(Device device) {
+        try {
+            DeviceRules.checkCreatable(device);
+        } catch (InvalidDeviceException e) {
+            return Mono.error(e);
+        }
+        DeviceRow deviceRow = DeviceRowMapper.toRow(device);
+        deviceRow.setId(this.idStrategy.get());
+        deviceRow.setCreatedAt(LocalDateTime.now());
+        return this.deviceRepository.save(deviceRow).map(DeviceRowMapper::toDto);
+    }
+
+    public Mono<Device> getDeviceById(UUID id) {
+        return this.deviceRepository.findById(id)
+                .map(DeviceRowMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(id)));
+    }
+
+    public Flux<Device> findAll() {
+        return this.deviceRepository.findAll().map(DeviceRowMapper::toDto);
+    }
+
+    public Flux<Device> findAllDevicesByBrand(String brand) {
+        return this.deviceRepository.findAllByBrand(brand).map(DeviceRowMapper::toDto);
+    }
+
+    public Flux<Device> findAllDevicesByState(DeviceState state) {
+        return this.deviceRepository.findAllByState(state).map(DeviceRowMapper::toDto);
+    }
+
+    @Transactional
+    public Mono<Void> deleteDeviceById(UUID id) {
+        return this.deviceRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(id)))
+                .flatMap(deviceRow -> {
+                    DeviceRules.checkDeletable(deviceRow);
+                    // The check above used the row as read; deleting by version fails if it has changed since,
+                    // e.g. the device was taken into use.
+                    return this.deviceRepository.deleteByIdAndVersion(id, deviceRow.getVersion());
+                })
+                .flatMap(deleted -> deleted > 0
+                        ? Mono.<Void>empty()
+                        : Mono.error(new OptimisticLockingFailureException("Device " + id + " was modified concurrently")));
+    }
+
+    /**
+     * Applies the non-null fields of the device. When {@code expectedVersion} is given the update only goes ahead
+     * if the stored device still has that version; concurrent updates are caught by the {@code @Version} check
+     * either way.
+     */
+    @Transactional
+    public Mono<Device> updateDevice(Device deviceToUpdate, Long expectedVersion) {
+        UUID id = deviceToUpdate.getId();
+        return this.deviceRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(id)))
+                .flatMap(deviceRow -> {
+                    if (expectedVersion != null && !expectedVersion.equals(deviceRow.getVersion())) {
+                        return Mono.error(new DeviceVersionMismatchException("Device " + id + " is at version "
+                                + deviceRow.getVersion() + ", not " + expectedVersion));
+                    }
+                    DeviceRules.checkUpdatable(deviceRow, deviceToUpdate);
+                    DeviceRowMapper.updateRow(deviceRow, deviceToUpdate);
+                    return this.deviceRepository.save(deviceRow);
+                })
+                .map(DeviceRowMapper::toDto);
+    }
+
+    /**
+     * Moves the device to {@code to} if it is currently in {@code from}, in one round trip. The row is only read
+     * when the transition fails, to tell a missing device apart from one in another state.
+     */
+    public Mono<Device> transitionState(UUID id, DeviceState from, DeviceState to) {
+        if (from == null || to == null) {
+            return Mono.error(MISSING_STATES);
+        }
+        return this.deviceRepository.transitionState(id, from.name(), to.name())
+                .map(DeviceRowMapper::toDto)
+                .switchIfEmpty(Mono.defer(() -> this.deviceRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(id)))
+                        .flatMap(current -> Mono.error(new DeviceStateConflictException(
+                                "Device " + id + " is " + current.getState() + ", not " + from)))));
+    }
+}
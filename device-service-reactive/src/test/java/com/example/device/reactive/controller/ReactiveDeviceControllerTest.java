@@ -0,0 +1,137 @@
+package com.example.device.reactive.controller;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.reactive.service.ReactiveDeviceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@WebFluxTest(ReactiveDeviceController.class)
+class ReactiveDeviceControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveDeviceService deviceService;
+
+    @Test
+    void testGetDeviceById() {
+        Device device = device("Phone", DeviceState.AVAILABLE);
+        when(deviceService.getDeviceById(device.getId())).thenReturn(Mono.just(device));
+
+        webTestClient.get().uri("/device/v1/id/{id}", device.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"2\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Phone")
+                .jsonPath("$.version").isEqualTo(2);
+    }
+
+    @Test
+    void testGetDeviceById_notFoundIsProblem() {
+        UUID id = UUID.randomUUID();
+        when(deviceService.getDeviceById(id)).thenReturn(Mono.error(new DeviceNotFoundException(id)));
+
+        webTestClient.get().uri("/device/v1/id/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("urn:device-service:problem:device-not-found")
+                .jsonPath("$.detail").isEqualTo("Device not found: " + id);
+    }
+
+    @Test
+    void testGetAllDevices_jsonArray() {
+        when(deviceService.findAll()).thenReturn(Flux.just(device("Phone", DeviceState.AVAILABLE), device("Watch", DeviceState.IN_USE)));
+
+        webTestClient.get().uri("/device/v1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo("Watch");
+    }
+
+    @Test
+    void testGetAllDevicesByState_ndjson() {
+        when(deviceService.findAllDevicesByState(DeviceState.IN_USE)).thenReturn(Flux.just(device("Watch", DeviceState.IN_USE)));
+
+        webTestClient.get().uri("/device/v1/state/IN_USE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Device.class).hasSize(1);
+    }
+
+    @Test
+    void testUpdateDevice_passesIfMatchVersion() {
+        Device device = device("Renamed", DeviceState.AVAILABLE);
+        when(deviceService.updateDevice(any(Device.class), eq(2L))).thenReturn(Mono.just(device));
+
+        webTestClient.patch().uri("/device/v1")
+                .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":\"" + device.getId() + "\",\"name\":\"Renamed\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Renamed");
+    }
+
+    @Test
+    void testDeleteDevice_inUseIsConflict() {
+        UUID id = UUID.randomUUID();
+        when(deviceService.deleteDeviceById(id)).thenReturn(Mono.error(new DeviceInUseException("Device in use cannot be deleted")));
+
+        webTestClient.delete().uri("/device/v1/id/{id}", id)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("urn:device-service:problem:device-in-use");
+    }
+
+    @Test
+    void testDeleteDevice_changedConcurrentlyIsConflict() {
+        UUID id = UUID.randomUUID();
+        when(deviceService.deleteDeviceById(id)).thenReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+
+        webTestClient.delete().uri("/device/v1/id/{id}", id)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("urn:device-service:problem:concurrent-modification");
+    }
+
+    private static Device device(String name, DeviceState state) {
+        return Device.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .brand("Apple")
+                .state(state)
+                .version(2L)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.device.reactive.repository;
+
+import com.example.device.entity.DeviceState;
+import com.example.device.entity.id.UuidV7;
+import com.example.device.reactive.entity.DeviceRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the R2DBC mapping and queries against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataR2dbcTest
+@Testcontainers(disabledWithoutDocker = true)
+class ReactiveDeviceRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private ReactiveDeviceRepository deviceRepository;
+
+    @Test
+    void testSave_insertsRowWithAssignedIdAtVersionZero() {
+        DeviceRow saved = deviceRepository.save(newRow("Phone", "Apple", DeviceState.AVAILABLE)).block();
+
+        StepVerifier.create(deviceRepository.findById(saved.getId()))
+                .assertNext(row -> {
+                    assertEquals("Phone", row.getName());
+                    assertEquals(DeviceState.AVAILABLE, row.getState());
+                    assertEquals(0L, row.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindAllByBrandAndState() {
+        deviceRepository.save(newRow("Watch", "Garmin", DeviceState.IN_USE))
+                .then(deviceRepository.save(newRow("Edge", "Garmin", DeviceState.AVAILABLE)))
+                .block();
+
+        StepVerifier.create(deviceRepository.findAllByBrand("Garmin"))
+                .expectNextCount(2)
+                .verifyComplete();
+        StepVerifier.create(deviceRepository.findAllByState(DeviceState.IN_USE).filter(row -> row.getBrand().equals("Garmin")))
+                .assertNext(row -> assertEquals("Watch", row.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testTransitionState_onlyFromExpectedState() {
+        DeviceRow saved = deviceRepository.save(newRow("Tablet", "Samsung", DeviceState.AVAILABLE)).block();
+
+        StepVerifier.create(deviceRepository.transitionState(saved.getId(), "IN_USE", "INACTIVE"))
+                .verifyComplete();
+        StepVerifier.create(deviceRepository.transitionState(saved.getId(), "AVAILABLE", "IN_USE"))
+                .assertNext(row -> {
+                    assertEquals(DeviceState.IN_USE, row.getState());
+                    assertEquals(1L, row.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testDeleteByIdAndVersion_keepsDeviceChangedSinceRead() {
+        DeviceRow saved = deviceRepository.save(newRow("Laptop", "Lenovo", DeviceState.AVAILABLE)).block();
+        deviceRepository.transitionState(saved.getId(), "AVAILABLE", "IN_USE").block();
+
+        StepVerifier.create(deviceRepository.deleteByIdAndVersion(saved.getId(), saved.getVersion()))
+                .expectNext(0)
+                .verifyComplete();
+        StepVerifier.create(deviceRepository.deleteByIdAndVersion(saved.getId(), saved.getVersion() + 1))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    private static DeviceRow newRow(String name, String brand, DeviceState state) {
+        return DeviceRow.builder()
+                .id(UuidV7.next())
+                .name(name)
+                .brand(brand)
+                .state(state)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
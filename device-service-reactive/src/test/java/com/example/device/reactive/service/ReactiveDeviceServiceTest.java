@@ -0,0 +1,189 @@
+package com.example.device.reactive.service;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.exception.InvalidStateTransitionException;
+import com.example.device.reactive.entity.DeviceRow;
+import com.example.device.reactive.repository.ReactiveDeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDeviceServiceTest {
+
+    @Mock
+    private ReactiveDeviceRepository deviceRepository;
+
+    private ReactiveDeviceService deviceService;
+
+    @BeforeEach
+    void setUp() {
+        deviceService = new ReactiveDeviceService(deviceRepository, "TIME_ORDERED");
+    }
+
+    @Test
+    void testSaveDevice_assignsTimeOrderedIdAndCreationTime() {
+        when(deviceRepository.save(any(DeviceRow.class))).thenAnswer(invocation -> {
+            DeviceRow row = invocation.getArgument(0);
+            row.setVersion(0L);
+            return Mono.just(row);
+        });
+
+        StepVerifier.create(deviceService.saveDevice(Device.builder().name("Phone").brand("Apple").build()))
+                .assertNext(device -> {
+                    assertEquals(7, device.getId().version());
+                    assertNotNull(device.getCreatedAt());
+                    assertEquals(0L, device.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testSaveDevice_brandRequired() {
+        StepVerifier.create(deviceService.saveDevice(Device.builder().name("Phone").build()))
+                .expectError(InvalidDeviceException.class)
+                .verify();
+        verify(deviceRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetDeviceById_notFound() {
+        UUID id = UUID.randomUUID();
+        when(deviceRepository.findById(id)).thenReturn(Mono.empty());
+
+        StepVerifier.create(deviceService.getDeviceById(id))
+                .expectError(DeviceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void testFindAllDevicesByBrand_mapsRowsAsTheyArrive() {
+        when(deviceRepository.findAllByBrand("Apple")).thenReturn(Flux.just(row(DeviceState.AVAILABLE), row(DeviceState.IN_USE)));
+
+        StepVerifier.create(deviceService.findAllDevicesByBrand("Apple"), 1)
+                .assertNext(device -> assertEquals(DeviceState.AVAILABLE, device.getState()))
+                .thenRequest(1)
+                .assertNext(device -> assertEquals(DeviceState.IN_USE, device.getState()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testUpdateDevice_inUseDeviceKeepsNameAndBrand() {
+        DeviceRow inUse = row(DeviceState.IN_USE);
+        when(deviceRepository.findById(inUse.getId())).thenReturn(Mono.just(inUse));
+
+        Device rename = Device.builder().id(inUse.getId()).name("Renamed").brand("Apple").build();
+        StepVerifier.create(deviceService.updateDevice(rename, null))
+                .expectError(DeviceInUseException.class)
+                .verify();
+        verify(deviceRepository, never()).save(any(DeviceRow.class));
+    }
+
+    @Test
+    void testUpdateDevice_versionMismatch() {
+        DeviceRow available = row(DeviceState.AVAILABLE);
+        when(deviceRepository.findById(available.getId())).thenReturn(Mono.just(available));
+
+        StepVerifier.create(deviceService.updateDevice(Device.builder().id(available.getId()).name("New").build(), 4L))
+                .expectError(DeviceVersionMismatchException.class)
+                .verify();
+    }
+
+    @Test
+    void testUpdateDevice_appliesNonNullFields() {
+        DeviceRow available = row(DeviceState.AVAILABLE);
+        when(deviceRepository.findById(available.getId())).thenReturn(Mono.just(available));
+        when(deviceRepository.save(available)).thenReturn(Mono.just(available));
+
+        StepVerifier.create(deviceService.updateDevice(Device.builder().id(available.getId()).name("New").build(), 3L))
+                .assertNext(device -> {
+                    assertEquals("New", device.getName());
+                    assertEquals("Apple", device.getBrand());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testDeleteDeviceById_deletesTheRowAsRead() {
+        DeviceRow available = row(DeviceState.AVAILABLE);
+        when(deviceRepository.findById(available.getId())).thenReturn(Mono.just(available));
+        when(deviceRepository.deleteByIdAndVersion(available.getId(), available.getVersion())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(deviceService.deleteDeviceById(available.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDeleteDeviceById_changedSinceReadIsNotDeleted() {
+        DeviceRow available = row(DeviceState.AVAILABLE);
+        when(deviceRepository.findById(available.getId())).thenReturn(Mono.just(available));
+        when(deviceRepository.deleteByIdAndVersion(available.getId(), available.getVersion())).thenReturn(Mono.just(0));
+
+        StepVerifier.create(deviceService.deleteDeviceById(available.getId()))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void testDeleteDeviceById_inUseDeviceIsKept() {
+        DeviceRow inUse = row(DeviceState.IN_USE);
+        when(deviceRepository.findById(inUse.getId())).thenReturn(Mono.just(inUse));
+
+        StepVerifier.create(deviceService.deleteDeviceById(inUse.getId()))
+                .expectError(DeviceInUseException.class)
+                .verify();
+        verify(deviceRepository, never()).deleteByIdAndVersion(any(UUID.class), any());
+    }
+
+    @Test
+    void testTransitionState_conflictReadsCurrentState() {
+        DeviceRow inUse = row(DeviceState.IN_USE);
+        when(deviceRepository.transitionState(inUse.getId(), "AVAILABLE", "INACTIVE")).thenReturn(Mono.empty());
+        when(deviceRepository.findById(inUse.getId())).thenReturn(Mono.just(inUse));
+
+        StepVerifier.create(deviceService.transitionState(inUse.getId(), DeviceState.AVAILABLE, DeviceState.INACTIVE))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(DeviceStateConflictException.class, error.getClass());
+                    assertEquals("Device " + inUse.getId() + " is IN_USE, not AVAILABLE", error.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void testTransitionState_requiresBothStates() {
+        StepVerifier.create(deviceService.transitionState(UUID.randomUUID(), null, DeviceState.IN_USE))
+                .expectError(InvalidStateTransitionException.class)
+                .verify();
+    }
+
+    private static DeviceRow row(DeviceState state) {
+        return DeviceRow.builder()
+                .id(UUID.randomUUID())
+                .name("Phone")
+                .brand("Apple")
+                .state(state)
+                .version(3L)
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+-- The device table as device-service's migrations V1 and V4 leave it.
+CREATE TABLE IF NOT EXISTS device (
+    id         UUID PRIMARY KEY,
+    name       VARCHAR(50) NOT NULL,
+    brand      VARCHAR(50) NOT NULL,
+    state      VARCHAR(20),
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP,
+    version    BIGINT NOT NULL DEFAULT 0
+);
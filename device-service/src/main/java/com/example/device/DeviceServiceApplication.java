@@ -0,0 +1,18 @@
+package com.example.device;
+
+import com.example.device.config.DeviceRuntimeHints;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(DeviceRuntimeHints.class)
+public class DeviceServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(DeviceServiceApplication.class, args);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.example.device.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Caching runs outside the transaction interceptor so entries are only written once the transaction has committed.
+ * The cache manager is configured from {@code spring.cache} like Boot's own Caffeine one, but copies cached devices.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String DEVICES = "devices";
+
+    @Bean
+    DeviceCacheManager cacheManager(CacheProperties cacheProperties) {
+        DeviceCacheManager cacheManager = new DeviceCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        List<String> cacheNames = cacheProperties.getCacheNames();
+        if (!cacheNames.isEmpty()) {
+            cacheManager.setCacheNames(cacheNames);
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled      whether requests beyond the adaptive limit are shed
+ * @param initialLimit requests in flight allowed before any latency has been measured
+ * @param minLimit     the limit never drops below this
+ * @param maxLimit     the limit never grows above this
+ * @param rttTolerance how much slower than the long-term average requests may get before the limit shrinks
+ * @param window       how often the limit is recalculated from the latencies measured since
+ */
+@ConfigurationProperties(prefix = "device.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("false") boolean enabled,
+                                         @DefaultValue("100") int initialLimit,
+                                         @DefaultValue("10") int minLimit,
+                                         @DefaultValue("1000") int maxLimit,
+                                         @DefaultValue("1.5") double rttTolerance,
+                                         @DefaultValue("100ms") Duration window) {
+}
@@ -0,0 +1,37 @@
+package com.example.device.config;
+
+import com.example.device.datasource.AdmissionControlledDataSource;
+import com.example.device.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "device.db-admission", name = "enabled", havingValue = "true")
+public class DatabaseAdmissionConfig {
+
+    /**
+     * Wraps the application data source in the admission limit. Static so it does not force early
+     * initialization of this configuration class.
+     */
+    @Bean
+    static BeanPostProcessor databaseAdmissionPostProcessor(ObjectProvider<DatabaseAdmissionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The replica router only hands out connections through the application data source, which is wrapped.
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlledDataSource)
+                        && !(bean instanceof ReplicaRoutingDataSource)) {
+                    DatabaseAdmissionProperties admission = properties.getObject();
+                    return new AdmissionControlledDataSource(dataSource, admission.maxConcurrent(),
+                            admission.maxWaiting(), admission.acquireTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled        whether connections are handed out through the admission limit
+ * @param maxConcurrent  connections that may be checked out at once, normally the Hikari pool size
+ * @param maxWaiting     callers allowed to queue for a permit before new ones are rejected immediately
+ * @param acquireTimeout how long a queued caller waits for a permit
+ */
+@ConfigurationProperties(prefix = "device.db-admission")
+public record DatabaseAdmissionProperties(@DefaultValue("false") boolean enabled,
+                                          @DefaultValue("20") int maxConcurrent,
+                                          @DefaultValue("200") int maxWaiting,
+                                          @DefaultValue("2s") Duration acquireTimeout) {
+}
@@ -0,0 +1,21 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     whether this instance moves long-inactive devices to the archive
+ * @param inactiveFor how long a device has to have been INACTIVE before it is archived
+ * @param batchSize   devices moved per transaction
+ * @param interval    time between archiving runs
+ * @param retention   how long archived devices are kept, by month of archival; unset keeps them forever
+ */
+@ConfigurationProperties(prefix = "device.archive")
+public record DeviceArchiveProperties(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("90d") Duration inactiveFor,
+                                      @DefaultValue("1000") int batchSize,
+                                      @DefaultValue("1h") Duration interval,
+                                      Duration retention) {
+}
@@ -0,0 +1,11 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param chunkSize number of items written per transaction; keep it in line with {@code hibernate.jdbc.batch_size}
+ */
+@ConfigurationProperties(prefix = "device.batch")
+public record DeviceBatchProperties(@DefaultValue("500") int chunkSize) {
+}
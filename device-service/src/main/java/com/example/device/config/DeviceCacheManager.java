@@ -0,0 +1,43 @@
+package com.example.device.config;
+
+import com.example.device.dto.Device;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * A {@link CaffeineCacheManager} whose caches store and hand out copies of {@link Device}s. The DTO is mutable, so a
+ * cached instance shared by every caller would let one caller's change show up in everyone else's reads.
+ */
+public class DeviceCacheManager extends CaffeineCacheManager {
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new DeviceCopyingCache(name, cache, isAllowNullValues());
+    }
+
+    /**
+     * Still a {@link CaffeineCache}, so the cache metrics bind to it as before. Every value goes in and comes out
+     * through {@link #toStoreValue} and {@link #fromStoreValue}.
+     */
+    static final class DeviceCopyingCache extends CaffeineCache {
+
+        DeviceCopyingCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+
+        private static Object copy(Object value) {
+            return value instanceof Device device ? device.toBuilder().build() : value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param relayEnabled        whether this instance relays outbox rows to the event stream
+ * @param batchSize           outbox rows published or replayed per query
+ * @param subscriberQueueSize events buffered per subscriber before a slow subscriber is disconnected
+ * @param heartbeat           idle time after which a keep-alive comment is sent to a subscriber
+ * @param streamTimeout       how long one event stream stays open before the client has to reconnect
+ * @param retention           how long published events can still be replayed
+ */
+@ConfigurationProperties(prefix = "device.events")
+public record DeviceEventProperties(@DefaultValue("true") boolean relayEnabled,
+                                    @DefaultValue("500") int batchSize,
+                                    @DefaultValue("1000") int subscriberQueueSize,
+                                    @DefaultValue("15s") Duration heartbeat,
+                                    @DefaultValue("30m") Duration streamTimeout,
+                                    @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,11 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxRejections number of rejected rows an import reports individually; the rest are only counted
+ */
+@ConfigurationProperties(prefix = "device.import")
+public record DeviceImportProperties(@DefaultValue("100") int maxRejections) {
+}
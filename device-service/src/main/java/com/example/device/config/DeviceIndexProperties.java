@@ -0,0 +1,15 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           whether lookups by id, brand and state and the full list are served from memory
+ * @param reconcileInterval how often the in-memory copy is rebuilt from the table
+ */
+@ConfigurationProperties(prefix = "device.memory-index")
+public record DeviceIndexProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("5m") Duration reconcileInterval) {
+}
@@ -0,0 +1,64 @@
+package com.example.device.config;
+
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceCount;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceStateInterval;
+import com.example.device.dto.DeviceStateTransition;
+import com.example.device.dto.DeviceStateUpdate;
+import com.example.device.dto.DeviceStats;
+import com.example.device.dto.DeviceTimeline;
+import com.example.device.dto.DeviceUtilization;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.entity.id.DeviceIdGenerator;
+import com.example.device.proto.DeviceListProto;
+import com.example.device.proto.DevicePageProto;
+import com.example.device.proto.DeviceProto;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection the native image needs and AOT processing cannot see. Controller request and response types are
+ * registered by Spring already; these are the types reached only through Jackson or Hibernate at run time.
+ */
+public class DeviceRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Lombok DTOs (de)serialized by Jackson outside controller signatures: NDJSON batch and stream bodies, outbox
+     * payloads and SSE events. {@link Device} and {@link DeviceCount} are also built by JPQL constructor expressions.
+     */
+    static final List<Class<?>> JSON_TYPES = List.of(Device.class, DevicePage.class, DeviceEvent.class, DeviceStats.class,
+            DeviceCount.class, BatchItemResult.class, DeviceImportResult.class, DeviceSearchRequest.class,
+            DeviceStateTransition.class, DeviceStateUpdate.class, DeviceTimeline.class, DeviceStateInterval.class,
+            DeviceUtilization.class, OpenAPI.class, Info.class);
+
+    static final List<Class<?>> ENTITY_TYPES = List.of(DeviceEntity.class, DeviceOutboxEntity.class);
+
+    /**
+     * Generated protobuf messages; their reflective accessors back {@code toString} and descriptor-based access.
+     */
+    static final List<Class<?>> PROTOBUF_TYPES = List.of(DeviceProto.class, DeviceProto.Builder.class,
+            DeviceListProto.class, DeviceListProto.Builder.class, DevicePageProto.class, DevicePageProto.Builder.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+        ENTITY_TYPES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS));
+        PROTOBUF_TYPES.forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS));
+        // Instantiated by Hibernate from @DeviceId through @IdGeneratorType.
+        hints.reflection().registerType(DeviceIdGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param clientErrorLogsPerSecond 4xx responses logged per exception type and second; the rest are only counted
+ */
+@ConfigurationProperties(prefix = "device.errors")
+public record ErrorLoggingProperties(@DefaultValue("10") int clientErrorLogsPerSecond) {
+}
@@ -0,0 +1,49 @@
+package com.example.device.config;
+
+import com.example.device.datasource.AdmissionControlledDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Meter names shared across the service, and meters for components Spring Boot does not instrument itself.
+ * HTTP, repository, Hikari and cache meters come from Spring Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "device.service";
+
+    public static final String ERRORS = "device.errors";
+
+    public static final String DB_ADMISSION = "device.db.admission";
+
+    @Bean
+    MeterBinder databaseAdmissionMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(AdmissionControlledDataSource.class::isInstance)
+                .map(AdmissionControlledDataSource.class::cast)
+                .findFirst()
+                .ifPresent(admission -> {
+                    Gauge.builder(DB_ADMISSION + ".available", admission, AdmissionControlledDataSource::getAvailablePermits)
+                            .description("Connections that can still be checked out without waiting")
+                            .register(registry);
+                    Gauge.builder(DB_ADMISSION + ".waiting", admission, AdmissionControlledDataSource::getWaiting)
+                            .description("Callers queued for a connection")
+                            .register(registry);
+                    FunctionCounter.builder(DB_ADMISSION + ".rejected", admission, AdmissionControlledDataSource::getRejectedQueueFull)
+                            .description("Connection requests rejected by the admission limit")
+                            .tag("reason", "queue_full")
+                            .register(registry);
+                    FunctionCounter.builder(DB_ADMISSION + ".rejected", admission, AdmissionControlledDataSource::getRejectedTimeout)
+                            .description("Connection requests rejected by the admission limit")
+                            .tag("reason", "timeout")
+                            .register(registry);
+                });
+    }
+}
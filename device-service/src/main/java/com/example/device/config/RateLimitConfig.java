@@ -0,0 +1,50 @@
+package com.example.device.config;
+
+import com.example.device.ratelimit.AdaptiveConcurrencyLimit;
+import com.example.device.ratelimit.ClientRateLimiter;
+import com.example.device.ratelimit.RateLimitInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the per-client rate limit and the adaptive concurrency limit in front of the controllers. The limiters exist
+ * either way, so their meters do too; a disabled one is simply not consulted. Whether they are enabled is read once at
+ * startup.
+ */
+@Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, ConcurrencyLimitProperties.class})
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    public RateLimitConfig(RateLimitProperties rateLimitProperties, ConcurrencyLimitProperties concurrencyLimitProperties) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+    }
+
+    @Bean
+    ClientRateLimiter clientRateLimiter() {
+        return new ClientRateLimiter(this.rateLimitProperties);
+    }
+
+    @Bean
+    AdaptiveConcurrencyLimit adaptiveConcurrencyLimit() {
+        return new AdaptiveConcurrencyLimit(this.concurrencyLimitProperties);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!this.rateLimitProperties.enabled() && !this.concurrencyLimitProperties.enabled()) {
+            return;
+        }
+        registry.addInterceptor(new RateLimitInterceptor(
+                this.rateLimitProperties.enabled() ? clientRateLimiter() : null,
+                this.concurrencyLimitProperties.enabled() ? adaptiveConcurrencyLimit() : null,
+                this.rateLimitProperties.apiKeyHeader()));
+    }
+}
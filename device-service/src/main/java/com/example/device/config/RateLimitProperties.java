@@ -0,0 +1,51 @@
+package com.example.device.config;
+
+import com.example.device.ratelimit.RequestClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Budgets are per client and endpoint: each client gets the full budget of its class on every endpoint.
+ *
+ * @param enabled         whether requests are rate limited
+ * @param apiKeyHeader    header identifying the client; clients without it are told apart by remote address
+ * @param cleanupInterval how often buckets of clients that have been idle long enough to refill are dropped
+ * @param read            budget of point reads
+ * @param scan            budget of lists, pages and searches
+ * @param write           budget of single and batch writes
+ * @param bulk            budget of streams, imports, exports and change-stream subscriptions
+ */
+@ConfigurationProperties(prefix = "device.rate-limit")
+public record RateLimitProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("X-API-Key") String apiKeyHeader,
+                                  @DefaultValue("1m") Duration cleanupInterval,
+                                  Budget read,
+                                  Budget scan,
+                                  Budget write,
+                                  Budget bulk) {
+
+    public RateLimitProperties {
+        read = read != null ? read : new Budget(200, 400);
+        scan = scan != null ? scan : new Budget(20, 40);
+        write = write != null ? write : new Budget(50, 100);
+        bulk = bulk != null ? bulk : new Budget(0.2, 2);
+    }
+
+    public Budget budget(RequestClass requestClass) {
+        return switch (requestClass) {
+            case READ -> read;
+            case SCAN -> scan;
+            case WRITE -> write;
+            case BULK -> bulk;
+        };
+    }
+
+    /**
+     * @param rate  requests per second the budget refills by
+     * @param burst requests a client with a full budget can send at once
+     */
+    public record Budget(double rate, int burst) {
+    }
+}
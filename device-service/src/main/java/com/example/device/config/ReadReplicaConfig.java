@@ -0,0 +1,87 @@
+package com.example.device.config;
+
+import com.example.device.datasource.ReadYourWritesFilter;
+import com.example.device.datasource.ReadYourWritesTaskDecorator;
+import com.example.device.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to replicas. The application data source is a {@link LazyConnectionDataSourceProxy}
+ * over the primary pool: it only takes a real connection at the first statement, by which time it knows whether
+ * the transaction is read-only, and then asks the {@link ReplicaRoutingDataSource} for one instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "device.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                      ReadReplicaProperties replicaProperties,
+                                                      Environment environment,
+                                                      MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(environment, meterRegistry, "device-primary", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+
+        String username = replicaProperties.username() != null ? replicaProperties.username() : dataSourceProperties.determineUsername();
+        String password = replicaProperties.password() != null ? replicaProperties.password() : dataSourceProperties.determinePassword();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            String name = "replica-" + i;
+            replicas.put(name, pool(environment, meterRegistry, "device-" + name, replicaProperties.urls().get(i), username, password));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.maxLag());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(ReadReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.stickyWindow());
+    }
+
+    /**
+     * Picked up by Spring Boot for the application task executor, which runs streaming responses.
+     */
+    @Bean
+    ReadYourWritesTaskDecorator readYourWritesTaskDecorator() {
+        return new ReadYourWritesTaskDecorator();
+    }
+
+    /**
+     * A Hikari pool with the same {@code spring.datasource.hikari} settings Spring Boot would apply to its own.
+     */
+    private static HikariDataSource pool(Environment environment, MeterRegistry meterRegistry,
+                                         String poolName, String url, String username, String password) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
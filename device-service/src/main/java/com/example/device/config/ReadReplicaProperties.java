@@ -0,0 +1,24 @@
+package com.example.device.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled      whether read-only transactions are routed to the replicas
+ * @param urls         JDBC URLs of the replicas; each gets its own pool with the {@code spring.datasource.hikari} settings
+ * @param username     replica user, defaults to {@code spring.datasource.username}
+ * @param password     replica password, defaults to {@code spring.datasource.password}
+ * @param maxLag       replication lag above which a replica stops receiving reads
+ * @param stickyWindow how long a client's reads stay on the primary after it changed something
+ */
+@ConfigurationProperties(prefix = "device.read-replicas")
+public record ReadReplicaProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue List<String> urls,
+                                    String username,
+                                    String password,
+                                    @DefaultValue("1s") Duration maxLag,
+                                    @DefaultValue("5s") Duration stickyWindow) {
+}
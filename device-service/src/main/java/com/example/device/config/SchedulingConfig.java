@@ -0,0 +1,15 @@
+package com.example.device.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Scheduled} jobs run on the {@code spring.task.scheduling} pool, {@code @Async} listeners on the application
+ * task executor. Class-based proxies, since the async beans are injected by class.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync(proxyTargetClass = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,25 @@
+package com.example.device.config;
+
+import com.example.device.dto.WriteAck;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled        whether {@code PUT /device/v1/id/{id}/state} goes through the write-behind buffer instead of
+ *                       straight to the database
+ * @param flushInterval  how often buffered states are written
+ * @param flushThreshold buffered devices that trigger a flush before the interval is up
+ * @param maxPending     buffered devices above which further devices are written through synchronously
+ * @param ack            acknowledgement used when the request does not ask for one
+ * @param ackTimeout     how long a {@link WriteAck#FLUSHED} request waits before it is answered 202 instead
+ */
+@ConfigurationProperties(prefix = "device.write-behind")
+public record WriteBehindProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("100ms") Duration flushInterval,
+                                    @DefaultValue("1000") int flushThreshold,
+                                    @DefaultValue("100000") int maxPending,
+                                    @DefaultValue("ACCEPTED") WriteAck ack,
+                                    @DefaultValue("5s") Duration ackTimeout) {
+}
@@ -0,0 +1,88 @@
+package com.example.device.controller;
+
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.service.DeviceBatchService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RequestMapping("/device/v1/batch")
+@RestController
+@Tag(name = "Device Batch API", description = "Endpoints for creating, updating and deleting devices in bulk")
+public class DeviceBatchController {
+
+    private final DeviceBatchService deviceBatchService;
+
+    private final ObjectMapper objectMapper;
+
+    public DeviceBatchController(DeviceBatchService deviceBatchService, ObjectMapper objectMapper) {
+        this.deviceBatchService = deviceBatchService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Create devices in bulk", description = "Saves a JSON array of devices, returning one result per device")
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> saveDevices(@RequestBody List<Device> devices) {
+        List<BatchItemResult> results = this.deviceBatchService.saveDevices(devices.iterator());
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(summary = "Create devices in bulk from NDJSON", description = "Saves newline-delimited JSON devices, returning one result per device")
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> saveDevicesNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Device> devices = readNdjson(body, Device.class)) {
+            List<BatchItemResult> results = this.deviceBatchService.saveDevices(devices);
+            return ResponseEntity.status(HttpStatus.OK).body(results);
+        }
+    }
+
+    @Operation(summary = "Update devices in bulk", description = "Applies a JSON array of partial device updates, returning one result per device")
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> updateDevices(@RequestBody List<Device> devices) {
+        List<BatchItemResult> results = this.deviceBatchService.updateDevices(devices.iterator());
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(summary = "Update devices in bulk from NDJSON", description = "Applies newline-delimited JSON partial device updates, returning one result per device")
+    @PatchMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> updateDevicesNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Device> devices = readNdjson(body, Device.class)) {
+            List<BatchItemResult> results = this.deviceBatchService.updateDevices(devices);
+            return ResponseEntity.status(HttpStatus.OK).body(results);
+        }
+    }
+
+    @Operation(summary = "Delete devices in bulk", description = "Deletes a JSON array of device ids, returning one result per id")
+    @DeleteMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> deleteDevices(@RequestBody List<UUID> ids) {
+        List<BatchItemResult> results = this.deviceBatchService.deleteDevices(ids.iterator());
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(summary = "Delete devices in bulk from NDJSON", description = "Deletes newline-delimited JSON device ids, returning one result per id")
+    @DeleteMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> deleteDevicesNdjson(InputStream body) throws IOException {
+        try (MappingIterator<UUID> ids = readNdjson(body, UUID.class)) {
+            List<BatchItemResult> results = this.deviceBatchService.deleteDevices(ids);
+            return ResponseEntity.status(HttpStatus.OK).body(results);
+        }
+    }
+
+    /**
+     * Reads the body lazily, one line at a time, as the batch service pulls items for the next chunk.
+     */
+    private <T> MappingIterator<T> readNdjson(InputStream body, Class<T> type) throws IOException {
+        return this.objectMapper.readerFor(type).readValues(body);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.device.controller;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.dto.DeviceStateTransition;
+import com.example.device.dto.DeviceStateUpdate;
+import com.example.device.dto.WriteAck;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.ratelimit.RateLimited;
+import com.example.device.ratelimit.RequestClass;
+import com.example.device.service.DeviceService;
+import com.example.device.service.DeviceStateBuffer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RequestMapping("/device/v1")
+@RestController
+@Tag(name = "Device API", description = "Endpoints for managing devices")
+public class DeviceController {
+
+    private final DeviceService deviceService;
+
+    private final DeviceStateBuffer deviceStateBuffer;
+
+    private final ObjectMapper objectMapper;
+
+    public DeviceController(DeviceService deviceService, DeviceStateBuffer deviceStateBuffer, ObjectMapper objectMapper) {
+        this.deviceService = deviceService;
+        this.deviceStateBuffer = deviceStateBuffer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Create a new device", description = "Saves a new device in the database")
+    @PostMapping
+    public ResponseEntity<Device> saveDevice(@RequestBody Device device) {
+        Device savedDevice = this.deviceService.saveDevice(device);
+
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(DeviceETag.of(savedDevice)).body(savedDevice);
+    }
+
+    @Operation(summary = "Find device by id", description = "Fetches a device, from the cache when possible. "
+            + "Answers 304 without a body when If-None-Match has the device's current ETag. "
+            + "With includeArchived=true an archived device is found too")
+    @GetMapping("/id/{id}")
+    public ResponseEntity<Device> getDeviceById(@PathVariable UUID id,
+                                                @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Device deviceById = includeArchived
+                ? this.deviceService.getDeviceByIdIncludingArchived(id)
+                : this.deviceService.getDeviceById(id);
+        return revalidated(DeviceETag.of(deviceById)).body(deviceById);
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Find all devices", description = "Fetches all devices from the database, "
+            + "followed by the archived ones with includeArchived=true")
+    @GetMapping
+    public ResponseEntity<List<Device>> getAllDevices(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<Device> allDevices = includeArchived
+                ? this.deviceService.findAllIncludingArchived()
+                : this.deviceService.findAll();
+        return revalidated(DeviceETag.of(allDevices)).body(allDevices);
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Find a page of devices", description = "Fetches devices ordered by creation time, continuing after the given cursor")
+    @GetMapping("/page")
+    public ResponseEntity<DevicePage> getDevicePage(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "100") int size) {
+        DevicePage page = this.deviceService.findPage(cursor, size);
+        return revalidated(DeviceETag.of(page)).body(page);
+    }
+
+    @RateLimited(RequestClass.BULK)
+    @Operation(summary = "Stream all devices", description = "Streams all devices as newline-delimited JSON without buffering them in memory")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDevices() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+                // Each device ends with its own newline, so no extra separator between root values.
+                generator.setRootValueSeparator(null);
+                this.deviceService.streamAll(device -> {
+                    try {
+                        generator.writeObject(device);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Search devices", description = "Fetches a page of devices matching all given filters: brand (case-insensitive), "
+            + "one or more states, name prefix and creation time range. Sorted by CREATED_AT or NAME, continuing after the given cursor")
+    @GetMapping("/search")
+    public ResponseEntity<DevicePage> searchDevices(@RequestParam(required = false) String brand,
+                                                    @RequestParam(name = "state", required = false) Set<DeviceState> states,
+                                                    @RequestParam(required = false) String namePrefix,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                                    @RequestParam(defaultValue = "CREATED_AT") DeviceSortField sort,
+                                                    @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "100") int size) {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .brand(brand)
+                .states(states)
+                .namePrefix(namePrefix)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .sort(sort)
+                .direction(direction)
+                .build();
+        DevicePage page = this.deviceService.search(request, cursor, size);
+        return revalidated(DeviceETag.of(page)).body(page);
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Find all devices by brand", description = "Fetches all devices from the database matching the provided brand, "
+            + "followed by the archived ones with includeArchived=true")
+    @GetMapping("/brand/{brand}")
+    public ResponseEntity<List<Device>> getAllDevicesByBrand(@PathVariable String brand,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<Device> allDevices = includeArchived
+                ? this.deviceService.findAllDevicesByBrandIncludingArchived(brand)
+                : this.deviceService.findAllDevicesByBrand(brand);
+        return revalidated(DeviceETag.of(allDevices)).body(allDevices);
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Find all devices by device state", description = "Fetches all devices from the database matching the provided device state, "
+            + "followed by the archived ones with includeArchived=true")
+    @GetMapping("/state/{state}")
+    public ResponseEntity<List<Device>> getAllDevicesByState(@PathVariable String state,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<Device> allDevices = includeArchived
+                ? this.deviceService.findAllDevicesByStateIncludingArchived(DeviceState.valueOf(state))
+                : this.deviceService.findAllDevicesByState(DeviceState.valueOf(state));
+        return revalidated(DeviceETag.of(allDevices)).body(allDevices);
+    }
+
+    @Operation(summary = "Update device by id", description = "Update device by id in the database. "
+            + "With an If-Match header the update only applies if the device still has that ETag, otherwise 412 is returned")
+    @PatchMapping
+    public ResponseEntity<Device> updateDevice(@RequestBody Device device,
+                                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Device updatedDevice = this.deviceService.updateDevice(device, expectedVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(DeviceETag.of(updatedDevice)).body(updatedDevice);
+    }
+
+    @Operation(summary = "Change device state", description = "Moves the device to the 'to' state if it is currently in the 'from' state, "
+            + "atomically. Returns 409 when the device is in another state")
+    @PostMapping("/id/{id}/state")
+    public ResponseEntity<Device> transitionState(@PathVariable UUID id, @RequestBody DeviceStateTransition transition) {
+        Device device = this.deviceService.transitionState(id, transition.getFrom(), transition.getTo());
+        return ResponseEntity.status(HttpStatus.OK).eTag(DeviceETag.of(device)).body(device);
+    }
+
+    @Operation(summary = "Set device state", description = "Sets the state whatever the current one is. With write-behind "
+            + "enabled the write is buffered and coalesced with later writes to the same device: ack=ACCEPTED answers 202 "
+            + "right away, ack=FLUSHED waits until the state is in the database and returns the device")
+    @PutMapping("/id/{id}/state")
+    public ResponseEntity<Device> setState(@PathVariable UUID id, @RequestBody DeviceStateUpdate update,
+                                           @RequestParam(required = false) WriteAck ack) {
+        Device device = this.deviceStateBuffer.setState(id, update.getState(), ack);
+        if (device == null) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(DeviceETag.of(device)).body(device);
+    }
+
+    @Operation(summary = "Delete device by id", description = "Delete device by id from the database")
+    @DeleteMapping("/id/{id}")
+    public ResponseEntity<Device> deleteDevice(@PathVariable UUID id) {
+        this.deviceService.deleteDeviceById(id);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * A 200 carrying the ETag. Responses may be stored but must be revalidated, so repeat reads become conditional
+     * requests; Spring answers those with 304 and skips serializing the body when the ETag still matches. The body
+     * format follows the Accept header, so caches have to key on it.
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String eTag) {
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).eTag(eTag);
+    }
+
+    /**
+     * Reads the version out of an If-Match header, weak or strong; {@code *} matches any version.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        ETag eTag = ETag.create(ifMatch.trim());
+        if (eTag.isWildcard()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eTag.tag());
+        } catch (NumberFormatException e) {
+            throw new DeviceVersionMismatchException("If-Match " + ifMatch + " does not match any device version");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.device.controller;
+
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.ratelimit.RateLimited;
+import com.example.device.ratelimit.RequestClass;
+import com.example.device.service.DeviceCopyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RequestMapping("/device/v1")
+@RestController
+@RateLimited(RequestClass.BULK)
+@Tag(name = "Device Import/Export API", description = "Endpoints for loading and dumping the whole device table as CSV or NDJSON")
+public class DeviceCopyController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    private final DeviceCopyService deviceCopyService;
+
+    public DeviceCopyController(DeviceCopyService deviceCopyService) {
+        this.deviceCopyService = deviceCopyService;
+    }
+
+    @Operation(summary = "Import devices from CSV", description = "Inserts the devices of a CSV body whose header names the columns "
+            + "(id, name, brand, state, created_at; version is ignored), skipping ids that already exist")
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<DeviceImportResult> importCsv(InputStream body) {
+        DeviceImportResult result = this.deviceCopyService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    @Operation(summary = "Import devices from NDJSON", description = "Inserts newline-delimited JSON devices, skipping ids that already exist")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<DeviceImportResult> importNdjson(InputStream body) {
+        DeviceImportResult result = this.deviceCopyService.importNdjson(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    @Operation(summary = "Export all devices", description = "Streams every device as CSV with a header, or as newline-delimited JSON "
+            + "when that is what the Accept header prefers")
+    @GetMapping(value = "/export", produces = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportDevices(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (prefersNdjson(accept)) {
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(this.deviceCopyService::exportNdjson);
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=devices.csv")
+                .body(this.deviceCopyService::exportCsv);
+    }
+
+    private static boolean prefersNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(TEXT_CSV)) {
+                return false;
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.device.controller;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ETags for device responses. A device's representation only changes when its version does, so a single device is
+ * tagged with its version and a collection with a hash of the ids and versions it contains, in order. Both can be
+ * compared against {@code If-None-Match} before anything is serialized.
+ * <p>
+ * All tags are weak: the same tag covers every wire format (JSON, CBOR, Smile, Protobuf) and content coding of the
+ * response, which are equivalent but not byte-identical, and Tomcat refuses to gzip a response that carries a strong
+ * ETag. {@code If-Match} on updates still takes the version out of the weak tag.
+ */
+final class DeviceETag {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private DeviceETag() {
+    }
+
+    static String of(Device device) {
+        return device.getVersion() == null ? null : weak(device.getVersion().toString());
+    }
+
+    static String of(List<Device> devices) {
+        return weak(hash(FNV_OFFSET_BASIS, devices));
+    }
+
+    static String of(DevicePage page) {
+        long hash = hash(FNV_OFFSET_BASIS, page.getItems());
+        hash = mix(hash, page.getNextCursor() == null ? 0 : page.getNextCursor().hashCode());
+        return weak(hash);
+    }
+
+    private static String weak(long hash) {
+        return weak(Long.toHexString(hash));
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static long hash(long hash, List<Device> devices) {
+        hash = mix(hash, devices.size());
+        for (Device device : devices) {
+            UUID id = device.getId();
+            hash = mix(hash, id.getMostSignificantBits());
+            hash = mix(hash, id.getLeastSignificantBits());
+            hash = mix(hash, device.getVersion() == null ? -1 : device.getVersion());
+        }
+        return hash;
+    }
+
+    /**
+     * FNV-1a over the eight bytes of {@code value}.
+     */
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
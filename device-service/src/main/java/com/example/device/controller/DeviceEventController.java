@@ -0,0 +1,40 @@
+package com.example.device.controller;
+
+import com.example.device.ratelimit.RateLimited;
+import com.example.device.ratelimit.RequestClass;
+import com.example.device.service.DeviceEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/device/v1/events")
+@RestController
+@RateLimited(RequestClass.BULK)
+@Tag(name = "Device Events API", description = "Stream of device changes")
+public class DeviceEventController {
+
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final DeviceEventService deviceEventService;
+
+    public DeviceEventController(DeviceEventService deviceEventService) {
+        this.deviceEventService = deviceEventService;
+    }
+
+    @Operation(summary = "Stream device changes", description = "Server-Sent Events of device creates, updates, state changes and deletes. "
+            + "Resumes after the Last-Event-ID header or the 'after' offset; without either, starts with the next change")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId,
+                                                   @RequestParam(required = false) Long after) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : -1;
+        return ResponseEntity.status(HttpStatus.OK).body(this.deviceEventService.subscribe(from));
+    }
+}
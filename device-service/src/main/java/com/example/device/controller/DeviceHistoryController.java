@@ -0,0 +1,50 @@
+package com.example.device.controller;
+
+import com.example.device.dto.DeviceTimeline;
+import com.example.device.dto.DeviceUtilization;
+import com.example.device.ratelimit.RateLimited;
+import com.example.device.ratelimit.RequestClass;
+import com.example.device.service.DeviceHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RequestMapping("/device/v1")
+@RestController
+@Tag(name = "Device History API", description = "Past device states from the state-change log")
+public class DeviceHistoryController {
+
+    private final DeviceHistoryService deviceHistoryService;
+
+    public DeviceHistoryController(DeviceHistoryService deviceHistoryService) {
+        this.deviceHistoryService = deviceHistoryService;
+    }
+
+    @Operation(summary = "Device state timeline", description = "Returns the states the device was in between from and to "
+            + "(default: the last 7 days, at most 366) and the time spent in each, including after it was archived or deleted")
+    @GetMapping("/id/{id}/history")
+    public ResponseEntity<DeviceTimeline> getTimeline(@PathVariable UUID id,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.status(HttpStatus.OK).body(this.deviceHistoryService.getTimeline(id, from, to));
+    }
+
+    @RateLimited(RequestClass.SCAN)
+    @Operation(summary = "Fleet utilization", description = "Returns the device time spent in each state by all devices between "
+            + "from and to (default: the last 7 days, at most 366) and the share of it spent IN_USE")
+    @GetMapping("/stats/utilization")
+    public ResponseEntity<DeviceUtilization> getUtilization(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.status(HttpStatus.OK).body(this.deviceHistoryService.getUtilization(from, to));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.device.controller;
+
+import com.example.device.dto.DeviceStats;
+import com.example.device.service.DeviceStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/device/v1/stats")
+@RestController
+@Tag(name = "Device Stats API", description = "Aggregate device counts")
+public class DeviceStatsController {
+
+    private final DeviceStatsService deviceStatsService;
+
+    public DeviceStatsController(DeviceStatsService deviceStatsService) {
+        this.deviceStatsService = deviceStatsService;
+    }
+
+    @Operation(summary = "Count devices", description = "Returns device counts by state, by brand and by brand and state, "
+            + "served from in-memory counters that are reconciled with the database periodically")
+    @GetMapping
+    public ResponseEntity<DeviceStats> getStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(this.deviceStatsService.getStats());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.device.converter;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.mapper.DeviceMapper;
+import com.google.protobuf.Message;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes devices, device lists and device pages as the messages in {@code device.proto} for clients that ask for
+ * {@code application/x-protobuf}. Response-only: requests keep using JSON.
+ */
+public class DeviceProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public DeviceProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Device.class == clazz || DevicePage.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        return supports(clazz) || (List.class.isAssignableFrom(clazz) && isListOfDevices(type));
+    }
+
+    /**
+     * Content negotiation asks by raw class, so a {@code List} is listed here and narrowed down to
+     * {@code List<Device>} by {@link #canWrite(Type, Class, MediaType)}.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message = switch (value) {
+            case Device device -> DeviceMapper.toProto(device);
+            case DevicePage page -> DeviceMapper.toProto(page);
+            default -> DeviceMapper.toProto((List<Device>) value);
+        };
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static boolean isListOfDevices(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments().length == 1
+                && parameterized.getActualTypeArguments()[0] == Device.class;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.device.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Puts a fair semaphore in front of the connection pool. With virtual threads there is no worker pool to cap
+ * concurrency, so thousands of requests can pile up on the pool at once; this keeps at most
+ * {@code maxConcurrent} connections checked out, lets a bounded number of callers queue in FIFO order and
+ * rejects the rest straight away with {@link DatabaseBusyException} instead of letting them time out.
+ */
+public class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final int maxWaiting;
+
+    private final long acquireTimeoutNanos;
+
+    private final LongAdder rejectedQueueFull = new LongAdder();
+
+    private final LongAdder rejectedTimeout = new LongAdder();
+
+    public AdmissionControlledDataSource(DataSource targetDataSource, int maxConcurrent, int maxWaiting, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return admitted(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return admitted(() -> super.getConnection(username, password));
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejectedQueueFull() {
+        return rejectedQueueFull.sum();
+    }
+
+    public long getRejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejectedQueueFull.increment();
+            throw new DatabaseBusyException("Database admission queue is full");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedTimeout.increment();
+                throw new DatabaseBusyException("Timed out waiting for database admission");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database admission", e);
+        }
+    }
+
+    private Connection admitted(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return releasingOnClose(connection);
+    }
+
+    /**
+     * Wraps the pooled connection so its permit is returned exactly once, on the first {@code close()}. The wrapper
+     * has its own identity, so {@code equals}/{@code hashCode} stay consistent for code that keys on the connection
+     * it was given, and {@code unwrap} answers for the wrapper before handing on to the pooled connection (as
+     * {@code unwrap(PGConnection.class)} for {@code COPY} does).
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Admission-controlled " + connection;
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            break;
+                        case "isWrapperFor":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return true;
+                            }
+                            break;
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.device.datasource;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a connection is refused by {@link AdmissionControlledDataSource} because too many callers are
+ * already using or waiting for the pool.
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
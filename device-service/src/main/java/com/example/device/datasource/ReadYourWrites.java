@@ -0,0 +1,25 @@
+package com.example.device.datasource;
+
+/**
+ * Marks the current request as one whose reads must see the client's own recent writes, which only the primary
+ * is guaranteed to have.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
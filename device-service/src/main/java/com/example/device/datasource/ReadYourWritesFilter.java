@@ -0,0 +1,57 @@
+package com.example.device.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives clients read-your-writes consistency while reads go to replicas. A request that may change data sets a
+ * short-lived cookie; as long as the client sends it back, its reads are pinned to the primary. Once the cookie
+ * expires the replicas have caught up (they are only used while their lag is below the same bound). Clients that
+ * do not keep cookies can send the {@value #HEADER_NAME} header on the reads that must see their own writes.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "device-read-primary";
+
+    static final String HEADER_NAME = "X-Read-Primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final int stickySeconds;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickySeconds = (int) Math.max(1, stickyWindow.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the chain runs, while the response can still take headers.
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setMaxAge(this.stickySeconds);
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (write || WebUtils.getCookie(request, COOKIE_NAME) != null || request.getHeader(HEADER_NAME) != null) {
+            ReadYourWrites.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
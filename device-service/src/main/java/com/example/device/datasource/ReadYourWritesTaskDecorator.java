@@ -0,0 +1,29 @@
+package com.example.device.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the {@link ReadYourWrites} pin of the submitting thread over to the task. Spring MVC runs a
+ * {@code StreamingResponseBody} (and {@code Callable} results) on the application task executor, outside the
+ * request thread the {@link ReadYourWritesFilter} pinned, so without this their reads would go to a replica.
+ */
+public class ReadYourWritesTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (!ReadYourWrites.isPinnedToPrimary()) {
+            return runnable;
+        }
+        return () -> {
+            boolean alreadyPinned = ReadYourWrites.isPinnedToPrimary();
+            ReadYourWrites.pinToPrimary();
+            try {
+                runnable.run();
+            } finally {
+                if (!alreadyPinned) {
+                    ReadYourWrites.clear();
+                }
+            }
+        };
+    }
+}
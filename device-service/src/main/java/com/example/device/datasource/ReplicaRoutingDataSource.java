@@ -0,0 +1,175 @@
+package com.example.device.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Target for connections of read-only transactions. Spreads them round-robin over the replicas whose replication
+ * lag is within {@code maxLag}, and falls back to the primary when none is, when the lag check fails or when the
+ * request is pinned to the primary by {@link ReadYourWrites}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, Closeable {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Lag in milliseconds; zero on a server that is not a standby or that has replayed everything it received,
+     * since an idle primary would otherwise make the last replay timestamp look stale.
+     */
+    static final String LAG_QUERY = "select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else (extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000)::bigint end";
+
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+
+    private final Map<String, DataSource> replicas;
+
+    private final long maxLagMillis;
+
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+
+    private volatile List<String> available = List.of();
+
+    private final Set<String> unreachable = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder pinnedReads = new LongAdder();
+
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            this.pinnedReads.increment();
+            return PRIMARY;
+        }
+        List<String> candidates = this.available;
+        if (candidates.isEmpty()) {
+            this.fallbackReads.increment();
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(this.next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Measures every replica's lag and takes the ones that are too far behind, or unreachable, out of rotation.
+     */
+    @Scheduled(fixedDelayString = "${device.read-replicas.lag-check-interval:1s}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>(this.replicas.size());
+        this.replicas.forEach((name, replica) -> {
+            Long lag = measureLag(name, replica);
+            this.lagMillis.put(name, lag == null ? -1 : lag);
+            if (lag != null && lag <= this.maxLagMillis) {
+                healthy.add(name);
+            }
+        });
+        if (healthy.size() != this.available.size()) {
+            log.info("Routing reads to {} of {} replicas", healthy.size(), this.replicas.size());
+        }
+        this.available = List.copyOf(healthy);
+    }
+
+    private Long measureLag(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                long lag = resultSet.getLong(1);
+                if (this.unreachable.remove(name)) {
+                    log.info("Lag check on replica {} succeeded again", name);
+                }
+                // No transaction replayed yet: the replica's position is unknown.
+                return resultSet.wasNull() ? null : lag;
+            }
+        } catch (SQLException e) {
+            if (this.unreachable.add(name)) {
+                log.warn("Lag check on replica {} failed, sending its reads to the primary: {}", name, e.getMessage());
+            } else {
+                log.debug("Lag check on replica {} failed: {}", name, e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    public DataSource getPrimary() {
+        return this.primary;
+    }
+
+    public List<String> getAvailableReplicas() {
+        return this.available;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.replicas.keySet().forEach(name ->
+                Gauge.builder("device.db.replica.lag", this.lagMillis, lags -> lags.getOrDefault(name, -1L))
+                        .description("Replication lag in milliseconds, -1 when unknown")
+                        .baseUnit("milliseconds")
+                        .tag("replica", name)
+                        .register(registry));
+        Gauge.builder("device.db.replica.available", this, routing -> routing.getAvailableReplicas().size())
+                .description("Replicas currently receiving reads")
+                .register(registry);
+        FunctionCounter.builder("device.db.replica.primary.reads", this.pinnedReads, LongAdder::sum)
+                .description("Read-only transactions sent to the primary")
+                .tag("reason", "read_your_writes")
+                .register(registry);
+        FunctionCounter.builder("device.db.replica.primary.reads", this.fallbackReads, LongAdder::sum)
+                .description("Read-only transactions sent to the primary")
+                .tag("reason", "no_replica")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : this.replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (this.primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.device.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    /**
+     * Position of the item in the request body, starting at 0.
+     */
+    private int index;
+
+    private UUID id;
+
+    /**
+     * HTTP status the item would have received from the single-item endpoint.
+     */
+    private int status;
+
+    private Device device;
+
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of devices with a given brand and state, one row of the {@code GROUP BY brand, state} query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceCount {
+
+    private String brand;
+
+    private DeviceState state;
+
+    private Long count;
+}
@@ -0,0 +1,38 @@
+package com.example.device.dto;
+
+import com.example.device.event.DeviceEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the {@code GET /device/v1/events} stream.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceEvent {
+
+    /**
+     * Position in the stream; also the SSE event id, so {@code Last-Event-ID} resumes after it.
+     */
+    private long offset;
+
+    private DeviceEventType type;
+
+    private UUID deviceId;
+
+    /**
+     * The device as JSON, after the change or as it was before deletion. Copied verbatim from the outbox.
+     */
+    @JsonRawValue
+    private String device;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,34 @@
+package com.example.device.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceImportResult {
+
+    /**
+     * Rows read from the request body, not counting a CSV header.
+     */
+    private long received;
+
+    private long imported;
+
+    /**
+     * Valid rows whose id already existed; the stored device is left as it is.
+     */
+    private long duplicates;
+
+    private long rejected;
+
+    /**
+     * The first rejected rows, each with the position of the row and the reason.
+     */
+    private List<BatchItemResult> rejections;
+}
@@ -0,0 +1,22 @@
+package com.example.device.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DevicePage {
+
+    private List<Device> items;
+
+    /**
+     * Opaque token to pass back as {@code cursor} to fetch the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,46 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Filters of {@code GET /device/v1/search}. Every criterion is optional and they are combined with AND.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceSearchRequest {
+
+    /**
+     * Brand to match, ignoring case.
+     */
+    private String brand;
+
+    private Set<DeviceState> states;
+
+    private String namePrefix;
+
+    /**
+     * Inclusive lower bound on the creation time.
+     */
+    private LocalDateTime createdFrom;
+
+    /**
+     * Exclusive upper bound on the creation time.
+     */
+    private LocalDateTime createdTo;
+
+    @Builder.Default
+    private DeviceSortField sort = DeviceSortField.CREATED_AT;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+}
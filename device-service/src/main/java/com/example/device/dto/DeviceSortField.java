@@ -0,0 +1,53 @@
+package com.example.device.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort keys supported by the device search. Results are always tie-broken by id so keyset paging is stable.
+ */
+public enum DeviceSortField {
+
+    CREATED_AT("createdAt") {
+        @Override
+        public Comparable<?> keyOf(Device device) {
+            return device.getCreatedAt();
+        }
+
+        @Override
+        public Comparable<?> parse(String value) {
+            return LocalDateTime.parse(value);
+        }
+    },
+
+    NAME("name") {
+        @Override
+        public Comparable<?> keyOf(Device device) {
+            return device.getName();
+        }
+
+        @Override
+        public Comparable<?> parse(String value) {
+            return value;
+        }
+    };
+
+    private final String attribute;
+
+    DeviceSortField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /**
+     * Name of the {@code DeviceEntity} attribute sorted on.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * The sort key of the device, as written into the search cursor.
+     */
+    public abstract Comparable<?> keyOf(Device device);
+
+    public abstract Comparable<?> parse(String value);
+}
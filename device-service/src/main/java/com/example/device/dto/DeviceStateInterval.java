@@ -0,0 +1,25 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stretch of time a device spent in one state, cut to the requested window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStateInterval {
+
+    private DeviceState state;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+}
@@ -0,0 +1,19 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of {@code PUT /device/v1/id/{id}/state}: the state to set, whatever the current one is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStateUpdate {
+
+    private DeviceState state;
+}
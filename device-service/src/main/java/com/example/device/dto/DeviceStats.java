@@ -0,0 +1,34 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Response of {@code GET /device/v1/stats}. Devices without a state count towards {@code total} and
+ * {@code byBrand} only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStats {
+
+    private long total;
+
+    private Map<DeviceState, Long> byState;
+
+    private Map<String, Long> byBrand;
+
+    private Map<String, Map<DeviceState, Long>> byBrandAndState;
+
+    /**
+     * When the counters were last checked against the database.
+     */
+    private Instant reconciledAt;
+}
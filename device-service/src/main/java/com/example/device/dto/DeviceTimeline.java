@@ -0,0 +1,33 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response of {@code GET /device/v1/id/{id}/history}. Time the device did not exist, or had no state, is in no
+ * interval.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceTimeline {
+
+    private UUID id;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private List<DeviceStateInterval> intervals;
+
+    private Map<DeviceState, Double> secondsInState;
+}
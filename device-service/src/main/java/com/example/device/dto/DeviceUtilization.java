@@ -0,0 +1,32 @@
+package com.example.device.dto;
+
+import com.example.device.entity.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Response of {@code GET /device/v1/stats/utilization}: device time summed over the whole fleet, archived devices
+ * included for as long as they were in the device table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceUtilization {
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private Map<DeviceState, Double> secondsInState;
+
+    /**
+     * Share of the device time that was spent {@code IN_USE}, between 0 and 1; 0 when no device had a state.
+     */
+    private double utilization;
+}
@@ -0,0 +1,15 @@
+package com.example.device.dto;
+
+/**
+ * When a buffered state write is acknowledged.
+ */
+public enum WriteAck {
+    /**
+     * As soon as the write is in the buffer. Fastest, but writes not flushed yet are lost if the process dies.
+     */
+    ACCEPTED,
+    /**
+     * Once the flush carrying the write (or a later write to the same device) has committed.
+     */
+    FLUSHED
+}
@@ -1,5 +1,7 @@
 package com.example.device.entity;
 
+import com.example.device.entity.id.DeviceId;
+import com.example.device.rules.StoredDevice;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,10 +18,10 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "device")
-public class DeviceEntity {
+public class DeviceEntity implements StoredDevice {
 
     @Id
-    @GeneratedValue(generator = "UUID")
+    @DeviceId
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -36,4 +38,8 @@ public class DeviceEntity {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,54 @@
+package com.example.device.entity;
+
+import com.example.device.event.DeviceEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "device_outbox")
+public class DeviceOutboxEntity {
+
+    /**
+     * UUIDv7 assigned by the writer, so rows are persisted without a SELECT and relayed in insertion order.
+     */
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Position in the event stream, assigned by the relay once the row is committed.
+     */
+    @Column(name = "event_offset")
+    private Long eventOffset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private DeviceEventType eventType;
+
+    @Column(name = "device_id", nullable = false)
+    private UUID deviceId;
+
+    /**
+     * The device as JSON, after the change or before deletion.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.example.device.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID id on the application side before insert. The strategy can be overridden
+ * for the whole persistence unit with the {@value DeviceIdGenerator#STRATEGY_SETTING} JPA property.
+ */
+@IdGeneratorType(DeviceIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface DeviceId {
+
+    DeviceIdStrategy strategy() default DeviceIdStrategy.TIME_ORDERED;
+}
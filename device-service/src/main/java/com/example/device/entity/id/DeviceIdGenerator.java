@@ -0,0 +1,49 @@
+package com.example.device.entity.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Instantiated through the no-arg constructor and then {@link #initialize initialized}, so it also works when
+ * Hibernate creates generators through Spring's bean container.
+ */
+public class DeviceIdGenerator implements BeforeExecutionGenerator, AnnotationBasedGenerator<DeviceId> {
+
+    public static final String STRATEGY_SETTING = "device.id.strategy";
+
+    private DeviceIdStrategy strategy;
+
+    @Override
+    public void initialize(DeviceId config, Member member, GeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(STRATEGY_SETTING);
+        this.strategy = configured == null || configured.toString().isBlank()
+                ? config.strategy()
+                : DeviceIdStrategy.valueOf(configured.toString().trim().toUpperCase(Locale.ROOT));
+    }
+
+    public DeviceIdStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return strategy.get();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.device.event;
+
+import com.example.device.dto.Device;
+
+import java.util.Objects;
+
+/**
+ * Published by the write paths whenever a device is created, changed or deleted. Listeners that only care about
+ * committed data should use {@code @TransactionalEventListener}; outside a transaction the event is only
+ * published once the write has been committed.
+ *
+ * @param before   the device before the change, {@code null} when it was created
+ * @param after    the device after the change, {@code null} when it was deleted or archived
+ * @param archived whether the device was moved to the archive rather than deleted
+ */
+public record DeviceChangedEvent(Device before, Device after, boolean archived) {
+
+    public static DeviceChangedEvent created(Device device) {
+        return new DeviceChangedEvent(null, device, false);
+    }
+
+    public static DeviceChangedEvent updated(Device before, Device after) {
+        return new DeviceChangedEvent(before, after, false);
+    }
+
+    public static DeviceChangedEvent deleted(Device device) {
+        return new DeviceChangedEvent(device, null, false);
+    }
+
+    /**
+     * The device left the device table like a deleted one, but can still be read with {@code includeArchived}.
+     */
+    public static DeviceChangedEvent archived(Device device) {
+        return new DeviceChangedEvent(device, null, true);
+    }
+
+    /**
+     * An update that only moved the device to another state is reported as {@link DeviceEventType#STATE_CHANGED}.
+     */
+    public DeviceEventType type() {
+        if (before == null) {
+            return DeviceEventType.CREATED;
+        }
+        if (after == null) {
+            return archived ? DeviceEventType.ARCHIVED : DeviceEventType.DELETED;
+        }
+        boolean stateOnly = before.getState() != after.getState()
+                && Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getBrand(), after.getBrand());
+        return stateOnly ? DeviceEventType.STATE_CHANGED : DeviceEventType.UPDATED;
+    }
+
+    /**
+     * The device as it is after the change, or as it was before it was deleted or archived.
+     */
+    public Device device() {
+        return after != null ? after : before;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.device.event;
+
+public enum DeviceEventType {
+    CREATED,
+    UPDATED,
+    STATE_CHANGED,
+    DELETED,
+    ARCHIVED
+}
@@ -0,0 +1,10 @@
+package com.example.device.event;
+
+/**
+ * Published once a bulk import has committed. Imported rows do not go through {@link DeviceChangedEvent}s, so
+ * in-memory views of the table have to catch up on their own; listeners should do so off the importing thread.
+ *
+ * @param imported number of devices the import inserted
+ */
+public record DevicesImportedEvent(long imported) {
+}
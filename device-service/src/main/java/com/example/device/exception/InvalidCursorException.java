@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class InvalidCursorException extends DeviceException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
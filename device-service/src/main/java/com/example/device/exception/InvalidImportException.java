@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class InvalidImportException extends DeviceException {
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
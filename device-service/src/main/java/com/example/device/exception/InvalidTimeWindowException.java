@@ -0,0 +1,7 @@
+package com.example.device.exception;
+
+public class InvalidTimeWindowException extends DeviceException {
+    public InvalidTimeWindowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.device.exception;
+
+public class RateLimitExceededException extends DeviceException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return this.retryAfterSeconds;
+    }
+}
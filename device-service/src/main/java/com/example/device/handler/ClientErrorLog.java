@@ -0,0 +1,66 @@
+package com.example.device.handler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Logs expected client errors (4xx) at INFO, at most {@code perSecond} lines per exception type and second. What is
+ * dropped is summed up in one line when the next second starts; the exact counts are in the {@code device.errors}
+ * metric.
+ */
+@Slf4j
+class ClientErrorLog {
+
+    private final int perSecond;
+
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    ClientErrorLog(int perSecond) {
+        this.perSecond = perSecond;
+    }
+
+    /**
+     * @return whether the error was logged
+     */
+    boolean log(Exception ex, int status) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        Window window = this.windows.computeIfAbsent(ex.getClass(), type -> new Window());
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        if (window.second != second) {
+            window.roll(second, ex.getClass(), status);
+        }
+        if (window.logged.incrementAndGet() > this.perSecond) {
+            window.dropped.incrementAndGet();
+            return false;
+        }
+        log.info("{} {}: {}", status, ex.getClass().getSimpleName(), ex.getMessage());
+        return true;
+    }
+
+    private static final class Window {
+
+        private volatile long second = Long.MIN_VALUE;
+
+        private final AtomicInteger logged = new AtomicInteger();
+
+        private final AtomicInteger dropped = new AtomicInteger();
+
+        synchronized void roll(long now, Class<?> type, int status) {
+            if (this.second == now) {
+                return;
+            }
+            int droppedLastWindow = this.dropped.getAndSet(0);
+            if (droppedLastWindow > 0) {
+                log.info("{} more {} {} not logged", droppedLastWindow, status, type.getSimpleName());
+            }
+            this.logged.set(0);
+            this.second = now;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.device.handler;
+
+import com.example.device.config.ErrorLoggingProperties;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidCursorException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.exception.InvalidImportException;
+import com.example.device.exception.InvalidStateTransitionException;
+import com.example.device.exception.InvalidTimeWindowException;
+import com.example.device.exception.RateLimitExceededException;
+import com.example.device.config.MetricsConfig;
+import com.example.device.ratelimit.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers exceptions with {@code application/problem+json} bodies rendered from {@link ProblemTemplate}s. Expected
+ * client errors are logged at INFO through a per-type rate limit, server errors always at ERROR.
+ */
+@Slf4j
+@ControllerAdvice
+@EnableConfigurationProperties(ErrorLoggingProperties.class)
+public class ExceptionHandlerAdvice {
+
+    private static final String TYPE_PREFIX = "urn:device-service:problem:";
+
+    static final ProblemTemplate DEVICE_NOT_FOUND =
+            ProblemTemplate.of(HttpStatus.NOT_FOUND, TYPE_PREFIX + "device-not-found", "Device not found");
+
+    static final ProblemTemplate DEVICE_IN_USE =
+            ProblemTemplate.of(HttpStatus.CONFLICT, TYPE_PREFIX + "device-in-use", "Device in use");
+
+    static final ProblemTemplate DEVICE_STATE_CONFLICT =
+            ProblemTemplate.of(HttpStatus.CONFLICT, TYPE_PREFIX + "device-state-conflict", "Device state conflict");
+
+    static final ProblemTemplate CONCURRENT_MODIFICATION =
+            ProblemTemplate.of(HttpStatus.CONFLICT, TYPE_PREFIX + "concurrent-modification", "Concurrent modification");
+
+    static final ProblemTemplate VERSION_MISMATCH =
+            ProblemTemplate.of(HttpStatus.PRECONDITION_FAILED, TYPE_PREFIX + "version-mismatch", "Version mismatch");
+
+    static final ProblemTemplate INVALID_DEVICE =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, TYPE_PREFIX + "invalid-device", "Invalid device");
+
+    static final ProblemTemplate INVALID_STATE_TRANSITION =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, TYPE_PREFIX + "invalid-state-transition", "Invalid state transition");
+
+    static final ProblemTemplate INVALID_CURSOR =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, TYPE_PREFIX + "invalid-cursor", "Invalid cursor");
+
+    static final ProblemTemplate INVALID_PARAMETER =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, TYPE_PREFIX + "invalid-parameter", "Invalid parameter");
+
+    static final ProblemTemplate INVALID_IMPORT =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, TYPE_PREFIX + "invalid-import", "Invalid import");
+
+    static final ProblemTemplate DATABASE_BUSY =
+            ProblemTemplate.of(HttpStatus.SERVICE_UNAVAILABLE, TYPE_PREFIX + "database-busy", "Database busy")
+                    .withHeader(HttpHeaders.RETRY_AFTER, "1");
+
+    static final ProblemTemplate RATE_LIMITED =
+            ProblemTemplate.of(HttpStatus.TOO_MANY_REQUESTS, TYPE_PREFIX + "rate-limited", "Rate limit exceeded");
+
+    static final ProblemTemplate OVERLOADED =
+            ProblemTemplate.of(HttpStatus.SERVICE_UNAVAILABLE, TYPE_PREFIX + "overloaded", "Service overloaded")
+                    .withHeader(HttpHeaders.RETRY_AFTER, "1");
+
+    static final ProblemTemplate INTERNAL_ERROR =
+            ProblemTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR, TYPE_PREFIX + "internal-error", "Internal server error");
+
+    private final MeterRegistry meterRegistry;
+
+    private final ClientErrorLog clientErrorLog;
+
+    private final Map<Class<?>, Map<HttpStatus, Counter>> errorCounters = new ConcurrentHashMap<>();
+
+    public ExceptionHandlerAdvice(MeterRegistry meterRegistry, ErrorLoggingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.clientErrorLog = new ClientErrorLog(properties.clientErrorLogsPerSecond());
+    }
+
+    @ExceptionHandler(DeviceNotFoundException.class)
+    public ResponseEntity<byte[]> handleDeviceNotFound(DeviceNotFoundException ex) {
+        return clientError(ex, DEVICE_NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(DeviceInUseException.class)
+    public ResponseEntity<byte[]> handleDeviceInUse(DeviceInUseException ex) {
+        return clientError(ex, DEVICE_IN_USE, ex.getMessage());
+    }
+
+    @ExceptionHandler(DeviceStateConflictException.class)
+    public ResponseEntity<byte[]> handleDeviceStateConflict(DeviceStateConflictException ex) {
+        return clientError(ex, DEVICE_STATE_CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return clientError(ex, CONCURRENT_MODIFICATION, "Device was modified concurrently, reload it and retry");
+    }
+
+    @ExceptionHandler(DeviceVersionMismatchException.class)
+    public ResponseEntity<byte[]> handleDeviceVersionMismatch(DeviceVersionMismatchException ex) {
+        return clientError(ex, VERSION_MISMATCH, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidDeviceException.class)
+    public ResponseEntity<byte[]> handleInvalidDevice(InvalidDeviceException ex) {
+        return clientError(ex, INVALID_DEVICE, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidStateTransitionException.class)
+    public ResponseEntity<byte[]> handleInvalidStateTransition(InvalidStateTransitionException ex) {
+        return clientError(ex, INVALID_STATE_TRANSITION, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<byte[]> handleInvalidCursor(InvalidCursorException ex) {
+        return clientError(ex, INVALID_CURSOR, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<byte[]> handleInvalidImport(InvalidImportException ex) {
+        return clientError(ex, INVALID_IMPORT, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTimeWindowException.class)
+    public ResponseEntity<byte[]> handleInvalidTimeWindow(InvalidTimeWindowException ex) {
+        return clientError(ex, INVALID_PARAMETER, ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return clientError(ex, INVALID_PARAMETER, "Invalid value for " + ex.getName() + ": " + ex.getValue());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<byte[]> handleRateLimitExceeded(RateLimitExceededException ex) {
+        this.clientErrorLog.log(ex, RATE_LIMITED.getStatus().value());
+        countError(ex, RATE_LIMITED.getStatus());
+        return RATE_LIMITED.render(ex.getMessage(), HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+    }
+
+    /**
+     * Shedding is the limiter working as intended, so it is logged like a client error rather than with a stack trace.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<byte[]> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return clientError(ex, OVERLOADED, ex.getMessage());
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<byte[]> handleDatabaseUnavailable(Exception ex) {
+        return serverError(ex, DATABASE_BUSY, "Database is busy, retry later");
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleGenericException(Exception ex) {
+        return serverError(ex, INTERNAL_ERROR, "Internal server error");
+    }
+
+    private ResponseEntity<byte[]> clientError(Exception ex, ProblemTemplate problem, String detail) {
+        this.clientErrorLog.log(ex, problem.getStatus().value());
+        countError(ex, problem.getStatus());
+        return problem.render(detail);
+    }
+
+    private ResponseEntity<byte[]> serverError(Exception ex, ProblemTemplate problem, String detail) {
+        log.error(ex.getMessage(), ex);
+        countError(ex, problem.getStatus());
+        return problem.render(detail);
+    }
+
+    /**
+     * Counts every handled exception by type and response status, e.g. DeviceNotFoundException/404. The counters are
+     * looked up once per type and status rather than on every error.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        this.errorCounters.computeIfAbsent(ex.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> this.meterRegistry.counter(MetricsConfig.ERRORS,
+                        "exception", ex.getClass().getSimpleName(),
+                        "status", String.valueOf(s.value())))
+                .increment();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.device.handler;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An RFC 7807 problem response with everything but the {@code detail} encoded up front: the JSON up to the detail
+ * value, the headers and the status. Rendering copies the escaped detail between two byte arrays instead of
+ * building and serializing an object per error.
+ */
+public final class ProblemTemplate {
+
+    private static final byte[] END = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpStatus status;
+
+    private final HttpHeaders headers;
+
+    private final byte[] head;
+
+    private ProblemTemplate(HttpStatus status, HttpHeaders headers, byte[] head) {
+        this.status = status;
+        this.headers = headers;
+        this.head = head;
+    }
+
+    /**
+     * @param type  problem type, a URI identifying the kind of error
+     * @param title short summary of the problem type, the same for every occurrence
+     */
+    public static ProblemTemplate of(HttpStatus status, String type, String title) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        String head = "{\"type\":\"" + escape(type) + "\",\"title\":\"" + escape(title) + "\",\"status\":" + status.value()
+                + ",\"detail\":\"";
+        return new ProblemTemplate(status, HttpHeaders.readOnlyHttpHeaders(headers), head.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The same template with an extra response header.
+     */
+    public ProblemTemplate withHeader(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(this.headers);
+        headers.add(name, value);
+        return new ProblemTemplate(this.status, HttpHeaders.readOnlyHttpHeaders(headers), this.head);
+    }
+
+    public HttpStatus getStatus() {
+        return this.status;
+    }
+
+    public ResponseEntity<byte[]> render(String detail) {
+        return new ResponseEntity<>(body(detail), this.headers, this.status);
+    }
+
+    /**
+     * Renders with a header whose value differs per response, such as a computed {@code Retry-After}.
+     */
+    public ResponseEntity<byte[]> render(String detail, String headerName, String headerValue) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(this.headers);
+        headers.set(headerName, headerValue);
+        return new ResponseEntity<>(body(detail), headers, this.status);
+    }
+
+    private byte[] body(String detail) {
+        byte[] escapedDetail = JsonStringEncoder.getInstance().quoteAsUTF8(detail == null ? "" : detail);
+        byte[] body = new byte[this.head.length + escapedDetail.length + END.length];
+        System.arraycopy(this.head, 0, body, 0, this.head.length);
+        System.arraycopy(escapedDetail, 0, body, this.head.length, escapedDetail.length);
+        System.arraycopy(END, 0, body, this.head.length + escapedDetail.length, END.length);
+        return body;
+    }
+
+    private static String escape(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.device.mapper;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CSV as Postgres {@code COPY ... (FORMAT csv)} reads and writes it: RFC 4180 quoting, a field is quoted only when it
+ * has to be, and an unquoted empty field is NULL while {@code ""} is the empty string.
+ */
+public final class DeviceCsv {
+
+    /**
+     * Columns of an export, in order. An import takes any subset of these in any order, as named by its header.
+     */
+    public static final List<String> COLUMNS = List.of("id", "name", "brand", "state", "created_at", "version");
+
+    /**
+     * Accepts both the ISO form Jackson writes and the one Postgres writes, with a space instead of the {@code T}.
+     */
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .toFormatter();
+
+    private DeviceCsv() {
+    }
+
+    /**
+     * Writes the columns an import copies into the staging table: id, name, brand, state and created_at.
+     */
+    public static void writeImportRow(Writer out, Device device) throws IOException {
+        out.write(device.getId().toString());
+        out.write(',');
+        writeField(out, device.getName());
+        out.write(',');
+        writeField(out, device.getBrand());
+        out.write(',');
+        if (device.getState() != null) {
+            out.write(device.getState().name());
+        }
+        out.write(',');
+        out.write(device.getCreatedAt().toString());
+        out.write('\n');
+    }
+
+    /**
+     * Maps a record of an export, in {@link #COLUMNS} order.
+     */
+    public static Device fromExportRecord(List<String> record) {
+        return Device.builder()
+                .id(UUID.fromString(record.get(0)))
+                .name(record.get(1))
+                .brand(record.get(2))
+                .state(record.get(3) == null ? null : DeviceState.valueOf(record.get(3)))
+                .createdAt(record.get(4) == null ? null : parseTimestamp(record.get(4)))
+                .version(Long.valueOf(record.get(5)))
+                .build();
+    }
+
+    public static LocalDateTime parseTimestamp(String value) {
+        return LocalDateTime.parse(value, TIMESTAMP);
+    }
+
+    static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && !needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        // COPY reads a lone \. as the end of the data.
+        return value.equals("\\.");
+    }
+
+    /**
+     * Reads one record at a time through its own buffer, so a record may span lines but memory never grows with the
+     * input. Blank lines are skipped.
+     */
+    public static final class RecordReader {
+
+        private final Reader in;
+
+        private final char[] buffer = new char[8192];
+
+        private final StringBuilder field = new StringBuilder();
+
+        private int position;
+
+        private int limit;
+
+        private long line = 1;
+
+        private long recordLine;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Line the last record returned by {@link #next()} started on, counting from 1.
+         */
+        public long line() {
+            return this.recordLine;
+        }
+
+        /**
+         * The fields of the next record, {@code null} for an unquoted empty field, or {@code null} at the end of the
+         * input.
+         *
+         * @throws MalformedCsvException when the input ends inside a quoted field
+         */
+        public List<String> next() throws IOException {
+            int c;
+            do {
+                c = read();
+                if (c == '\r' && peek() == '\n') {
+                    c = read();
+                }
+                if (c == '\n' || c == '\r') {
+                    this.line++;
+                }
+            } while (c == '\n' || c == '\r');
+            if (c < 0) {
+                return null;
+            }
+            this.recordLine = this.line;
+
+            List<String> record = new ArrayList<>();
+            boolean quoted = false;
+            boolean inQuotes = false;
+            this.field.setLength(0);
+            while (true) {
+                if (inQuotes) {
+                    if (c < 0) {
+                        throw new MalformedCsvException("Unterminated quoted field starting on line " + this.recordLine);
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            this.field.append('"');
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            this.line++;
+                        }
+                        this.field.append((char) c);
+                    }
+                } else if (c == '"' && this.field.isEmpty() && !quoted) {
+                    quoted = true;
+                    inQuotes = true;
+                } else if (c == ',' || c == '\n' || c == '\r' || c < 0) {
+                    record.add(quoted || !this.field.isEmpty() ? this.field.toString() : null);
+                    this.field.setLength(0);
+                    quoted = false;
+                    if (c != ',') {
+                        if (c == '\r' && peek() == '\n') {
+                            read();
+                        }
+                        if (c >= 0) {
+                            this.line++;
+                        }
+                        return record;
+                    }
+                } else {
+                    this.field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (this.position == this.limit && !fill()) {
+                return -1;
+            }
+            return this.buffer[this.position++];
+        }
+
+        private int peek() throws IOException {
+            if (this.position == this.limit && !fill()) {
+                return -1;
+            }
+            return this.buffer[this.position];
+        }
+
+        private boolean fill() throws IOException {
+            int read = this.in.read(this.buffer);
+            if (read <= 0) {
+                return false;
+            }
+            this.position = 0;
+            this.limit = read;
+            return true;
+        }
+    }
+
+    public static class MalformedCsvException extends IOException {
+        public MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+}
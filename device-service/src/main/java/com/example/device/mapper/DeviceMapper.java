@@ -0,0 +1,98 @@
+package com.example.device.mapper;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.dto.DevicePage;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.proto.DeviceListProto;
+import com.example.device.proto.DevicePageProto;
+import com.example.device.proto.DeviceProto;
+import com.example.device.proto.DeviceStateProto;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+public class DeviceMapper {
+
+    public static Device toDto(DeviceEntity deviceEntity) {
+
+        return Device.builder()
+                .id(deviceEntity.getId())
+                .name(deviceEntity.getName())
+                .state(deviceEntity.getState())
+                .brand(deviceEntity.getBrand())
+                .createdAt(deviceEntity.getCreatedAt())
+                .version(deviceEntity.getVersion())
+                .build();
+    }
+
+    public static DeviceEntity toEntity(Device device) {
+        return DeviceEntity.builder()
+                .name(device.getName())
+                .state(device.getState())
+                .brand(device.getBrand())
+                .build();
+    }
+
+    /**
+     * Copies the non-null fields of the device onto the entity, leaving the others untouched.
+     */
+    public static void updateEntity(DeviceEntity deviceEntity, Device device) {
+        Optional.ofNullable(device.getName())
+                .ifPresent(deviceEntity::setName);
+
+        Optional.ofNullable(device.getBrand())
+                .ifPresent(deviceEntity::setBrand);
+
+        Optional.ofNullable(device.getState())
+                .ifPresent(deviceEntity::setState);
+    }
+
+    public static List<Device> toDtoList(List<DeviceEntity> deviceEntities) {
+        return deviceEntities.stream().map(DeviceMapper::toDto).toList();
+    }
+
+    public static DeviceEvent toEvent(DeviceOutboxEntity outboxEntity) {
+        return DeviceEvent.builder()
+                .offset(outboxEntity.getEventOffset())
+                .type(outboxEntity.getEventType())
+                .deviceId(outboxEntity.getDeviceId())
+                .device(outboxEntity.getPayload())
+                .occurredAt(outboxEntity.getCreatedAt())
+                .build();
+    }
+
+    public static DeviceProto toProto(Device device) {
+        DeviceProto.Builder builder = DeviceProto.newBuilder();
+        if (device.getId() != null) {
+            builder.setIdMsb(device.getId().getMostSignificantBits())
+                    .setIdLsb(device.getId().getLeastSignificantBits());
+        }
+        Optional.ofNullable(device.getName()).ifPresent(builder::setName);
+        Optional.ofNullable(device.getBrand()).ifPresent(builder::setBrand);
+        Optional.ofNullable(device.getState()).map(state -> DeviceStateProto.valueOf(state.name())).ifPresent(builder::setState);
+        // createdAt is a local time in the JVM zone, the same one the JSON representation leaves implicit.
+        Optional.ofNullable(device.getCreatedAt())
+                .map(createdAt -> ChronoUnit.MICROS.between(Instant.EPOCH, createdAt.atZone(ZoneId.systemDefault()).toInstant()))
+                .ifPresent(builder::setCreatedAtMicros);
+        Optional.ofNullable(device.getVersion()).ifPresent(builder::setVersion);
+        return builder.build();
+    }
+
+    public static DeviceListProto toProto(List<Device> devices) {
+        DeviceListProto.Builder builder = DeviceListProto.newBuilder();
+        devices.forEach(device -> builder.addDevices(toProto(device)));
+        return builder.build();
+    }
+
+    public static DevicePageProto toProto(DevicePage page) {
+        DevicePageProto.Builder builder = DevicePageProto.newBuilder();
+        page.getItems().forEach(device -> builder.addItems(toProto(device)));
+        Optional.ofNullable(page.getNextCursor()).ifPresent(builder::setNextCursor);
+        return builder.build();
+    }
+}
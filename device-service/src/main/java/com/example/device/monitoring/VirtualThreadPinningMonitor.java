@@ -0,0 +1,103 @@
+package com.example.device.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the JFR {@code jdk.VirtualThreadPinned} event while requests run on virtual threads. A virtual thread
+ * that blocks inside a {@code synchronized} block or native frame pins its carrier thread, which quietly
+ * shrinks the carrier pool back to a handful of platform threads. Each distinct pinning site is logged once
+ * with its stack; later occurrences are only counted.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle, MeterBinder {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+
+    private final LongAdder pinnedEvents = new LongAdder();
+
+    private volatile RecordingStream recordingStream;
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        this.recordingStream = stream;
+        log.info("Watching for virtual thread pinning longer than {} ms", THRESHOLD.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = this.recordingStream;
+        if (stream != null) {
+            stream.close();
+            this.recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.recordingStream != null;
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("device.virtual.threads.pinned", this, VirtualThreadPinningMonitor::getPinnedEvents)
+                .description("Times a virtual thread pinned its carrier thread for longer than the threshold")
+                .register(registry);
+        registry.gauge("device.virtual.threads.pinned.sites", pinnedSites, Map::size);
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        String stack = describe(event.getStackTrace());
+        LongAdder count = pinnedSites.computeIfAbsent(stack, site -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            log.warn("Virtual thread pinned its carrier for {} ms at:\n{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t<no stack trace>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
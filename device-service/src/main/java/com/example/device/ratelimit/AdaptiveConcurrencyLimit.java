@@ -0,0 +1,168 @@
+package com.example.device.ratelimit;
+
+import com.example.device.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A limit on requests in flight that follows latency, after the gradient algorithm of Netflix's concurrency-limits:
+ * every window the average latency of the window is compared with a slow moving average of all windows. While they
+ * match the limit grows by its square root, which leaves room to discover more capacity; once requests queue up and
+ * get slower the limit shrinks in proportion, down to half per window. Requests above the limit are rejected right
+ * away, so a saturated database turns into fast 503s instead of a growing queue of requests that all time out.
+ * <p>
+ * Admitting and releasing a request is lock-free; only the once-per-window recalculation is synchronized, and only
+ * the thread that closes the window runs it.
+ */
+public class AdaptiveConcurrencyLimit implements MeterBinder {
+
+    /**
+     * Weight of a window in the long-term average latency, about the last 20 windows.
+     */
+    private static final double LONG_RTT_WEIGHT = 0.05;
+
+    /**
+     * Weight of a recalculated limit against the previous one, so one odd window does not swing the limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double rttTolerance;
+
+    private final long windowNanos;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final LongAdder rttSum = new LongAdder();
+
+    private final LongAdder rttCount = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicLong windowStart;
+
+    private volatile double limit;
+
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties, LongSupplier clock) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.rttTolerance = properties.rttTolerance();
+        this.windowNanos = properties.window().toNanos();
+        this.clock = clock;
+        this.limit = Math.clamp(properties.initialLimit(), this.minLimit, this.maxLimit);
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * @return whether the request was admitted; if so it must be {@linkplain #release(long) released}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (current >= getLimit()) {
+                this.rejected.increment();
+                return false;
+            }
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+        this.peakInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    /**
+     * Ends an admitted request and records its latency.
+     *
+     * @param startNanos when the request was admitted, from {@link #now()}
+     */
+    public void release(long startNanos) {
+        long now = this.clock.getAsLong();
+        this.inFlight.decrementAndGet();
+        this.rttSum.add(now - startNanos);
+        this.rttCount.increment();
+
+        long start = this.windowStart.get();
+        if (now - start >= this.windowNanos && this.windowStart.compareAndSet(start, now)) {
+            recalculate();
+        }
+    }
+
+    public long now() {
+        return this.clock.getAsLong();
+    }
+
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    long getRejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Samples recorded while the sums are reset may land in either window, which evens out.
+     */
+    private synchronized void recalculate() {
+        long count = this.rttCount.sumThenReset();
+        long sum = this.rttSum.sumThenReset();
+        int peak = this.peakInFlight.getAndSet(this.inFlight.get());
+        if (count == 0) {
+            return;
+        }
+
+        double shortRtt = (double) sum / count;
+        this.longRtt = this.longRtt == 0 ? shortRtt : this.longRtt * (1 - LONG_RTT_WEIGHT) + shortRtt * LONG_RTT_WEIGHT;
+        if (this.longRtt / shortRtt > 2) {
+            // Latency has dropped well below the average, e.g. after a slow period: let the average catch up faster.
+            this.longRtt *= 0.95;
+        }
+
+        double current = this.limit;
+        if (peak < current / 2) {
+            // Not enough load to tell whether the limit is right.
+            return;
+        }
+        double gradient = Math.clamp(this.rttTolerance * this.longRtt / shortRtt, MIN_GRADIENT, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        this.limit = Math.clamp(next, this.minLimit, this.maxLimit);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("device.concurrency.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight at once, adapted to latency")
+                .register(registry);
+        Gauge.builder("device.concurrency.inflight", this, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests in flight under the concurrency limit")
+                .register(registry);
+        FunctionCounter.builder("device.concurrency.rejected", this.rejected, LongAdder::sum)
+                .description("Requests shed because the concurrency limit was reached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.device.ratelimit;
+
+import com.example.device.config.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link TokenBucket} per client and endpoint, sized by the budget of the endpoint's {@link RequestClass}. A
+ * client that floods one endpoint is throttled there only, and scans are budgeted far tighter than point reads.
+ * <p>
+ * Buckets are created on a client's first request and dropped once they have refilled, so memory follows the number
+ * of clients active within about one burst's worth of time.
+ */
+public class ClientRateLimiter implements MeterBinder {
+
+    private final RateLimitProperties properties;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<Key, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder[] allowed = newAdders();
+
+    private final LongAdder[] throttled = newAdders();
+
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ClientRateLimiter(RateLimitProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return 0 when the request may proceed, otherwise the nanoseconds until the client may send it again
+     */
+    public long tryAcquire(String client, String endpoint, RequestClass requestClass) {
+        long now = this.clock.getAsLong();
+        Key key = new Key(client, endpoint);
+        TokenBucket bucket = this.buckets.get(key);
+        if (bucket == null) {
+            RateLimitProperties.Budget budget = this.properties.budget(requestClass);
+            bucket = this.buckets.computeIfAbsent(key, k -> new TokenBucket(budget.rate(), budget.burst(), now));
+        }
+        long wait = bucket.tryAcquire(now);
+        (wait == 0 ? this.allowed : this.throttled)[requestClass.ordinal()].increment();
+        return wait;
+    }
+
+    /**
+     * Drops full buckets; a new one starts full, so nobody notices. A request racing with the removal may have its
+     * token refunded, which lets a client exceed its budget by one request at most.
+     */
+    @Scheduled(fixedDelayString = "${device.rate-limit.cleanup-interval:1m}")
+    public void evictIdle() {
+        long now = this.clock.getAsLong();
+        this.buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int getBucketCount() {
+        return this.buckets.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            String tag = requestClass.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("device.ratelimit.requests", this.allowed[requestClass.ordinal()], LongAdder::sum)
+                    .description("Rate limit decisions by request class")
+                    .tags("class", tag, "result", "allowed")
+                    .register(registry);
+            FunctionCounter.builder("device.ratelimit.requests", this.throttled[requestClass.ordinal()], LongAdder::sum)
+                    .description("Rate limit decisions by request class")
+                    .tags("class", tag, "result", "throttled")
+                    .register(registry);
+        }
+        Gauge.builder("device.ratelimit.buckets", this.buckets, Map::size)
+                .description("Client and endpoint pairs with a partly used budget")
+                .register(registry);
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[RequestClass.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private record Key(String client, String endpoint) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.device.ratelimit;
+
+import com.example.device.exception.RateLimitExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-client rate limit and the adaptive concurrency limit to every handler method, before the request
+ * reaches the controller. Either limiter may be {@code null} when it is disabled.
+ * <p>
+ * Clients are told apart by their API key header, otherwise by remote address, which is the proxy's unless
+ * {@code server.forward-headers-strategy} is set. The key only picks the budget a request draws from; it is not
+ * authentication.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_AT = RateLimitInterceptor.class.getName() + ".admittedAt";
+
+    private static final int MAX_API_KEY_LENGTH = 64;
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final String apiKeyHeader;
+
+    private final Map<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit, String apiKeyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error dispatches belong to a request that has been admitted already.
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Endpoint endpoint = this.endpoints.computeIfAbsent(handlerMethod.getMethod(), method -> endpoint(handlerMethod));
+        RequestClass requestClass = endpoint.requestClass() != null ? endpoint.requestClass() : defaultClass(request);
+
+        if (this.rateLimiter != null) {
+            long waitNanos = this.rateLimiter.tryAcquire(client(request), endpoint.name(), requestClass);
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                throw new RateLimitExceededException("Rate limit of " + endpoint.name() + " exceeded, retry in "
+                        + retryAfter + "s", retryAfter);
+            }
+        }
+        if (this.concurrencyLimit != null && requestClass.isConcurrencyLimited()) {
+            if (!this.concurrencyLimit.tryAcquire()) {
+                throw ServiceOverloadedException.INSTANCE;
+            }
+            request.setAttribute(ADMITTED_AT, this.concurrencyLimit.now());
+        }
+        return true;
+    }
+
+    /**
+     * Called once the response is complete, for async handlers after their async dispatch.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_AT) instanceof Long admittedAt) {
+            request.removeAttribute(ADMITTED_AT);
+            this.concurrencyLimit.release(admittedAt);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(this.apiKeyHeader);
+        if (apiKey == null || apiKey.isEmpty()) {
+            return "addr:" + request.getRemoteAddr();
+        }
+        // Keys are kept per bucket, so a client cannot make the limiter hold arbitrarily long strings.
+        return "key:" + (apiKey.length() > MAX_API_KEY_LENGTH ? apiKey.substring(0, MAX_API_KEY_LENGTH) : apiKey);
+    }
+
+    private static Endpoint endpoint(HandlerMethod handlerMethod) {
+        RateLimited rateLimited = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RateLimited.class);
+        if (rateLimited == null) {
+            rateLimited = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimited.class);
+        }
+        return new Endpoint(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(),
+                rateLimited != null ? rateLimited.value() : null);
+    }
+
+    private static RequestClass defaultClass(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? RequestClass.READ : RequestClass.WRITE;
+    }
+
+    private record Endpoint(String name, RequestClass requestClass) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.device.ratelimit;
+
+/**
+ * What a request costs the service, which decides the rate budget it draws from. An endpoint is classed with
+ * {@link RateLimited}; without it safe methods are {@link #READ} and the others {@link #WRITE}.
+ */
+public enum RequestClass {
+
+    /**
+     * One device by id, or counts served from memory.
+     */
+    READ,
+
+    /**
+     * Lists, pages and searches that read many rows.
+     */
+    SCAN,
+
+    /**
+     * Creates, updates, state changes and deletes, single or batched.
+     */
+    WRITE,
+
+    /**
+     * Long-running transfers: streams, imports, exports and the change stream. They hold a request open for as long
+     * as they run, so they are left out of the concurrency limit, whose latency samples they would distort.
+     */
+    BULK;
+
+    boolean isConcurrencyLimited() {
+        return this != BULK;
+    }
+}
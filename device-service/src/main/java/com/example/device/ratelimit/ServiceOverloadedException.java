@@ -0,0 +1,14 @@
+package com.example.device.ratelimit;
+
+/**
+ * Thrown when a request is shed by {@link AdaptiveConcurrencyLimit}. Shedding happens in bursts when the service is
+ * already struggling, so the exception has no stack trace and one instance is rethrown.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    static final ServiceOverloadedException INSTANCE = new ServiceOverloadedException();
+
+    private ServiceOverloadedException() {
+        super("Too many requests in flight, retry later", null, false, false);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.device.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp (the generic cell rate algorithm): the theoretical arrival time of the
+ * next request if the client sent exactly at the refill rate. A request is allowed when that time is at most
+ * {@code burst} intervals ahead of now. Taking a token is one CAS, so the bucket never blocks.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long now) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = this.intervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = this.theoreticalArrival.get();
+            long next = Math.max(arrival, now) + this.intervalNanos;
+            long wait = next - this.burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (this.theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket is full, so dropping it and starting a new one changes nothing.
+     */
+    boolean isFull(long now) {
+        return this.theoreticalArrival.get() - now <= 0;
+    }
+}
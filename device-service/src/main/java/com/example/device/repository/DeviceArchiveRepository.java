@@ -0,0 +1,152 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code device_archive} table: devices moved out of {@code device} after being inactive for long, in one
+ * partition per month of archival. The device queries never read it; these do, when asked to include archived
+ * devices.
+ */
+@Repository
+public class DeviceArchiveRepository {
+
+    static final String PARTITION_PREFIX = "device_archive_";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String COLUMNS = "id, name, brand, state, created_at, version";
+
+    /**
+     * Deletes and archives in one statement, so a device is never in both tables or in neither. Rows locked by a
+     * concurrent update are skipped and picked up by a later run, if they are still inactive then.
+     */
+    private static final String ARCHIVE_INACTIVE = "with moved as ("
+            + " delete from device where id in ("
+            + "  select id from device where state = 'INACTIVE' and state_changed_at < ?"
+            + "  order by state_changed_at limit ? for update skip locked)"
+            + " returning " + COLUMNS + ", state_changed_at)"
+            + " insert into device_archive (" + COLUMNS + ", state_changed_at, archived_at)"
+            + " select " + COLUMNS + ", state_changed_at, ? from moved"
+            + " returning " + COLUMNS;
+
+    private static final String CREATE_PARTITION = "create table if not exists %s partition of device_archive"
+            + " for values from ('%s') to ('%s')";
+
+    private static final String FIND_PARTITIONS = "select c.relname from pg_inherits i"
+            + " join pg_class c on c.oid = i.inhrelid where i.inhparent = 'device_archive'::regclass";
+
+    private static final RowMapper<Device> DEVICE_ROW = (rs, rowNum) -> new Device(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            rs.getString("brand"),
+            rs.getString("state") == null ? null : DeviceState.valueOf(rs.getString("state")),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the transaction-scoped advisory lock that keeps archiving to one instance at a time. Returns
+     * {@code false} when another instance holds it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryArchiveLock(long key) {
+        return Boolean.TRUE.equals(this.jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+
+    /**
+     * Creates the partition for the month, if it does not exist yet.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createPartition(YearMonth month) {
+        this.jdbcTemplate.execute(CREATE_PARTITION.formatted(partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * Moves up to {@code limit} devices that have been INACTIVE since before {@code inactiveSince} to the archive,
+     * longest inactive first. The partition for {@code archivedAt} must exist.
+     *
+     * @return the archived devices
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Device> archiveInactive(LocalDateTime inactiveSince, int limit, LocalDateTime archivedAt) {
+        return this.jdbcTemplate.query(ARCHIVE_INACTIVE, DEVICE_ROW,
+                Timestamp.valueOf(inactiveSince), limit, Timestamp.valueOf(archivedAt));
+    }
+
+    /**
+     * The months the archive has partitions for, in no particular order.
+     */
+    public List<YearMonth> findPartitions() {
+        return this.jdbcTemplate.queryForList(FIND_PARTITIONS, String.class).stream()
+                .map(DeviceArchiveRepository::partitionMonth)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /**
+     * Drops the partition for the month with every device in it.
+     */
+    public void dropPartition(YearMonth month) {
+        this.jdbcTemplate.execute("drop table if exists " + partitionName(month));
+    }
+
+    /**
+     * A device is only archived once, but should one have been archived again after being imported with the same id,
+     * the latest copy is returned.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Device> findDeviceById(UUID id) {
+        return this.jdbcTemplate.query("select " + COLUMNS + " from device_archive where id = ? order by archived_at desc limit 1",
+                DEVICE_ROW, id).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Device> findAllDevices() {
+        return this.jdbcTemplate.query("select " + COLUMNS + " from device_archive", DEVICE_ROW);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Device> findDevicesByBrand(String brand) {
+        return this.jdbcTemplate.query("select " + COLUMNS + " from device_archive where brand = ?", DEVICE_ROW, brand);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Device> findDevicesByState(DeviceState state) {
+        return this.jdbcTemplate.query("select " + COLUMNS + " from device_archive where state = ?", DEVICE_ROW, state.name());
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    static Optional<YearMonth> partitionMonth(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.device.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyInputStream;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Moves devices in and out of Postgres with {@code COPY}, streamed through pgjdbc's copy API: rows are neither
+ * parsed into entities nor sent as statements, and only a copy buffer is held at any time.
+ */
+@Repository
+public class DeviceCopyRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Unindexed and unlogged, so the COPY itself is as cheap as it gets; dropped with the transaction.
+     */
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE device_import (LIKE device INCLUDING DEFAULTS) ON COMMIT DROP";
+
+    private static final String COPY_IN =
+            "COPY device_import (id, name, brand, state, created_at) FROM STDIN (FORMAT csv)";
+
+    private static final String INSERT_NEW = "INSERT INTO device (id, name, brand, state, created_at, version) "
+            + "SELECT id, name, brand, state, created_at, 0 FROM device_import ON CONFLICT (id) DO NOTHING";
+
+    private static final String COPY_OUT =
+            "COPY device (id, name, brand, state, created_at, version) TO STDOUT (FORMAT csv, HEADER %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceCopyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Copies the rows the writer produces, in the CSV of {@code DeviceCsv.writeImportRow}, into a staging table and
+     * inserts those whose id is not taken yet. An {@link IOException} of the writer cancels the copy and is rethrown
+     * as an {@link UncheckedIOException}.
+     *
+     * @return the number of devices inserted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long insertNew(RowWriter rows) {
+        return this.jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+
+            PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_IN, COPY_BUFFER_SIZE);
+            try {
+                Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+                rows.write(out);
+                out.close();
+            } catch (IOException | RuntimeException e) {
+                // The connection stays in COPY mode until the copy is ended or cancelled.
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                if (e instanceof IOException ioException) {
+                    throw new UncheckedIOException(ioException);
+                }
+                throw (RuntimeException) e;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeLargeUpdate(INSERT_NEW);
+            }
+        });
+    }
+
+    /**
+     * Hands the reader all devices as CSV in {@code DeviceCsv.COLUMNS} order, in no particular order of rows.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public void export(boolean header, RowReader rows) {
+        this.jdbcTemplate.execute((Connection connection) -> {
+            String sql = COPY_OUT.formatted(header);
+            try (PGCopyInputStream in = new PGCopyInputStream(connection.unwrap(PGConnection.class), sql)) {
+                rows.read(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(Writer out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RowReader {
+        void read(InputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.device.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Refuses to start the application when an index the device queries rely on is missing, instead of
+ * silently falling back to sequential scans. Runs after the Flyway migrations.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(prefix = "device.schema", name = "verify-indexes", havingValue = "true", matchIfMissing = true)
+public class DeviceIndexVerifier implements InitializingBean {
+
+    static final Set<String> REQUIRED_INDEXES = Set.of(
+            "idx_device_created_at_id",
+            "idx_device_brand_state",
+            "idx_device_brand_lower_state",
+            "idx_device_state_created_at_id",
+            "idx_device_name_pattern",
+            "idx_device_name_id",
+            "idx_device_inactive_since");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceIndexVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> existing = this.jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where schemaname = current_schema() and tablename = 'device'",
+                String.class);
+
+        Set<String> missing = new TreeSet<>(REQUIRED_INDEXES);
+        missing.removeAll(new HashSet<>(existing));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing required indexes on table device: " + missing
+                    + ". Run the database migrations or set device.schema.verify-indexes=false.");
+        }
+        log.info("Verified {} required indexes on table device", REQUIRED_INDEXES.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.device.repository;
+
+import com.example.device.entity.DeviceOutboxEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DeviceOutboxRepository extends JpaRepository<DeviceOutboxEntity, UUID> {
+
+    /**
+     * Takes the transaction-scoped advisory lock that serializes offset assignment across instances. Returns
+     * {@code false} when another instance holds it.
+     */
+    @Transactional
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(long key);
+
+    /**
+     * Gives the oldest unpublished rows the next offsets, in insertion order. Must run while holding the relay lock
+     * so that offsets commit in increasing order.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update device_outbox o set event_offset = p.next_offset"
+            + " from (select pending.id, nextval('device_event_offset_seq') as next_offset"
+            + "       from (select id from device_outbox where event_offset is null order by id limit :limit) pending) p"
+            + " where o.id = p.id", nativeQuery = true)
+    int assignOffsets(int limit);
+
+    @Query("select o from DeviceOutboxEntity o where o.eventOffset > :after order by o.eventOffset")
+    List<DeviceOutboxEntity> findPublishedAfter(long after, Limit limit);
+
+    @Query("select max(o.eventOffset) from DeviceOutboxEntity o")
+    Optional<Long> findLatestOffset();
+
+    @Transactional
+    @Modifying
+    @Query("delete from DeviceOutboxEntity o where o.eventOffset is not null and o.createdAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
@@ -0,0 +1,90 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceCount;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID>, DeviceSearchRepository {
+
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Builds {@link Device} straight from the result set, skipping managed entities and the mapper. The argument
+     * order must match the {@link Device} all-args constructor.
+     */
+    String DEVICE_PROJECTION = "select new com.example.device.dto.Device(d.id, d.name, d.brand, d.state, d.createdAt, d.version)"
+            + " from DeviceEntity d";
+
+    @Transactional(readOnly = true)
+    @Query(DEVICE_PROJECTION + " where d.id = :id")
+    Optional<Device> findDeviceById(UUID id);
+
+    @Transactional(readOnly = true)
+    @Query(DEVICE_PROJECTION)
+    List<Device> findAllDevices();
+
+    @Transactional(readOnly = true)
+    @Query(DEVICE_PROJECTION + " where d.brand = :brand")
+    List<Device> findDevicesByBrand(String brand);
+
+    @Transactional(readOnly = true)
+    @Query(DEVICE_PROJECTION + " where d.state = :state")
+    List<Device> findDevicesByState(DeviceState state);
+
+    @Query(DEVICE_PROJECTION + " order by d.createdAt, d.id")
+    List<Device> findFirstPage(Limit limit);
+
+    @Query(DEVICE_PROJECTION
+            + " where d.createdAt >= :createdAt and (d.createdAt > :createdAt or d.id > :id)"
+            + " order by d.createdAt, d.id")
+    List<Device> findPageAfter(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select new com.example.device.dto.DeviceCount(d.brand, d.state, count(d))"
+            + " from DeviceEntity d group by d.brand, d.state")
+    List<DeviceCount> countByBrandAndState();
+
+    /**
+     * Moves the device from one state to another with a single conditional UPDATE and no prior SELECT, bumping its
+     * version. Returns the updated row, or nothing when the device does not exist or is in another state.
+     */
+    @Transactional
+    @Query(value = "update device set state = :to, version = version + 1"
+            + " where id = :id and state = :from returning *", nativeQuery = true)
+    Optional<DeviceEntity> transitionState(UUID id, String from, String to);
+
+    /**
+     * Loads and row-locks the devices, in id order so that concurrent callers lock them in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from DeviceEntity d where d.id in :ids order by d.id")
+    List<DeviceEntity> findAllByIdForUpdate(Collection<UUID> ids);
+
+    /**
+     * Streams every device through a server-side cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from DeviceEntity d")
+    Stream<DeviceEntity> streamAll();
+}
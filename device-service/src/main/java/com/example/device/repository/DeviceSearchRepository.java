@@ -0,0 +1,19 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceSearchRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DeviceSearchRepository {
+
+    /**
+     * Runs the search as a single query projecting straight into {@link Device}, without managed entities.
+     *
+     * @param afterValue sort key of the last device of the previous page, {@code null} for the first page
+     * @param afterId    id of the last device of the previous page, {@code null} for the first page
+     * @param limit      maximum number of devices to return
+     */
+    List<Device> search(DeviceSearchRequest request, Comparable<?> afterValue, UUID afterId, int limit);
+}
@@ -0,0 +1,113 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.entity.DeviceEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Builds the search query with the Criteria API. Predicates are written so they match the migration indexes:
+ * {@code lower(brand)} for the brand, a left-anchored {@code LIKE} for the name prefix and a row comparison on
+ * the sort key and id for the keyset.
+ */
+class DeviceSearchRepositoryImpl implements DeviceSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    DeviceSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Device> search(DeviceSearchRequest request, Comparable<?> afterValue, UUID afterId, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Device> query = cb.createQuery(Device.class);
+        Root<DeviceEntity> device = query.from(DeviceEntity.class);
+
+        query.select(cb.construct(Device.class,
+                device.get("id"),
+                device.get("name"),
+                device.get("brand"),
+                device.get("state"),
+                device.get("createdAt"),
+                device.get("version")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (request.getBrand() != null && !request.getBrand().isBlank()) {
+            predicates.add(cb.equal(cb.lower(device.get("brand")), request.getBrand().toLowerCase(Locale.ROOT)));
+        }
+        if (request.getStates() != null && !request.getStates().isEmpty()) {
+            predicates.add(device.get("state").in(request.getStates()));
+        }
+        if (request.getNamePrefix() != null && !request.getNamePrefix().isEmpty()) {
+            predicates.add(cb.like(device.get("name"), escapeLike(request.getNamePrefix()) + "%", LIKE_ESCAPE));
+        }
+        Path<LocalDateTime> createdAt = device.get("createdAt");
+        if (request.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, request.getCreatedFrom()));
+        }
+        if (request.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(createdAt, request.getCreatedTo()));
+        }
+
+        boolean ascending = request.getDirection() != Sort.Direction.DESC;
+        Path<Comparable<Object>> sortKey = device.get(request.getSort().getAttribute());
+        Path<UUID> id = device.get("id");
+        if (afterValue != null && afterId != null) {
+            predicates.add(keysetPredicate(cb, sortKey, id, afterValue, afterId, ascending));
+        }
+
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(ascending
+                ? List.of(cb.asc(sortKey), cb.asc(id))
+                : List.of(cb.desc(sortKey), cb.desc(id)));
+
+        return this.entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * {@code (sortKey, id) > (value, lastId)} for ascending order, {@code <} for descending, spelled out so
+     * the leading range condition on the sort key can drive an index scan.
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate keysetPredicate(CriteriaBuilder cb, Expression<Comparable<Object>> sortKey, Path<UUID> id,
+                                             Comparable<?> afterValue, UUID afterId, boolean ascending) {
+        Comparable<Object> value = (Comparable<Object>) afterValue;
+        if (ascending) {
+            return cb.and(
+                    cb.greaterThanOrEqualTo(sortKey, value),
+                    cb.or(cb.greaterThan(sortKey, value), cb.greaterThan(id, afterId)));
+        }
+        return cb.and(
+                cb.lessThanOrEqualTo(sortKey, value),
+                cb.or(cb.lessThan(sortKey, value), cb.lessThan(id, afterId)));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.device.repository;
+
+import com.example.device.entity.DeviceState;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the {@code device_state_history} log, which the database writes itself (see the V7 migration).
+ */
+@Repository
+public class DeviceStateHistoryRepository {
+
+    /**
+     * The device's changes inside the window, then its first change after it: that one's previous state is the state
+     * the window ended in.
+     */
+    private static final String FIND_CHANGES = "select previous_state, state, changed_at from ("
+            + " (select seq, previous_state, state, changed_at from device_state_history"
+            + "  where device_id = :id and changed_at >= :from and changed_at < :to)"
+            + " union all"
+            + " (select seq, previous_state, state, changed_at from device_state_history"
+            + "  where device_id = :id and changed_at >= :to order by changed_at, seq limit 1)"
+            + ") changes order by changed_at, seq";
+
+    /**
+     * Time spent in each state by all devices within the window, aggregated in one pass over the changes since its
+     * start (found through the BRIN index) plus the devices that have not changed state since then. Every change
+     * opens an interval in its new state that the device's next change closes; the first change of a device in the
+     * window also accounts for the time since the window start in its previous state.
+     */
+    private static final String TIME_IN_STATE = "select state, sum(extract(epoch from least(ends, :to) - greatest(starts, :from))) as seconds"
+            + " from ("
+            + "  select i.state, i.starts, i.ends from ("
+            + "   select previous_state, state, changed_at,"
+            + "          lag(changed_at) over w as previous_changed_at,"
+            + "          lead(changed_at) over w as next_changed_at"
+            + "   from device_state_history where changed_at >= :from"
+            + "   window w as (partition by device_id order by changed_at, seq)) c"
+            + "  cross join lateral (values"
+            + "   (case when c.previous_changed_at is null then c.previous_state end, cast(:from as timestamp), c.changed_at),"
+            + "   (c.state, c.changed_at, coalesce(c.next_changed_at, 'infinity'))) as i (state, starts, ends)"
+            + "  union all"
+            + "  select state, cast(:from as timestamp), timestamp 'infinity' from device where state_changed_at < :from"
+            + " ) intervals"
+            + " where state is not null and starts < :to and ends > :from"
+            + " group by state";
+
+    private static final RowMapper<StateChange> STATE_CHANGE = (rs, rowNum) -> new StateChange(
+            state(rs.getString("previous_state")),
+            state(rs.getString("state")),
+            rs.getObject("changed_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DeviceStateHistoryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The device's state changes from {@code from} (inclusive) to {@code to} (exclusive) in time order, followed by
+     * its first change at or after {@code to} if there is one.
+     */
+    @Transactional(readOnly = true)
+    public List<StateChange> findChanges(UUID id, LocalDateTime from, LocalDateTime to) {
+        return this.jdbcTemplate.query(FIND_CHANGES, window(from, to).addValue("id", id), STATE_CHANGE);
+    }
+
+    /**
+     * The current state of a device that has a row in the device table, and whether it has ever had one otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CurrentState> findCurrentState(UUID id) {
+        return this.jdbcTemplate.query("select d.state from device d where d.id = :id"
+                        + " union all select null from device_state_history h where h.device_id = :id"
+                        + " and not exists (select 1 from device d where d.id = :id) limit 1",
+                new MapSqlParameterSource("id", id),
+                (rs, rowNum) -> new CurrentState(state(rs.getString(1)))).stream().findFirst();
+    }
+
+    /**
+     * Seconds all devices together spent in each state within the window. States no device was in are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<DeviceState, Double> sumTimeInState(LocalDateTime from, LocalDateTime to) {
+        Map<DeviceState, Double> seconds = new EnumMap<>(DeviceState.class);
+        this.jdbcTemplate.query(TIME_IN_STATE, window(from, to), rs -> {
+            seconds.put(DeviceState.valueOf(rs.getString("state")), rs.getDouble("seconds"));
+        });
+        return seconds;
+    }
+
+    private static MapSqlParameterSource window(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+    }
+
+    private static DeviceState state(String state) {
+        return state == null ? null : DeviceState.valueOf(state);
+    }
+
+    /**
+     * One row of the log; a {@code null} state means the device did not exist or had no state.
+     */
+    public record StateChange(DeviceState previousState, DeviceState state, LocalDateTime changedAt) {
+    }
+
+    /**
+     * @param state the device's state now, {@code null} when it has no state or has been deleted or archived
+     */
+    public record CurrentState(DeviceState state) {
+    }
+}
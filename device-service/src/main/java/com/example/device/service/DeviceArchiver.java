@@ -0,0 +1,115 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceArchiveProperties;
+import com.example.device.dto.Device;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.repository.DeviceArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Moves devices that have been INACTIVE for longer than {@code device.archive.inactive-for} from the device table to
+ * the archive, in batches, and drops archive partitions once they are past the retention.
+ * <p>
+ * Each batch is one transaction under a Postgres advisory lock, so only one instance archives at a time. Archived
+ * devices are reported as {@link DeviceChangedEvent#archived archived} changes: they leave the change stream, the
+ * in-memory index and the counts the way deleted devices do.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "device.archive", name = "enabled", havingValue = "true")
+public class DeviceArchiver {
+
+    static final long ARCHIVE_LOCK_KEY = 0x617263686976L;
+
+    private final DeviceArchiveRepository archiveRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Cache deviceCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DeviceArchiveProperties properties;
+
+    public DeviceArchiver(DeviceArchiveRepository archiveRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          CacheManager cacheManager,
+                          PlatformTransactionManager transactionManager,
+                          DeviceArchiveProperties properties) {
+        this.archiveRepository = archiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.deviceCache = cacheManager.getCache(CacheConfig.DEVICES);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${device.archive.interval:1h}")
+    public void run() {
+        archive();
+        dropExpired();
+    }
+
+    /**
+     * Archives batch after batch until a batch comes back short or another instance holds the lock.
+     *
+     * @return the number of devices archived
+     */
+    public long archive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime inactiveSince = now.minus(this.properties.inactiveFor());
+        long archived = 0;
+        List<Device> batch;
+        do {
+            batch = this.transactionTemplate.execute(status -> {
+                if (!this.archiveRepository.tryArchiveLock(ARCHIVE_LOCK_KEY)) {
+                    return null;
+                }
+                this.archiveRepository.createPartition(YearMonth.from(now));
+                List<Device> devices = this.archiveRepository.archiveInactive(inactiveSince, this.properties.batchSize(), now);
+                devices.forEach(device -> this.eventPublisher.publishEvent(DeviceChangedEvent.archived(device)));
+                return devices;
+            });
+            if (batch == null) {
+                break;
+            }
+            if (this.deviceCache != null) {
+                batch.forEach(device -> this.deviceCache.evict(device.getId()));
+            }
+            archived += batch.size();
+        } while (batch.size() == this.properties.batchSize());
+
+        if (archived > 0) {
+            log.info("Archived {} devices inactive since before {}", archived, inactiveSince);
+        }
+        return archived;
+    }
+
+    /**
+     * Drops the partitions of months that ended more than the retention ago.
+     */
+    public void dropExpired() {
+        if (this.properties.retention() == null) {
+            return;
+        }
+        LocalDateTime keepAfter = LocalDateTime.now().minus(this.properties.retention());
+        for (YearMonth month : this.archiveRepository.findPartitions()) {
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(keepAfter)) {
+                this.archiveRepository.dropPartition(month);
+                log.info("Dropped devices archived in {}, past the retention of {}", month, this.properties.retention());
+            }
+        }
+    }
+}
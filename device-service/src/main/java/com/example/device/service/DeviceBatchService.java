@@ -0,0 +1,261 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceBatchProperties;
+import com.example.device.config.MetricsConfig;
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceRepository;
+import com.example.device.rules.DeviceRules;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk variants of the {@link DeviceService} write operations. Items are written in chunks, one transaction
+ * per chunk, so Hibernate can send each chunk as JDBC batches. Every item gets its own result, carrying the
+ * status the single-item endpoint would have answered with.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, description = "Time spent in device service methods")
+public class DeviceBatchService {
+
+    private final DeviceRepository deviceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache deviceCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int chunkSize;
+
+    public DeviceBatchService(DeviceRepository deviceRepository,
+                              PlatformTransactionManager transactionManager,
+                              CacheManager cacheManager,
+                              ApplicationEventPublisher eventPublisher,
+                              DeviceBatchProperties batchProperties) {
+        this.deviceRepository = deviceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deviceCache = cacheManager.getCache(CacheConfig.DEVICES);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = batchProperties.chunkSize();
+    }
+
+    public List<BatchItemResult> saveDevices(Iterator<Device> devices) {
+        return processInChunks(devices, this::saveChunk);
+    }
+
+    public List<BatchItemResult> updateDevices(Iterator<Device> devices) {
+        return processInChunks(devices, this::updateChunk);
+    }
+
+    public List<BatchItemResult> deleteDevices(Iterator<UUID> ids) {
+        return processInChunks(ids, this::deleteChunk);
+    }
+
+    private <T> List<BatchItemResult> processInChunks(Iterator<T> items, ChunkWriter<T> writer) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(this.chunkSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == this.chunkSize) {
+                results.addAll(writeChunk(results.size(), chunk, writer));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(results.size(), chunk, writer));
+        }
+        return results;
+    }
+
+    private <T> List<BatchItemResult> writeChunk(int firstIndex, List<T> chunk, ChunkWriter<T> writer) {
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+        try {
+            writer.write(firstIndex, chunk, results);
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Batch chunk starting at item {} failed: {}", firstIndex, e.getMessage());
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].getStatus() < HttpStatus.BAD_REQUEST.value()) {
+                    results[i] = failure(firstIndex + i, results[i] == null ? null : results[i].getId(),
+                            HttpStatus.INTERNAL_SERVER_ERROR, "Batch chunk failed");
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private void saveChunk(int firstIndex, List<Device> chunk, BatchItemResult[] results) {
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        List<DeviceEntity> deviceEntities = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                DeviceRules.checkCreatable(chunk.get(i));
+            } catch (InvalidDeviceException e) {
+                results[i] = failure(firstIndex + i, null, HttpStatus.BAD_REQUEST, e.getMessage());
+                continue;
+            }
+            positions.add(i);
+            deviceEntities.add(DeviceMapper.toEntity(chunk.get(i)));
+        }
+
+        List<Device> savedDevices = this.transactionTemplate.execute(status -> {
+            // Flush so the creation timestamps are set before the devices are cached and written to the outbox.
+            List<Device> saved = DeviceMapper.toDtoList(this.deviceRepository.saveAllAndFlush(deviceEntities));
+            saved.forEach(device -> this.eventPublisher.publishEvent(DeviceChangedEvent.created(device)));
+            return saved;
+        });
+
+        for (int i = 0; i < savedDevices.size(); i++) {
+            Device savedDevice = savedDevices.get(i);
+            this.deviceCache.put(savedDevice.getId(), savedDevice);
+            results[positions.get(i)] = success(firstIndex + positions.get(i), HttpStatus.CREATED, savedDevice);
+        }
+    }
+
+    private void updateChunk(int firstIndex, List<Device> chunk, BatchItemResult[] results) {
+        List<Device> updatedDevices = this.transactionTemplate.execute(status -> {
+            Map<UUID, DeviceEntity> existing = findExisting(chunk.stream()
+                    .map(device -> device == null ? null : device.getId())
+                    .toList());
+            List<DeviceEntity> toSave = new ArrayList<>(chunk.size());
+            List<Device> before = new ArrayList<>(chunk.size());
+            List<Integer> positions = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Device deviceToUpdate = chunk.get(i);
+                UUID id = deviceToUpdate == null ? null : deviceToUpdate.getId();
+                DeviceEntity deviceEntity = id == null ? null : existing.get(id);
+                if (id == null) {
+                    results[i] = failure(firstIndex + i, null, HttpStatus.BAD_REQUEST, "Device id is required");
+                    continue;
+                }
+                if (deviceEntity == null) {
+                    results[i] = failure(firstIndex + i, id, HttpStatus.NOT_FOUND, "Device not found: " + id);
+                    continue;
+                }
+                try {
+                    DeviceRules.checkUpdatable(deviceEntity, deviceToUpdate);
+                } catch (DeviceInUseException e) {
+                    results[i] = failure(firstIndex + i, id, HttpStatus.CONFLICT, e.getMessage());
+                    continue;
+                }
+                before.add(DeviceMapper.toDto(deviceEntity));
+                DeviceMapper.updateEntity(deviceEntity, deviceToUpdate);
+                toSave.add(deviceEntity);
+                positions.add(i);
+            }
+
+            // Flush so the results, events and cache carry the incremented versions.
+            List<Device> saved = DeviceMapper.toDtoList(this.deviceRepository.saveAllAndFlush(toSave));
+            for (int i = 0; i < saved.size(); i++) {
+                results[positions.get(i)] = success(firstIndex + positions.get(i), HttpStatus.OK, saved.get(i));
+                this.eventPublisher.publishEvent(DeviceChangedEvent.updated(before.get(i), saved.get(i)));
+            }
+            return saved;
+        });
+
+        updatedDevices.forEach(device -> this.deviceCache.put(device.getId(), device));
+    }
+
+    private void deleteChunk(int firstIndex, List<UUID> chunk, BatchItemResult[] results) {
+        List<UUID> deletedIds = this.transactionTemplate.execute(status -> {
+            // The bulk delete has no version check, so the rows stay locked from the in-use check until it runs.
+            Map<UUID, DeviceEntity> existing = lockExisting(chunk);
+            List<UUID> toDelete = new ArrayList<>(chunk.size());
+            List<Device> deleted = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                UUID id = chunk.get(i);
+                DeviceEntity deviceEntity = id == null ? null : existing.get(id);
+                if (deviceEntity == null) {
+                    results[i] = failure(firstIndex + i, id, HttpStatus.NOT_FOUND, "Device not found: " + id);
+                    continue;
+                }
+                try {
+                    DeviceRules.checkDeletable(deviceEntity);
+                } catch (DeviceInUseException e) {
+                    results[i] = failure(firstIndex + i, id, HttpStatus.CONFLICT, e.getMessage());
+                    continue;
+                }
+                toDelete.add(id);
+                deleted.add(DeviceMapper.toDto(deviceEntity));
+                results[i] = BatchItemResult.builder()
+                        .index(firstIndex + i)
+                        .id(id)
+                        .status(HttpStatus.OK.value())
+                        .build();
+            }
+
+            this.deviceRepository.deleteAllByIdInBatch(toDelete);
+            deleted.forEach(device -> this.eventPublisher.publishEvent(DeviceChangedEvent.deleted(device)));
+            return toDelete;
+        });
+
+        deletedIds.forEach(this.deviceCache::evict);
+    }
+
+    private Map<UUID, DeviceEntity> findExisting(List<UUID> ids) {
+        return byId(this.deviceRepository.findAllById(distinctIds(ids)));
+    }
+
+    private Map<UUID, DeviceEntity> lockExisting(List<UUID> ids) {
+        List<UUID> distinctIds = distinctIds(ids);
+        return distinctIds.isEmpty() ? Map.of() : byId(this.deviceRepository.findAllByIdForUpdate(distinctIds));
+    }
+
+    private static List<UUID> distinctIds(List<UUID> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static Map<UUID, DeviceEntity> byId(List<DeviceEntity> deviceEntities) {
+        return deviceEntities.stream().collect(Collectors.toMap(DeviceEntity::getId, Function.identity()));
+    }
+
+    private static BatchItemResult success(int index, HttpStatus status, Device device) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(device.getId())
+                .status(status.value())
+                .device(device)
+                .build();
+    }
+
+    private static BatchItemResult failure(int index, UUID id, HttpStatus status, String message) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(int firstIndex, List<T> chunk, BatchItemResult[] results);
+    }
+}
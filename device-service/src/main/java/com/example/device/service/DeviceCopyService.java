@@ -0,0 +1,299 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceImportProperties;
+import com.example.device.config.MetricsConfig;
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.entity.DeviceState;
+import com.example.device.entity.id.DeviceIdStrategy;
+import com.example.device.event.DevicesImportedEvent;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.exception.InvalidImportException;
+import com.example.device.mapper.DeviceCsv;
+import com.example.device.repository.DeviceCopyRepository;
+import com.example.device.rules.DeviceRules;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Bulk import and export through Postgres {@code COPY}. Rows are streamed one at a time from the request body through
+ * validation into the copy, and from the copy into the response, so heap use does not grow with the number of rows.
+ * <p>
+ * An import is one transaction and only ever inserts: a row whose id already exists is skipped. Imported devices do
+ * not go through the change events, so they are not in the change stream. Once the import commits a
+ * {@link DevicesImportedEvent} has this instance rebuild its in-memory index and counts in the background, after the
+ * response; other instances catch up at their next reconcile.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, description = "Time spent in device service methods")
+public class DeviceCopyService {
+
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int BRAND = 2;
+    private static final int STATE = 3;
+    private static final int CREATED_AT = 4;
+
+    private final DeviceCopyRepository copyRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final DeviceIdStrategy idStrategy;
+
+    private final int maxRejections;
+
+    public DeviceCopyService(DeviceCopyRepository copyRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             DeviceImportProperties properties,
+                             @Value("${device.id.strategy:TIME_ORDERED}") String idStrategy) {
+        this.copyRepository = copyRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.idStrategy = DeviceIdStrategy.valueOf(idStrategy.trim().toUpperCase(Locale.ROOT));
+        this.maxRejections = properties.maxRejections();
+    }
+
+    /**
+     * Imports CSV whose header names the columns, any of {@link DeviceCsv#COLUMNS}; name and brand are required.
+     * {@code version} is ignored, every imported device starts at version 0.
+     */
+    public DeviceImportResult importCsv(Reader body) {
+        ImportRun run = new ImportRun();
+        return importRows(run, out -> {
+            DeviceCsv.RecordReader records = new DeviceCsv.RecordReader(body);
+            List<String> header = records.next();
+            if (header == null) {
+                return;
+            }
+            int[] columns = importColumns(header);
+            for (List<String> record = records.next(); record != null; record = records.next()) {
+                if (record.size() != header.size()) {
+                    run.reject(null, "Line " + records.line() + " has " + record.size() + " fields, expected " + header.size());
+                    continue;
+                }
+                run.accept(out, field(record, columns[ID]), field(record, columns[NAME]), field(record, columns[BRAND]),
+                        field(record, columns[STATE]), field(record, columns[CREATED_AT]));
+            }
+        });
+    }
+
+    /**
+     * Imports one device per line, with the fields of a {@link Device}; unlike the other endpoints {@code createdAt}
+     * is taken from the input when given.
+     */
+    public DeviceImportResult importNdjson(Reader body) {
+        ImportRun run = new ImportRun();
+        return importRows(run, out -> {
+            BufferedReader lines = new BufferedReader(body);
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = this.objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    run.reject(null, "Not valid JSON");
+                    continue;
+                }
+                if (!node.isObject()) {
+                    run.reject(null, "Not a JSON object");
+                    continue;
+                }
+                run.accept(out, text(node, "id"), text(node, "name"), text(node, "brand"), text(node, "state"),
+                        text(node, "createdAt"));
+            }
+        });
+    }
+
+    /**
+     * Writes all devices as CSV with a header, in {@link DeviceCsv#COLUMNS} order, straight from {@code COPY}.
+     */
+    public void exportCsv(OutputStream out) {
+        this.readOnlyTransactionTemplate.executeWithoutResult(status ->
+                this.copyRepository.export(true, in -> in.transferTo(out)));
+    }
+
+    /**
+     * Writes all devices as newline-delimited JSON, converted row by row from the CSV {@code COPY} produces.
+     */
+    public void exportNdjson(OutputStream out) {
+        this.readOnlyTransactionTemplate.executeWithoutResult(status -> this.copyRepository.export(false, in -> {
+            DeviceCsv.RecordReader records = new DeviceCsv.RecordReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)) {
+                // Each device ends with its own newline, so no extra separator between root values.
+                generator.setRootValueSeparator(null);
+                for (List<String> record = records.next(); record != null; record = records.next()) {
+                    generator.writeObject(DeviceCsv.fromExportRecord(record));
+                    generator.writeRaw('\n');
+                }
+            }
+        }));
+    }
+
+    private DeviceImportResult importRows(ImportRun run, DeviceCopyRepository.RowWriter rows) {
+        Long imported;
+        try {
+            imported = this.transactionTemplate.execute(status -> this.copyRepository.insertNew(rows));
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof DeviceCsv.MalformedCsvException malformed) {
+                throw new InvalidImportException(malformed.getMessage());
+            }
+            throw e;
+        }
+        long inserted = imported == null ? 0 : imported;
+
+        if (inserted > 0) {
+            this.eventPublisher.publishEvent(new DevicesImportedEvent(inserted));
+        }
+        log.info("Imported {} of {} devices, {} duplicates, {} rejected", inserted, run.received, run.written - inserted,
+                run.rejected);
+        return DeviceImportResult.builder()
+                .received(run.received)
+                .imported(inserted)
+                .duplicates(run.written - inserted)
+                .rejected(run.rejected)
+                .rejections(run.rejections)
+                .build();
+    }
+
+    private static int[] importColumns(List<String> header) {
+        int[] columns = new int[CREATED_AT + 1];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i) == null ? "" : header.get(i).trim().toLowerCase(Locale.ROOT);
+            int column = DeviceCsv.COLUMNS.indexOf(name);
+            if (column < 0) {
+                throw new InvalidImportException("Unknown column '" + header.get(i) + "', expected any of " + DeviceCsv.COLUMNS);
+            }
+            if (column > CREATED_AT) {
+                continue;
+            }
+            if (columns[column] >= 0) {
+                throw new InvalidImportException("Column " + name + " appears more than once");
+            }
+            columns[column] = i;
+        }
+        if (columns[NAME] < 0 || columns[BRAND] < 0) {
+            throw new InvalidImportException("The header must name the name and brand columns");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < 0 ? null : record.get(column);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Counts and validates the rows of one import. Only touched by the thread reading the request body.
+     */
+    private final class ImportRun {
+
+        private final LocalDateTime importedAt = LocalDateTime.now();
+
+        private final List<BatchItemResult> rejections = new ArrayList<>();
+
+        private long received;
+
+        private long written;
+
+        private long rejected;
+
+        void accept(Writer out, String id, String name, String brand, String state, String createdAt) throws IOException {
+            Device device = Device.builder()
+                    .name(name)
+                    .brand(brand)
+                    .build();
+            try {
+                device.setId(id == null ? DeviceCopyService.this.idStrategy.get() : UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                reject(null, "Invalid id: " + id);
+                return;
+            }
+            try {
+                device.setState(state == null ? null : DeviceState.valueOf(state));
+            } catch (IllegalArgumentException e) {
+                reject(device.getId(), "Unknown state: " + state + ", expected one of " + Arrays.toString(DeviceState.values()));
+                return;
+            }
+            try {
+                device.setCreatedAt(createdAt == null ? this.importedAt : DeviceCsv.parseTimestamp(createdAt));
+            } catch (DateTimeParseException e) {
+                reject(device.getId(), "Invalid creation time: " + createdAt);
+                return;
+            }
+            try {
+                DeviceRules.checkCreatable(device);
+            } catch (InvalidDeviceException e) {
+                reject(device.getId(), e.getMessage());
+                return;
+            }
+            if (name.indexOf('\0') >= 0 || brand.indexOf('\0') >= 0) {
+                // Postgres text cannot hold NUL; one would fail the whole COPY.
+                reject(device.getId(), "Device name and brand must not contain NUL characters");
+                return;
+            }
+
+            this.received++;
+            this.written++;
+            DeviceCsv.writeImportRow(out, device);
+        }
+
+        void reject(UUID id, String message) {
+            if (this.rejections.size() < DeviceCopyService.this.maxRejections) {
+                this.rejections.add(BatchItemResult.builder()
+                        .index((int) this.received)
+                        .id(id)
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .message(message)
+                        .build());
+            }
+            this.received++;
+            this.rejected++;
+        }
+    }
+}
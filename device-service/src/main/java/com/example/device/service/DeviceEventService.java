@@ -0,0 +1,208 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceEventProperties;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves the device event stream. Each subscriber first replays published events after its offset from the outbox,
+ * then receives live events handed over by {@link DeviceOutboxRelay}. A subscriber is registered before it
+ * replays, so an event is either in the replay or in its queue; duplicates are skipped by offset.
+ * <p>
+ * Every subscriber has its own bounded queue, drained by its own virtual thread. A client that reads too slowly to
+ * keep up fills its queue and is disconnected; it can reconnect with {@code Last-Event-ID} and catch up from the
+ * outbox without holding back the other subscribers.
+ */
+@Slf4j
+@Service
+public class DeviceEventService implements MeterBinder {
+
+    static final long RECONNECT_MILLIS = 1000;
+
+    private final DeviceOutboxRepository outboxRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final DeviceEventProperties properties;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder overflowDisconnects = new LongAdder();
+
+    public DeviceEventService(DeviceOutboxRepository outboxRepository, ObjectMapper objectMapper, DeviceEventProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Opens a stream of the events after {@code after}; a negative offset starts at the latest event.
+     */
+    public SseEmitter subscribe(long after) {
+        return subscribe(after, new SseEmitter(this.properties.streamTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(long after, SseEmitter emitter) {
+        long start = after >= 0 ? after : this.outboxRepository.findLatestOffset().orElse(0L);
+        Subscriber subscriber = new Subscriber(emitter, start, this.properties.subscriberQueueSize());
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        this.subscribers.add(subscriber);
+        Thread.ofVirtual().name("device-events-", start).start(subscriber::run);
+        return emitter;
+    }
+
+    /**
+     * Hands newly published events, in offset order, to every subscriber.
+     */
+    public void broadcast(List<DeviceEvent> events) {
+        if (events.isEmpty() || this.subscribers.isEmpty()) {
+            return;
+        }
+        List<SerializedEvent> serialized = new ArrayList<>(events.size());
+        for (DeviceEvent event : events) {
+            serialized.add(serialize(event));
+        }
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.offer(serialized);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return this.subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("device.events.subscribers", this, DeviceEventService::getSubscriberCount)
+                .description("Open device event streams")
+                .register(registry);
+        FunctionCounter.builder("device.events.overflow.disconnects", overflowDisconnects, LongAdder::sum)
+                .description("Event streams closed because the client did not keep up")
+                .register(registry);
+    }
+
+    private SerializedEvent serialize(DeviceEvent event) {
+        try {
+            return new SerializedEvent(event.getOffset(), event.getType().name(), this.objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event " + event.getOffset(), e);
+        }
+    }
+
+    private record SerializedEvent(long offset, String type, String json) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SerializedEvent> queue;
+
+        private long lastOffset;
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long after, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.lastOffset = after;
+        }
+
+        void offer(List<SerializedEvent> events) {
+            for (SerializedEvent event : events) {
+                if (this.closed) {
+                    return;
+                }
+                if (!this.queue.offer(event)) {
+                    log.info("Closing device event stream at offset {}: subscriber fell {} events behind", this.lastOffset, this.queue.size());
+                    overflowDisconnects.increment();
+                    close();
+                    this.emitter.complete();
+                    return;
+                }
+            }
+        }
+
+        void run() {
+            try {
+                // Commits the response headers straight away and tells EventSource clients how soon to reconnect.
+                this.emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS));
+                replay();
+                long heartbeatMillis = properties.heartbeat().toMillis();
+                while (!this.closed) {
+                    SerializedEvent event = this.queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        this.emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        send(event);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Device event stream closed by the client: {}", e.getMessage());
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                this.emitter.complete();
+            } catch (RuntimeException e) {
+                log.error("Device event stream failed at offset {}", this.lastOffset, e);
+                close();
+                this.emitter.completeWithError(e);
+            }
+        }
+
+        private void replay() throws IOException {
+            List<DeviceOutboxEntity> page;
+            do {
+                page = outboxRepository.findPublishedAfter(this.lastOffset, Limit.of(properties.batchSize()));
+                for (DeviceOutboxEntity outboxEntity : page) {
+                    if (this.closed) {
+                        return;
+                    }
+                    send(serialize(DeviceMapper.toEvent(outboxEntity)));
+                }
+            } while (page.size() == properties.batchSize());
+        }
+
+        private void send(SerializedEvent event) throws IOException {
+            if (event.offset() <= this.lastOffset) {
+                return;
+            }
+            this.emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.offset()))
+                    .name(event.type())
+                    .data(event.json()));
+            this.lastOffset = event.offset();
+        }
+
+        void close() {
+            this.closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
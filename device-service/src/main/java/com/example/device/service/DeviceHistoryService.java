@@ -0,0 +1,128 @@
+package com.example.device.service;
+
+import com.example.device.config.MetricsConfig;
+import com.example.device.dto.DeviceStateInterval;
+import com.example.device.dto.DeviceTimeline;
+import com.example.device.dto.DeviceUtilization;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.InvalidTimeWindowException;
+import com.example.device.repository.DeviceStateHistoryRepository;
+import com.example.device.repository.DeviceStateHistoryRepository.StateChange;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Answers questions about past device states from the state-history log. The log is written by the database in the
+ * transaction of each change, so it covers every write path without the services taking part.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, description = "Time spent in device service methods")
+public class DeviceHistoryService {
+
+    static final Duration DEFAULT_WINDOW = Duration.ofDays(7);
+
+    static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    private final DeviceStateHistoryRepository historyRepository;
+
+    public DeviceHistoryService(DeviceStateHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    /**
+     * The states the device was in between {@code from} and {@code to}, by default the last seven days. The window is
+     * cut at the current time.
+     */
+    public DeviceTimeline getTimeline(UUID id, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = windowEnd(to);
+        LocalDateTime start = windowStart(from, end);
+
+        List<StateChange> changes = this.historyRepository.findChanges(id, start, end);
+        DeviceState state;
+        if (changes.isEmpty()) {
+            // Not a single change since the window start: the device is still in the state it was in back then.
+            state = this.historyRepository.findCurrentState(id)
+                    .orElseThrow(() -> new DeviceNotFoundException(id))
+                    .state();
+        } else {
+            // The first change after the window start, possibly after its end, tells what the device was in before.
+            state = changes.get(0).previousState();
+        }
+
+        List<DeviceStateInterval> intervals = new ArrayList<>();
+        Map<DeviceState, Double> secondsInState = new EnumMap<>(DeviceState.class);
+        LocalDateTime since = start;
+        for (StateChange change : changes) {
+            if (!change.changedAt().isBefore(end)) {
+                break;
+            }
+            addInterval(intervals, secondsInState, state, since, change.changedAt());
+            state = change.state();
+            since = change.changedAt();
+        }
+        addInterval(intervals, secondsInState, state, since, end);
+
+        return DeviceTimeline.builder()
+                .id(id)
+                .from(start)
+                .to(end)
+                .intervals(intervals)
+                .secondsInState(secondsInState)
+                .build();
+    }
+
+    /**
+     * Device time per state over the whole fleet between {@code from} and {@code to}, by default the last seven days,
+     * summed by the database without reading the log into memory.
+     */
+    public DeviceUtilization getUtilization(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = windowEnd(to);
+        LocalDateTime start = windowStart(from, end);
+
+        Map<DeviceState, Double> secondsInState = this.historyRepository.sumTimeInState(start, end);
+        double total = secondsInState.values().stream().mapToDouble(Double::doubleValue).sum();
+        double inUse = secondsInState.getOrDefault(DeviceState.IN_USE, 0.0);
+
+        return DeviceUtilization.builder()
+                .from(start)
+                .to(end)
+                .secondsInState(secondsInState)
+                .utilization(total > 0 ? inUse / total : 0)
+                .build();
+    }
+
+    private static void addInterval(List<DeviceStateInterval> intervals, Map<DeviceState, Double> secondsInState,
+                                    DeviceState state, LocalDateTime from, LocalDateTime to) {
+        if (state == null || !from.isBefore(to)) {
+            return;
+        }
+        intervals.add(new DeviceStateInterval(state, from, to));
+        secondsInState.merge(state, ChronoUnit.MICROS.between(from, to) / 1_000_000.0, Double::sum);
+    }
+
+    private static LocalDateTime windowEnd(LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        return to == null || to.isAfter(now) ? now : to;
+    }
+
+    private static LocalDateTime windowStart(LocalDateTime from, LocalDateTime end) {
+        LocalDateTime start = from == null ? end.minus(DEFAULT_WINDOW) : from;
+        if (!start.isBefore(end)) {
+            throw new InvalidTimeWindowException("The window must start before it ends, and before now: from " + start + ", to " + end);
+        }
+        if (start.isBefore(end.minus(MAX_WINDOW))) {
+            throw new InvalidTimeWindowException("The window may span at most " + MAX_WINDOW.toDays() + " days");
+        }
+        return start;
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceIndexProperties;
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.event.DeviceEventType;
+import com.example.device.event.DevicesImportedEvent;
+import com.example.device.repository.DeviceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory copy of the device table, indexed by id, brand and state, for {@code device.memory-index.enabled}.
+ * <p>
+ * Reads are lock-free lookups in concurrent maps. Writes are serialized and only ever move a device forward: a change
+ * is applied when it carries a higher version than the copy holds, so the same change arriving twice, or late,
+ * is harmless. Changes come from three places:
+ * <ul>
+ *     <li>committed {@link DeviceChangedEvent}s of this instance, applied before the writing request returns;</li>
+ *     <li>the outbox relay, which delivers the changes of every instance within {@code device.events.poll-interval};</li>
+ *     <li>a full reload every {@code reconcile-interval}, which also picks up writes made outside the service, and in
+ *     the background after an import on this instance.</li>
+ * </ul>
+ * Until the first load has finished, {@link #isServing()} is false and reads go to the database. Devices are copied on
+ * the way in and out, so callers are free to modify what they pass or get.
+ */
+@Slf4j
+@Service
+public class DeviceIndex implements MeterBinder {
+
+    private final DeviceRepository deviceRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final DeviceIndexProperties properties;
+
+    private final Object writeLock = new Object();
+
+    /**
+     * Held for a whole reload, so a scheduled reload and one after an import do not share {@link #changesDuringReload}.
+     */
+    private final Object reloadLock = new Object();
+
+    private volatile Indexes indexes = new Indexes();
+
+    private volatile boolean serving;
+
+    /**
+     * Changes applied while a reload reads the table, replayed onto the reloaded copy. Guarded by {@link #writeLock}.
+     */
+    private List<Change> changesDuringReload;
+
+    private final LongAdder reconcileCorrections = new LongAdder();
+
+    public DeviceIndex(DeviceRepository deviceRepository, ObjectMapper objectMapper, DeviceIndexProperties properties) {
+        this.deviceRepository = deviceRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public boolean isServing() {
+        return this.serving;
+    }
+
+    public Optional<Device> findById(UUID id) {
+        return Optional.ofNullable(this.indexes.byId.get(id)).map(DeviceIndex::copy);
+    }
+
+    public List<Device> findAll() {
+        return this.indexes.byId.values().stream().map(DeviceIndex::copy).toList();
+    }
+
+    public List<Device> findByBrand(String brand) {
+        Indexes current = this.indexes;
+        return devices(current, current.byBrand.get(brand), device -> brand.equals(device.getBrand()));
+    }
+
+    public List<Device> findByState(DeviceState state) {
+        Indexes current = this.indexes;
+        return devices(current, current.byState.get(state), device -> device.getState() == state);
+    }
+
+    public int size() {
+        return this.indexes.byId.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        if (!this.properties.enabled()) {
+            return;
+        }
+        apply(event.after() != null ? Change.upsert(copy(event.after())) : Change.delete(event.before()));
+    }
+
+    /**
+     * Applies changes relayed from the outbox, including those written by other instances.
+     */
+    public void onRelayed(List<DeviceEvent> events) {
+        if (!this.properties.enabled()) {
+            return;
+        }
+        for (DeviceEvent event : events) {
+            Device device;
+            try {
+                device = readPayload(event.getDevice());
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping device event {}, unreadable device: {}", event.getOffset(), e.getMessage());
+                continue;
+            }
+            boolean removed = event.getType() == DeviceEventType.DELETED || event.getType() == DeviceEventType.ARCHIVED;
+            apply(removed ? Change.delete(device) : Change.upsert(device));
+        }
+    }
+
+    /**
+     * {@code createdAt} and {@code version} are read-only for request bodies, so binding skips them; the version guard
+     * needs both, so they are taken from the tree.
+     */
+    private Device readPayload(String payload) throws JsonProcessingException {
+        JsonNode node = this.objectMapper.readTree(payload);
+        Device device = this.objectMapper.treeToValue(node, Device.class);
+        device.setCreatedAt(this.objectMapper.treeToValue(node.get("createdAt"), LocalDateTime.class));
+        device.setVersion(node.hasNonNull("version") ? node.get("version").asLong() : null);
+        return device;
+    }
+
+    @Async
+    @EventListener
+    public void onDevicesImported(DevicesImportedEvent event) {
+        reload();
+    }
+
+    /**
+     * Rebuilds the copy from the table. Changes applied while the table is read are replayed onto the new copy, so a
+     * reload never takes back a newer change.
+     */
+    @Scheduled(fixedDelayString = "${device.memory-index.reconcile-interval:5m}")
+    public void reload() {
+        if (!this.properties.enabled()) {
+            return;
+        }
+        synchronized (this.reloadLock) {
+            reloadTable();
+        }
+    }
+
+    private void reloadTable() {
+        synchronized (this.writeLock) {
+            this.changesDuringReload = new ArrayList<>();
+        }
+        List<Device> devices;
+        try {
+            devices = this.deviceRepository.findAllDevices();
+        } catch (RuntimeException e) {
+            synchronized (this.writeLock) {
+                this.changesDuringReload = null;
+            }
+            log.warn("Reloading the device index failed, {} it: {}", this.serving ? "keeping" : "not serving from",
+                    e.getMessage());
+            return;
+        }
+
+        Indexes reloaded = new Indexes();
+        devices.forEach(reloaded::put);
+        synchronized (this.writeLock) {
+            this.changesDuringReload.forEach(change -> change.applyTo(reloaded));
+            this.changesDuringReload = null;
+            if (this.serving) {
+                long corrections = countDifferences(this.indexes, reloaded);
+                if (corrections > 0) {
+                    log.info("Device index reload corrected {} devices", corrections);
+                    this.reconcileCorrections.add(corrections);
+                }
+            }
+            this.indexes = reloaded;
+        }
+        if (!this.serving) {
+            log.info("Device index loaded {} devices, serving reads from memory", reloaded.byId.size());
+            this.serving = true;
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (this.writeLock) {
+            change.applyTo(this.indexes);
+            if (this.changesDuringReload != null) {
+                this.changesDuringReload.add(change);
+            }
+        }
+    }
+
+    /**
+     * Resolves ids from a secondary index. A device that is being moved between index entries can briefly be listed
+     * under both, so the match is checked against the device itself.
+     */
+    private static List<Device> devices(Indexes indexes, Set<UUID> ids, Predicate<Device> matches) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<Device> devices = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Device device = indexes.byId.get(id);
+            if (device != null && matches.test(device)) {
+                devices.add(copy(device));
+            }
+        }
+        return devices;
+    }
+
+    private static Device copy(Device device) {
+        return device.toBuilder().build();
+    }
+
+    private static long countDifferences(Indexes before, Indexes after) {
+        long differences = before.byId.keySet().stream().filter(id -> !after.byId.containsKey(id)).count();
+        for (Map.Entry<UUID, Device> entry : after.byId.entrySet()) {
+            Device previous = before.byId.get(entry.getKey());
+            if (previous == null || !Objects.equals(previous.getVersion(), entry.getValue().getVersion())) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("device.index.size", this, DeviceIndex::size)
+                .description("Devices held by the in-memory index")
+                .register(registry);
+        FunctionCounter.builder("device.index.reconcile.corrections", this.reconcileCorrections, LongAdder::sum)
+                .description("Devices the periodic reload found missing, stale or deleted in the in-memory index")
+                .register(registry);
+    }
+
+    /**
+     * The maps behind one version of the copy. Secondary indexes hold ids; the device itself lives in
+     * {@code byId} only. Mutated under the write lock, read without one.
+     */
+    private static final class Indexes {
+
+        private final ConcurrentMap<UUID, Device> byId = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, Set<UUID>> byBrand = new ConcurrentHashMap<>();
+
+        private final Map<DeviceState, Set<UUID>> byState = new EnumMap<>(DeviceState.class);
+
+        /**
+         * Last version of each deleted device, so a late update does not bring it back. Dropped by every reload.
+         */
+        private final Map<UUID, Long> deletedVersions = new HashMap<>();
+
+        private Indexes() {
+            for (DeviceState state : DeviceState.values()) {
+                this.byState.put(state, ConcurrentHashMap.newKeySet());
+            }
+        }
+
+        private void put(Device device) {
+            Device previous = this.byId.put(device.getId(), device);
+            if (previous != null) {
+                unindex(previous);
+            }
+            this.byBrand.computeIfAbsent(device.getBrand(), brand -> ConcurrentHashMap.newKeySet()).add(device.getId());
+            if (device.getState() != null) {
+                this.byState.get(device.getState()).add(device.getId());
+            }
+        }
+
+        private void unindex(Device device) {
+            Set<UUID> brandIds = this.byBrand.get(device.getBrand());
+            if (brandIds != null) {
+                brandIds.remove(device.getId());
+            }
+            if (device.getState() != null) {
+                this.byState.get(device.getState()).remove(device.getId());
+            }
+        }
+
+        private boolean isNewer(Device device) {
+            long version = device.getVersion() == null ? 0 : device.getVersion();
+            Long deletedVersion = this.deletedVersions.get(device.getId());
+            if (deletedVersion != null && version <= deletedVersion) {
+                return false;
+            }
+            Device current = this.byId.get(device.getId());
+            return current == null || current.getVersion() == null || version > current.getVersion();
+        }
+    }
+
+    private record Change(Device device, boolean deleted) {
+
+        static Change upsert(Device device) {
+            return new Change(device, false);
+        }
+
+        static Change delete(Device device) {
+            return new Change(device, true);
+        }
+
+        void applyTo(Indexes indexes) {
+            if (this.deleted) {
+                long version = this.device.getVersion() == null ? 0 : this.device.getVersion();
+                indexes.deletedVersions.merge(this.device.getId(), version, Math::max);
+                Device removed = indexes.byId.remove(this.device.getId());
+                if (removed != null) {
+                    indexes.unindex(removed);
+                }
+            } else if (indexes.isNewer(this.device)) {
+                indexes.put(this.device);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceEventProperties;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes outbox rows to the device event stream.
+ * <p>
+ * Offsets are assigned under a Postgres advisory lock, so only one instance assigns at a time and every batch of
+ * offsets commits before the next one is taken. A reader that has seen offset {@code n} has therefore seen every
+ * offset below it, which is what makes resuming after an offset safe. Each instance then tails the published rows
+ * by offset and hands them to its own subscribers and its {@link DeviceIndex}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "device.events", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceOutboxRelay {
+
+    static final long RELAY_LOCK_KEY = 0x646576696365L;
+
+    private final DeviceOutboxRepository outboxRepository;
+
+    private final DeviceEventService deviceEventService;
+
+    private final DeviceIndex deviceIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DeviceEventProperties properties;
+
+    /**
+     * Offset of the last event handed to subscribers; only touched by the scheduler thread.
+     */
+    private long position = -1;
+
+    public DeviceOutboxRelay(DeviceOutboxRepository outboxRepository,
+                             DeviceEventService deviceEventService,
+                             DeviceIndex deviceIndex,
+                             PlatformTransactionManager transactionManager,
+                             DeviceEventProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.deviceEventService = deviceEventService;
+        this.deviceIndex = deviceIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${device.events.poll-interval:200ms}")
+    public void relay() {
+        if (this.position < 0) {
+            // Subscribers replay history themselves; live delivery starts at what is already published.
+            this.position = this.outboxRepository.findLatestOffset().orElse(0L);
+        }
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            if (this.outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+                this.outboxRepository.assignOffsets(this.properties.batchSize());
+            }
+        });
+
+        List<DeviceOutboxEntity> published;
+        do {
+            published = this.outboxRepository.findPublishedAfter(this.position, Limit.of(this.properties.batchSize()));
+            if (!published.isEmpty()) {
+                List<DeviceEvent> events = published.stream().map(DeviceMapper::toEvent).toList();
+                this.deviceEventService.broadcast(events);
+                this.deviceIndex.onRelayed(events);
+                this.position = events.get(events.size() - 1).getOffset();
+            }
+        } while (published.size() == this.properties.batchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${device.events.cleanup-interval:1h}")
+    public void deleteExpired() {
+        int deleted = this.outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(this.properties.retention()));
+        if (deleted > 0) {
+            log.info("Deleted {} device events older than {}", deleted, this.properties.retention());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.entity.id.UuidV7;
+import com.example.device.event.DeviceChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records every {@link DeviceChangedEvent} in the {@code device_outbox} table, inside the transaction that made the
+ * change, so an event exists if and only if the change was committed.
+ */
+@Service
+public class DeviceOutboxWriter {
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public DeviceOutboxWriter(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        Device device = event.device();
+        this.entityManager.persist(DeviceOutboxEntity.builder()
+                .id(UuidV7.next())
+                .eventType(event.type())
+                .deviceId(device.getId())
+                .payload(toJson(device))
+                .build());
+    }
+
+    private String toJson(Device device) {
+        try {
+            return this.objectMapper.writeValueAsString(device);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize device " + device.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of a device search: the sort key and id of the last device returned. The sort field is
+ * part of the token so a cursor cannot be replayed against a search with a different order.
+ */
+public record DeviceSearchCursor(DeviceSortField sort, Comparable<?> value, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static DeviceSearchCursor after(DeviceSortField sort, Device device) {
+        return new DeviceSearchCursor(sort, sort.keyOf(device), device.getId());
+    }
+
+    public String encode() {
+        // the value goes last as it is the only part that may contain the separator
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeviceSearchCursor decode(String token, DeviceSortField expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !expectedSort.name().equals(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new DeviceSearchCursor(expectedSort, expectedSort.parse(parts[2]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.MetricsConfig;
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidStateTransitionException;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceArchiveRepository;
+import com.example.device.repository.DeviceRepository;
+import com.example.device.rules.DeviceRules;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, description = "Time spent in device service methods")
+public class DeviceService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final InvalidStateTransitionException MISSING_STATES =
+            new InvalidStateTransitionException("Both from and to states are required");
+
+    private final DeviceRepository deviceRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DeviceIndex deviceIndex;
+
+    private final DeviceArchiveRepository archiveRepository;
+
+
+    public DeviceService(DeviceRepository deviceRepository, EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                         DeviceIndex deviceIndex, DeviceArchiveRepository archiveRepository) {
+        this.deviceRepository = deviceRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.deviceIndex = deviceIndex;
+        this.archiveRepository = archiveRepository;
+    }
+
+    @CachePut(cacheNames = CacheConfig.DEVICES, key = "#result.id")
+    @Transactional
+    public Device saveDevice(Device device) {
+        DeviceRules.checkCreatable(device);
+        // Flush so the creation timestamp is set before the device is cached and written to the outbox.
+        Device savedDevice = DeviceMapper.toDto(this.deviceRepository.saveAndFlush(DeviceMapper.toEntity(device)));
+        this.eventPublisher.publishEvent(DeviceChangedEvent.created(savedDevice));
+        return savedDevice;
+    }
+
+    /*
+     * The lookups below can be answered by the in-memory DeviceIndex, so they are not @Transactional themselves:
+     * a transaction would take a connection even when the database is not queried. Each falls back to a single
+     * repository query, which is read-only @Transactional itself and so still goes to a read replica when enabled.
+     */
+
+    @Cacheable(cacheNames = CacheConfig.DEVICES, key = "#id", sync = true)
+    public Device getDeviceById(UUID id) {
+        Optional<Device> device = this.deviceIndex.isServing()
+                ? this.deviceIndex.findById(id)
+                : this.deviceRepository.findDeviceById(id);
+        return device.orElseThrow(() -> new DeviceNotFoundException(id));
+    }
+
+    public List<Device> findAll() {
+        if (this.deviceIndex.isServing()) {
+            return this.deviceIndex.findAll();
+        }
+        return this.deviceRepository.findAllDevices();
+    }
+
+    /*
+     * The lookups below also read the archive. The others never touch it, so its size does not slow them down.
+     * Archived devices are neither cached nor in the in-memory index.
+     */
+
+    public Device getDeviceByIdIncludingArchived(UUID id) {
+        Optional<Device> device = this.deviceIndex.isServing()
+                ? this.deviceIndex.findById(id)
+                : this.deviceRepository.findDeviceById(id);
+        return device.or(() -> this.archiveRepository.findDeviceById(id))
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+    }
+
+    public List<Device> findAllIncludingArchived() {
+        return withArchived(findAll(), this.archiveRepository.findAllDevices());
+    }
+
+    public List<Device> findAllDevicesByBrandIncludingArchived(String brand) {
+        return withArchived(findAllDevicesByBrand(brand), this.archiveRepository.findDevicesByBrand(brand));
+    }
+
+    public List<Device> findAllDevicesByStateIncludingArchived(DeviceState state) {
+        return withArchived(findAllDevicesByState(state), this.archiveRepository.findDevicesByState(state));
+    }
+
+    @Transactional(readOnly = true)
+    public DevicePage findPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to find out whether another page follows without a count query.
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Device> devices;
+        if (cursor == null || cursor.isBlank()) {
+            devices = this.deviceRepository.findFirstPage(limit);
+        } else {
+            DeviceCursor after = DeviceCursor.decode(cursor);
+            devices = this.deviceRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasNext = devices.size() > pageSize;
+        List<Device> items = hasNext ? devices.subList(0, pageSize) : devices;
+        String nextCursor = hasNext ? DeviceCursor.after(items.get(pageSize - 1)).encode() : null;
+
+        return DevicePage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Hands every device to the consumer one at a time. Entities are detached as soon as they are mapped,
+     * so the persistence context never holds more than one row.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Device> consumer) {
+        try (Stream<DeviceEntity> deviceEntities = this.deviceRepository.streamAll()) {
+            deviceEntities.forEach(deviceEntity -> {
+                consumer.accept(DeviceMapper.toDto(deviceEntity));
+                this.entityManager.detach(deviceEntity);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DevicePage search(DeviceSearchRequest request, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Device> devices;
+        if (cursor == null || cursor.isBlank()) {
+            devices = this.deviceRepository.search(request, null, null, pageSize + 1);
+        } else {
+            DeviceSearchCursor after = DeviceSearchCursor.decode(cursor, request.getSort());
+            devices = this.deviceRepository.search(request, after.value(), after.id(), pageSize + 1);
+        }
+
+        boolean hasNext = devices.size() > pageSize;
+        List<Device> items = hasNext ? devices.subList(0, pageSize) : devices;
+        String nextCursor = hasNext ? DeviceSearchCursor.after(request.getSort(), items.get(pageSize - 1)).encode() : null;
+
+        return DevicePage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public List<Device> findAllDevicesByBrand(String brand) {
+        if (this.deviceIndex.isServing()) {
+            return this.deviceIndex.findByBrand(brand);
+        }
+        return this.deviceRepository.findDevicesByBrand(brand);
+    }
+
+    public List<Device> findAllDevicesByState(DeviceState state) {
+        if (this.deviceIndex.isServing()) {
+            return this.deviceIndex.findByState(state);
+        }
+        return this.deviceRepository.findDevicesByState(state);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES, key = "#id")
+    @Transactional
+    public void deleteDeviceById(UUID id) {
+        var deviceEntity = deviceRepository.findById(id)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+
+        DeviceRules.checkDeletable(deviceEntity);
+
+        this.deviceRepository.deleteById(id);
+        this.eventPublisher.publishEvent(DeviceChangedEvent.deleted(DeviceMapper.toDto(deviceEntity)));
+    }
+
+    /**
+     * Applies the non-null fields of the device. When {@code expectedVersion} is given the update only goes ahead
+     * if the stored device still has that version; concurrent updates are caught by the {@code @Version} check
+     * either way.
+     */
+    @CachePut(cacheNames = CacheConfig.DEVICES, key = "#result.id")
+    @Transactional
+    public Device updateDevice(Device deviceToUpdate, Long expectedVersion) {
+
+        UUID id = deviceToUpdate.getId();
+        var deviceEntity = deviceRepository.findById(id)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+
+        if (expectedVersion != null && !expectedVersion.equals(deviceEntity.getVersion())) {
+            throw new DeviceVersionMismatchException("Device " + id + " is at version " + deviceEntity.getVersion()
+                    + ", not " + expectedVersion);
+        }
+
+        DeviceRules.checkUpdatable(deviceEntity, deviceToUpdate);
+
+        Device before = DeviceMapper.toDto(deviceEntity);
+        DeviceMapper.updateEntity(deviceEntity, deviceToUpdate);
+
+        // Flush so the returned device and the outbox payload carry the incremented version.
+        Device updatedDevice = DeviceMapper.toDto(deviceRepository.saveAndFlush(deviceEntity));
+        this.eventPublisher.publishEvent(DeviceChangedEvent.updated(before, updatedDevice));
+        return updatedDevice;
+    }
+
+    /**
+     * Sets the state whatever the current one is. Changing only the state is allowed in every state, so no rule is
+     * checked; setting the state the device is already in writes nothing.
+     */
+    @CachePut(cacheNames = CacheConfig.DEVICES, key = "#result.id")
+    @Transactional
+    public Device setState(UUID id, DeviceState state) {
+        var deviceEntity = deviceRepository.findById(id)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+        if (deviceEntity.getState() == state) {
+            return DeviceMapper.toDto(deviceEntity);
+        }
+
+        Device before = DeviceMapper.toDto(deviceEntity);
+        deviceEntity.setState(state);
+        Device updatedDevice = DeviceMapper.toDto(deviceRepository.saveAndFlush(deviceEntity));
+        this.eventPublisher.publishEvent(DeviceChangedEvent.updated(before, updatedDevice));
+        return updatedDevice;
+    }
+
+    /**
+     * Moves the device to {@code to} if it is currently in {@code from}, in one round trip. The row is only read
+     * when the transition fails, to tell a missing device apart from one in another state.
+     */
+    @CachePut(cacheNames = CacheConfig.DEVICES, key = "#result.id")
+    @Transactional
+    public Device transitionState(UUID id, DeviceState from, DeviceState to) {
+        if (from == null || to == null) {
+            throw MISSING_STATES;
+        }
+
+        var transitioned = this.deviceRepository.transitionState(id, from.name(), to.name());
+        if (transitioned.isPresent()) {
+            Device after = DeviceMapper.toDto(transitioned.get());
+            Device before = DeviceMapper.toDto(transitioned.get());
+            before.setState(from);
+            before.setVersion(after.getVersion() - 1);
+            this.eventPublisher.publishEvent(DeviceChangedEvent.updated(before, after));
+            return after;
+        }
+
+        Device current = this.deviceRepository.findDeviceById(id)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+        throw new DeviceStateConflictException("Device " + id + " is " + current.getState() + ", not " + from);
+    }
+
+    private static List<Device> withArchived(List<Device> devices, List<Device> archived) {
+        if (archived.isEmpty()) {
+            return devices;
+        }
+        List<Device> all = new ArrayList<>(devices.size() + archived.size());
+        all.addAll(devices);
+        all.addAll(archived);
+        return all;
+    }
+}
+
+
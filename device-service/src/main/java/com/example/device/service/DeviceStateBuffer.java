@@ -0,0 +1,361 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceBatchProperties;
+import com.example.device.config.WriteBehindProperties;
+import com.example.device.dto.Device;
+import com.example.device.dto.WriteAck;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.InvalidStateTransitionException;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind for state changes of chatty devices. Each device has at most one buffered state; a newer write
+ * replaces it, so a device flipping state many times within a flush interval costs one UPDATE. The buffer is a
+ * {@link ConcurrentHashMap}, whose per-bin locking keeps writers to different devices from contending. A flusher
+ * thread writes the buffer every {@code flush-interval}, or sooner once {@code flush-threshold} devices are buffered,
+ * in chunks of {@code device.batch.chunk-size}: one locking SELECT and one JDBC batch of UPDATEs per chunk, with the
+ * usual events, outbox rows and cache updates.
+ * <p>
+ * When write-behind is disabled, or the buffer is full, states are written through {@link DeviceService#setState}.
+ * Reads see a buffered state only once it has been flushed. Buffered writes survive a graceful shutdown, which
+ * flushes once more after the web server has stopped, but not a crash; callers that need durability ask for
+ * {@link WriteAck#FLUSHED}.
+ */
+@Slf4j
+@Service
+public class DeviceStateBuffer implements SmartLifecycle, MeterBinder {
+
+    /**
+     * Stops after the web server has finished its requests, so the last flush sees every accepted write, and before
+     * the connection pool closes.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final InvalidStateTransitionException MISSING_STATE = new InvalidStateTransitionException("State is required");
+
+    private final DeviceService deviceService;
+
+    private final DeviceRepository deviceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache deviceCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final WriteBehindProperties properties;
+
+    private final int chunkSize;
+
+    private final ConcurrentMap<UUID, PendingState> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder bufferedWrites = new LongAdder();
+
+    private final LongAdder writtenThrough = new LongAdder();
+
+    private final LongAdder flushedUpdated = new LongAdder();
+
+    private final LongAdder flushedUnchanged = new LongAdder();
+
+    private final LongAdder flushedNotFound = new LongAdder();
+
+    private final LongAdder flushedFailed = new LongAdder();
+
+    private volatile boolean running;
+
+    private volatile Thread flusher;
+
+    public DeviceStateBuffer(DeviceService deviceService,
+                             DeviceRepository deviceRepository,
+                             PlatformTransactionManager transactionManager,
+                             CacheManager cacheManager,
+                             ApplicationEventPublisher eventPublisher,
+                             WriteBehindProperties properties,
+                             DeviceBatchProperties batchProperties) {
+        this.deviceService = deviceService;
+        this.deviceRepository = deviceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deviceCache = cacheManager.getCache(CacheConfig.DEVICES);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.chunkSize = batchProperties.chunkSize();
+    }
+
+    /**
+     * Sets the device state, buffered when write-behind is on.
+     *
+     * @param ack when to answer; {@code null} uses {@code device.write-behind.ack}
+     * @return the device once the state is written, or {@code null} when the write was only accepted into the buffer
+     */
+    public Device setState(UUID id, DeviceState state, WriteAck ack) {
+        if (state == null) {
+            throw MISSING_STATE;
+        }
+        if (!this.running || (this.pending.size() >= this.properties.maxPending() && !this.pending.containsKey(id))) {
+            this.writtenThrough.increment();
+            return this.deviceService.setState(id, state);
+        }
+
+        PendingState buffered = this.pending.compute(id, (key, current) -> {
+            if (current == null) {
+                return new PendingState(state);
+            }
+            current.state = state;
+            return current;
+        });
+        this.bufferedWrites.increment();
+        if (this.pending.size() >= this.properties.flushThreshold()) {
+            LockSupport.unpark(this.flusher);
+        }
+
+        WriteAck effectiveAck = ack != null ? ack : this.properties.ack();
+        return effectiveAck == WriteAck.FLUSHED ? awaitFlush(buffered) : null;
+    }
+
+    /**
+     * Writes every device buffered when the flush started.
+     *
+     * @return the number of buffered states the flush settled, written or found missing; states of failed chunks are
+     * not counted
+     */
+    int flush() {
+        int settled = 0;
+        Map<UUID, PendingState> chunk = new HashMap<>();
+        Iterator<UUID> ids = this.pending.keySet().iterator();
+        for (int remaining = this.pending.size(); remaining > 0 && ids.hasNext(); remaining--) {
+            UUID id = ids.next();
+            PendingState pendingState = this.pending.remove(id);
+            if (pendingState != null) {
+                chunk.put(id, pendingState);
+            }
+            if (chunk.size() == this.chunkSize) {
+                settled += writeChunk(chunk);
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            settled += writeChunk(chunk);
+        }
+        return settled;
+    }
+
+    int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * @return the number of states settled, or 0 when the chunk failed: a database failure puts it back into the
+     * buffer for the next flush, any other failure is reported to the writers waiting for it
+     */
+    private int writeChunk(Map<UUID, PendingState> chunk) {
+        int size = chunk.size();
+        List<Device> written;
+        try {
+            written = this.transactionTemplate.execute(status -> {
+                List<Device> devices = new ArrayList<>(size);
+                List<Device> before = new ArrayList<>(size);
+                List<DeviceEntity> changed = new ArrayList<>(size);
+                for (DeviceEntity deviceEntity : this.deviceRepository.findAllByIdForUpdate(chunk.keySet())) {
+                    DeviceState state = chunk.get(deviceEntity.getId()).state;
+                    if (deviceEntity.getState() == state) {
+                        devices.add(DeviceMapper.toDto(deviceEntity));
+                        continue;
+                    }
+                    before.add(DeviceMapper.toDto(deviceEntity));
+                    deviceEntity.setState(state);
+                    changed.add(deviceEntity);
+                }
+
+                // One JDBC batch for the chunk; the versions are bumped once it is flushed.
+                this.deviceRepository.flush();
+                for (int i = 0; i < changed.size(); i++) {
+                    Device after = DeviceMapper.toDto(changed.get(i));
+                    this.eventPublisher.publishEvent(DeviceChangedEvent.updated(before.get(i), after));
+                    devices.add(after);
+                }
+                this.flushedUpdated.add(changed.size());
+                this.flushedUnchanged.add(devices.size() - changed.size());
+                return devices;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Flushing {} buffered device states failed, retrying with the next flush: {}", size, e.getMessage());
+            chunk.forEach(this::requeue);
+            return 0;
+        } catch (RuntimeException e) {
+            // Not a database failure, e.g. a listener that cannot handle the change; retrying would fail the same way.
+            log.error("Flushing {} buffered device states failed, dropping them", size, e);
+            this.flushedFailed.add(size);
+            chunk.values().forEach(pendingState -> pendingState.flushed.completeExceptionally(e));
+            return 0;
+        }
+
+        for (Device device : written) {
+            this.deviceCache.put(device.getId(), device);
+            chunk.remove(device.getId()).flushed.complete(device);
+        }
+        this.flushedNotFound.add(chunk.size());
+        chunk.forEach((id, pendingState) -> pendingState.flushed.completeExceptionally(new DeviceNotFoundException(id)));
+        return size;
+    }
+
+    /**
+     * Puts a state whose flush failed back into the buffer, unless the device has been written again since; then the
+     * newer state wins and its flush also acknowledges the failed one.
+     */
+    private void requeue(UUID id, PendingState failed) {
+        this.pending.merge(id, failed, (newer, ignored) -> {
+            newer.flushed.whenComplete((device, error) -> {
+                if (error != null) {
+                    failed.flushed.completeExceptionally(error);
+                } else {
+                    failed.flushed.complete(device);
+                }
+            });
+            return newer;
+        });
+    }
+
+    private Device awaitFlush(PendingState buffered) {
+        try {
+            return buffered.flushed.get(this.properties.ackTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void runFlusher() {
+        long intervalNanos = this.properties.flushInterval().toNanos();
+        while (this.running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Flushing buffered device states failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!this.properties.enabled() || this.running) {
+            return;
+        }
+        this.running = true;
+        this.flusher = Thread.ofPlatform().name("device-state-flusher").daemon().start(this::runFlusher);
+        log.info("Buffering device state writes, flushed every {}", this.properties.flushInterval());
+    }
+
+    @Override
+    public void stop() {
+        if (!this.running) {
+            return;
+        }
+        // New writes go straight to the database from here on; the flusher finishes its round, then the rest is flushed.
+        this.running = false;
+        LockSupport.unpark(this.flusher);
+        try {
+            this.flusher.join(this.properties.ackTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int flushed = flush();
+        if (flushed > 0) {
+            log.info("Flushed {} buffered device states on shutdown", flushed);
+        }
+        if (!this.pending.isEmpty()) {
+            log.error("{} buffered device states could not be written before shutdown", this.pending.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("device.state.buffer.pending", this, DeviceStateBuffer::getPendingCount)
+                .description("Devices with a buffered state not written yet")
+                .register(registry);
+        FunctionCounter.builder("device.state.buffer.writes", this.bufferedWrites, LongAdder::sum)
+                .description("State writes by how they were taken")
+                .tag("mode", "buffered")
+                .register(registry);
+        FunctionCounter.builder("device.state.buffer.writes", this.writtenThrough, LongAdder::sum)
+                .description("State writes by how they were taken")
+                .tag("mode", "write_through")
+                .register(registry);
+        bindFlushed(registry, "updated", this.flushedUpdated);
+        bindFlushed(registry, "unchanged", this.flushedUnchanged);
+        bindFlushed(registry, "not_found", this.flushedNotFound);
+        bindFlushed(registry, "failed", this.flushedFailed);
+    }
+
+    private static void bindFlushed(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder("device.state.buffer.flushed", count, LongAdder::sum)
+                .description("Buffered device states flushed, by result; writes coalesced away are not counted")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * The latest state buffered for one device, and the acknowledgement shared by every write coalesced into it.
+     */
+    private static final class PendingState {
+
+        private volatile DeviceState state;
+
+        private final CompletableFuture<Device> flushed = new CompletableFuture<>();
+
+        private PendingState(DeviceState state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceCount;
+import com.example.device.dto.DeviceStats;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.event.DevicesImportedEvent;
+import com.example.device.repository.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps device counts per brand and state in memory so the stats endpoint never has to scan the table. Counters
+ * follow every committed {@link DeviceChangedEvent} and are periodically replaced by a {@code GROUP BY} over the
+ * table, which corrects drift from writes made by other instances or missed events.
+ */
+@Slf4j
+@Service
+public class DeviceStatsService {
+
+    private final DeviceRepository deviceRepository;
+
+    private final AtomicReference<ConcurrentMap<BrandState, LongAdder>> counters = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    private volatile Instant reconciledAt;
+
+    public DeviceStatsService(DeviceRepository deviceRepository) {
+        this.deviceRepository = deviceRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        BrandState before = BrandState.of(event.before());
+        BrandState after = BrandState.of(event.after());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            counter(before).decrement();
+        }
+        if (after != null) {
+            counter(after).increment();
+        }
+    }
+
+    /**
+     * Imports bypass the change events, so their devices are only counted by a reconcile, run in the background.
+     */
+    @Async
+    @EventListener
+    public void onDevicesImported(DevicesImportedEvent event) {
+        reconcile();
+    }
+
+    public DeviceStats getStats() {
+        long total = 0;
+        Map<DeviceState, Long> byState = new EnumMap<>(DeviceState.class);
+        Map<String, Long> byBrand = new TreeMap<>();
+        Map<String, Map<DeviceState, Long>> byBrandAndState = new TreeMap<>();
+
+        for (Map.Entry<BrandState, LongAdder> entry : this.counters.get().entrySet()) {
+            long count = entry.getValue().sum();
+            if (count <= 0) {
+                continue;
+            }
+            BrandState key = entry.getKey();
+            total += count;
+            byBrand.merge(key.brand(), count, Long::sum);
+            if (key.state() != null) {
+                byState.merge(key.state(), count, Long::sum);
+                byBrandAndState.computeIfAbsent(key.brand(), brand -> new EnumMap<>(DeviceState.class))
+                        .merge(key.state(), count, Long::sum);
+            }
+        }
+
+        return DeviceStats.builder()
+                .total(total)
+                .byState(byState)
+                .byBrand(byBrand)
+                .byBrandAndState(byBrandAndState)
+                .reconciledAt(this.reconciledAt)
+                .build();
+    }
+
+    /**
+     * Replaces the counters with a fresh {@code GROUP BY brand, state}. Runs once at startup and then every
+     * {@code device.stats.reconcile-interval}. Events applied while the query runs may be lost; the next run picks
+     * them up.
+     */
+    @Scheduled(fixedDelayString = "${device.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        List<DeviceCount> counts = this.deviceRepository.countByBrandAndState();
+
+        ConcurrentMap<BrandState, LongAdder> fresh = new ConcurrentHashMap<>(counts.size() * 2);
+        for (DeviceCount count : counts) {
+            LongAdder adder = new LongAdder();
+            adder.add(count.getCount());
+            fresh.put(new BrandState(count.getBrand(), count.getState()), adder);
+        }
+
+        this.counters.set(fresh);
+        this.reconciledAt = Instant.now();
+        log.debug("Reconciled device stats: {} brand/state combinations", fresh.size());
+    }
+
+    private LongAdder counter(BrandState key) {
+        return this.counters.get().computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private record BrandState(String brand, DeviceState state) {
+
+        static BrandState of(Device device) {
+            return device == null ? null : new BrandState(device.getBrand(), device.getState());
+        }
+    }
+}
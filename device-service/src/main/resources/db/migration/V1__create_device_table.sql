@@ -0,0 +1,8 @@
+-- Databases created earlier by hibernate ddl-auto already have this table; they are baselined at this version.
+CREATE TABLE IF NOT EXISTS device (
+    id         UUID PRIMARY KEY,
+    name       VARCHAR(50) NOT NULL,
+    brand      VARCHAR(50) NOT NULL,
+    state      VARCHAR(20),
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP
+);
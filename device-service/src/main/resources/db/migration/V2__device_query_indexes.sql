@@ -0,0 +1,15 @@
+-- Keep this list in sync with DeviceIndexVerifier.REQUIRED_INDEXES.
+
+-- GET /device/v1/page and /stream: keyset order on (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_device_created_at_id ON device (created_at, id);
+
+-- GET /device/v1/brand/{brand}; the second column also covers brand + state filters
+CREATE INDEX IF NOT EXISTS idx_device_brand_state ON device (brand, state);
+
+-- Case-insensitive brand filters, optionally combined with state
+CREATE INDEX IF NOT EXISTS idx_device_brand_lower_state ON device (lower(brand), state);
+
+-- GET /device/v1/state/{state}, returned in keyset order.
+-- A full index rather than one partial index per state: the state is a bind parameter, and once the
+-- driver switches to a generic plan Postgres can no longer match it against a partial index predicate.
+CREATE INDEX IF NOT EXISTS idx_device_state_created_at_id ON device (state, created_at, id);
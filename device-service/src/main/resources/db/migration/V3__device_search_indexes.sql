@@ -0,0 +1,7 @@
+-- Keep this list in sync with DeviceIndexVerifier.REQUIRED_INDEXES.
+
+-- GET /device/v1/search?namePrefix=: left-anchored LIKE, independent of the database collation
+CREATE INDEX IF NOT EXISTS idx_device_name_pattern ON device (name varchar_pattern_ops);
+
+-- GET /device/v1/search?sort=NAME: ordered keyset scan on (name, id)
+CREATE INDEX IF NOT EXISTS idx_device_name_id ON device (name, id);
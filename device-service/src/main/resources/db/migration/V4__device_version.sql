@@ -0,0 +1,2 @@
+-- Optimistic-locking version, bumped by every update including the state-transition UPDATE.
+ALTER TABLE device ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
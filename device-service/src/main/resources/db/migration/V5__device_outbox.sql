@@ -0,0 +1,19 @@
+-- Transactional outbox of device changes, written in the same transaction as the change itself.
+-- event_offset stays NULL until DeviceOutboxRelay publishes the row. Offsets come from a single sequence
+-- under an advisory lock, so they become visible in increasing order and consumers can resume after one.
+CREATE TABLE IF NOT EXISTS device_outbox (
+    id           UUID PRIMARY KEY,
+    event_offset BIGINT,
+    event_type   VARCHAR(20)  NOT NULL,
+    device_id    UUID         NOT NULL,
+    payload      JSONB        NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE SEQUENCE IF NOT EXISTS device_event_offset_seq;
+
+-- Relay: rows still waiting for an offset, in insertion (UUIDv7) order
+CREATE INDEX IF NOT EXISTS idx_device_outbox_pending ON device_outbox (id) WHERE event_offset IS NULL;
+
+-- GET /device/v1/events: tail and replay by offset
+CREATE UNIQUE INDEX IF NOT EXISTS idx_device_outbox_offset ON device_outbox (event_offset);
@@ -0,0 +1,40 @@
+-- When the device last changed state, kept by a trigger so that every write path (JPA, the native transition and
+-- batch UPDATEs, COPY import, the reactive service) maintains it. Existing rows count from the migration.
+ALTER TABLE device ADD COLUMN IF NOT EXISTS state_changed_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE OR REPLACE FUNCTION device_track_state_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' OR NEW.state IS DISTINCT FROM OLD.state THEN
+        NEW.state_changed_at := CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS device_state_changed_at ON device;
+CREATE TRIGGER device_state_changed_at
+    BEFORE INSERT OR UPDATE OF state ON device
+    FOR EACH ROW EXECUTE FUNCTION device_track_state_change();
+
+-- Keep this list in sync with DeviceIndexVerifier.REQUIRED_INDEXES.
+
+-- DeviceArchiver: inactive devices in the order they went inactive. The state is a literal in that query,
+-- so the partial index matches it, and it only holds the inactive rows.
+CREATE INDEX IF NOT EXISTS idx_device_inactive_since ON device (state_changed_at) WHERE state = 'INACTIVE';
+
+-- Devices moved out of the device table by DeviceArchiver. Partitioned by month of archival; DeviceArchiver creates
+-- each month's partition before moving rows into it and drops whole partitions once they are past the retention.
+CREATE TABLE IF NOT EXISTS device_archive (
+    id               UUID         NOT NULL,
+    name             VARCHAR(50)  NOT NULL,
+    brand            VARCHAR(50)  NOT NULL,
+    state            VARCHAR(20),
+    created_at       TIMESTAMP(6),
+    version          BIGINT       NOT NULL,
+    state_changed_at TIMESTAMP(6) NOT NULL,
+    archived_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, archived_at)
+) PARTITION BY RANGE (archived_at);
+
+-- GET /device/v1/brand/{brand}?includeArchived=true; lookups by id use the primary key.
+CREATE INDEX IF NOT EXISTS idx_device_archive_brand ON device_archive (brand);
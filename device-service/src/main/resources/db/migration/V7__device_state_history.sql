@@ -0,0 +1,57 @@
+-- Append-only log of device state changes: one row per created device, state change and removed (deleted or
+-- archived) device, written by a trigger in the transaction that made the change, whichever path made it.
+-- previous_state lets a window be evaluated from the changes inside it: the state a device was in at the start
+-- of the window is the previous_state of its first change after that, or its current state if it has none.
+-- A NULL state means the device did not exist (or had no state) from that point on. changed_at is the time of the
+-- transaction, so seq orders the changes a single transaction makes to one device.
+CREATE TABLE IF NOT EXISTS device_state_history (
+    seq            BIGINT       GENERATED ALWAYS AS IDENTITY,
+    device_id      UUID         NOT NULL,
+    previous_state VARCHAR(20),
+    state          VARCHAR(20),
+    changed_at     TIMESTAMP(6) NOT NULL
+);
+
+-- Rows arrive in time order, so a BRIN index on the time is a few pages however long the log gets.
+-- GET /device/v1/stats/utilization: the changes since the start of the window
+CREATE INDEX IF NOT EXISTS idx_device_state_history_changed_at ON device_state_history USING brin (changed_at);
+
+-- GET /device/v1/id/{id}/history: one device's changes in time order
+CREATE INDEX IF NOT EXISTS idx_device_state_history_device ON device_state_history (device_id, changed_at);
+
+-- Uses the state_changed_at the V6 trigger has just set, so the log and the device row agree on the time.
+CREATE OR REPLACE FUNCTION device_record_state_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_state_history (device_id, previous_state, state, changed_at) VALUES (NEW.id, NULL, NEW.state, NEW.state_changed_at);
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.state IS DISTINCT FROM OLD.state THEN
+            INSERT INTO device_state_history (device_id, previous_state, state, changed_at) VALUES (NEW.id, OLD.state, NEW.state, NEW.state_changed_at);
+        END IF;
+    ELSE
+        INSERT INTO device_state_history (device_id, previous_state, state, changed_at) VALUES (OLD.id, OLD.state, NULL, CURRENT_TIMESTAMP);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS device_state_history ON device;
+CREATE TRIGGER device_state_history
+    AFTER INSERT OR UPDATE OF state OR DELETE ON device
+    FOR EACH ROW EXECUTE FUNCTION device_record_state_change();
+
+CREATE OR REPLACE FUNCTION device_state_history_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'device_state_history is append-only';
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS device_state_history_append_only ON device_state_history;
+CREATE TRIGGER device_state_history_append_only
+    BEFORE UPDATE OR DELETE ON device_state_history
+    FOR EACH ROW EXECUTE FUNCTION device_state_history_append_only();
+
+-- The log starts with the devices as they are now.
+INSERT INTO device_state_history (device_id, previous_state, state, changed_at)
+SELECT id, NULL, state, state_changed_at FROM device
+WHERE NOT EXISTS (SELECT 1 FROM device_state_history);
@@ -0,0 +1,44 @@
+package com.example.device.config;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.id.DeviceIdGenerator;
+import com.example.device.proto.DeviceProto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new DeviceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testDtoConstructorAndAccessorsAreReflective() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(Device.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Device.class.getMethod("getState")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(DeviceEvent.class.getMethod("getDevice")).test(hints));
+    }
+
+    @Test
+    void testEntityFieldsAndIdGeneratorAreReflective() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onField(DeviceEntity.class.getDeclaredField("version")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(DeviceIdGenerator.class.getConstructor()).test(hints));
+    }
+
+    @Test
+    void testProtobufAccessorsAndMigrationsAreRegistered() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DeviceProto.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_device_table.sql").test(hints));
+    }
+}
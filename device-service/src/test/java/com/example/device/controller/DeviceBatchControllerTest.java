@@ -0,0 +1,93 @@
+package com.example.device.controller;
+
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.service.DeviceBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceBatchController.class)
+class DeviceBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DeviceBatchService deviceBatchService;
+
+    @Test
+    void testSaveDevices_jsonArray() throws Exception {
+        Device device = Device.builder().name("Watch").brand("Garmin").state(DeviceState.AVAILABLE).build();
+        when(deviceBatchService.saveDevices(any())).thenReturn(List.of(
+                BatchItemResult.builder().index(0).id(UUID.randomUUID()).status(201).device(device).build()));
+
+        mockMvc.perform(post("/device/v1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(device))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].device.name").value("Watch"));
+    }
+
+    @Test
+    void testSaveDevices_ndjson() throws Exception {
+        List<Device> received = new ArrayList<>();
+        when(deviceBatchService.saveDevices(any())).thenAnswer(invocation -> {
+            Iterator<Device> devices = invocation.getArgument(0);
+            devices.forEachRemaining(received::add);
+            return List.of();
+        });
+
+        mockMvc.perform(post("/device/v1/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Watch\",\"brand\":\"Garmin\"}\n{\"name\":\"Phone\",\"brand\":\"Apple\"}\n"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, received.size());
+        assertEquals("Phone", received.get(1).getName());
+    }
+
+    @Test
+    void testDeleteDevices_ndjson() throws Exception {
+        UUID id = UUID.randomUUID();
+        List<UUID> received = new ArrayList<>();
+        when(deviceBatchService.deleteDevices(any())).thenAnswer(invocation -> {
+            Iterator<UUID> ids = invocation.getArgument(0);
+            ids.forEachRemaining(received::add);
+            return List.of(BatchItemResult.builder().index(0).id(id).status(200).build());
+        });
+
+        mockMvc.perform(delete("/device/v1/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("\"" + id + "\"\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200));
+
+        assertEquals(List.of(id), received);
+    }
+}
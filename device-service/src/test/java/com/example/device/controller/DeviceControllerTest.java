@@ -0,0 +1,478 @@
+package com.example.device.controller;
+
+import com.example.device.converter.DeviceProtobufHttpMessageConverter;
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.dto.DeviceStateTransition;
+import com.example.device.dto.DeviceStateUpdate;
+import com.example.device.dto.WriteAck;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.proto.DeviceListProto;
+import com.example.device.proto.DeviceProto;
+import com.example.device.proto.DeviceStateProto;
+import com.example.device.service.DeviceService;
+import com.example.device.service.DeviceStateBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceController.class)
+class DeviceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private DeviceService deviceService;
+
+    @MockBean
+    private DeviceStateBuffer deviceStateBuffer;
+
+    private Device device;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        deviceId = UUID.randomUUID();
+        device = Device.builder()
+                .id(deviceId)
+                .name("Watch")
+                .brand("Garmin")
+                .state(DeviceState.AVAILABLE)
+                .build();
+    }
+
+    @Test
+    void testCreateDevice() throws Exception {
+        when(deviceService.saveDevice(any(Device.class))).thenReturn(device);
+
+        mockMvc.perform(post("/device/v1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(device)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("Watch"))
+                .andExpect(jsonPath("$.brand").value("Garmin"));
+    }
+
+    @Test
+    void testCreateDevice_invalid() throws Exception {
+        when(deviceService.saveDevice(any(Device.class)))
+                .thenThrow(new InvalidDeviceException("Device brand is required and must be at most 50 characters"));
+
+        mockMvc.perform(post("/device/v1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Watch\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("urn:device-service:problem:invalid-device"))
+                .andExpect(jsonPath("$.detail").value("Device brand is required and must be at most 50 characters"));
+    }
+
+    @Test
+    void testGetDeviceById() throws Exception {
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+
+        mockMvc.perform(get("/device/v1/id/" + deviceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Watch"))
+                .andExpect(jsonPath("$.brand").value("Garmin"));
+    }
+
+    @Test
+    void testGetAllDevices() throws Exception {
+        List<Device> devices = Collections.singletonList(device);
+        when(deviceService.findAll()).thenReturn(devices);
+
+        mockMvc.perform(get("/device/v1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Watch"));
+    }
+
+    @Test
+    void testGetAllDevicesAsProtobuf() throws Exception {
+        device.setVersion(2L);
+        when(deviceService.findAll()).thenReturn(List.of(device));
+
+        byte[] body = mockMvc.perform(get("/device/v1").accept(DeviceProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceProtobufHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        DeviceProto proto = DeviceListProto.parseFrom(body).getDevices(0);
+        assertEquals(new UUID(proto.getIdMsb(), proto.getIdLsb()), deviceId);
+        assertEquals(DeviceStateProto.AVAILABLE, proto.getState());
+        assertEquals(2L, proto.getVersion());
+    }
+
+    @Test
+    void testGetDeviceByIdAsCbor() throws Exception {
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+
+        byte[] body = mockMvc.perform(get("/device/v1/id/" + deviceId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(device, new CBORMapper().findAndRegisterModules().readValue(body, Device.class));
+    }
+
+    @Test
+    void testGetAllDevicesDefaultsToJson() throws Exception {
+        when(deviceService.findAll()).thenReturn(List.of(device));
+
+        mockMvc.perform(get("/device/v1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testGetDevicePage() throws Exception {
+        DevicePage page = DevicePage.builder()
+                .items(Collections.singletonList(device))
+                .nextCursor("next")
+                .build();
+        when(deviceService.findPage("abc", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/device/v1/page").param("cursor", "abc").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Watch"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAllDevices() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(0);
+            consumer.accept(device);
+            consumer.accept(device);
+            return null;
+        }).when(deviceService).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/device/v1/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expectedLine = objectMapper.writeValueAsString(device) + "\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedLine + expectedLine));
+    }
+
+    @Test
+    void testSearchDevices() throws Exception {
+        DevicePage page = DevicePage.builder().items(Collections.singletonList(device)).build();
+        ArgumentCaptor<DeviceSearchRequest> request = ArgumentCaptor.forClass(DeviceSearchRequest.class);
+        when(deviceService.search(request.capture(), isNull(), eq(50))).thenReturn(page);
+
+        mockMvc.perform(get("/device/v1/search")
+                        .param("brand", "garmin")
+                        .param("state", "AVAILABLE", "IN_USE")
+                        .param("namePrefix", "Wa")
+                        .param("createdFrom", "2025-01-01T00:00:00")
+                        .param("sort", "NAME")
+                        .param("direction", "DESC")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Watch"));
+
+        assertEquals("garmin", request.getValue().getBrand());
+        assertEquals(Set.of(DeviceState.AVAILABLE, DeviceState.IN_USE), request.getValue().getStates());
+        assertEquals("Wa", request.getValue().getNamePrefix());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), request.getValue().getCreatedFrom());
+        assertEquals(DeviceSortField.NAME, request.getValue().getSort());
+        assertEquals(Sort.Direction.DESC, request.getValue().getDirection());
+    }
+
+    @Test
+    void testSearchDevices_invalidState() throws Exception {
+        mockMvc.perform(get("/device/v1/search").param("state", "BROKEN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetDevicesByBrand() throws Exception {
+        List<Device> devices = Collections.singletonList(device);
+        when(deviceService.findAllDevicesByBrand("Garmin")).thenReturn(devices);
+
+        mockMvc.perform(get("/device/v1/brand/Garmin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].brand").value("Garmin"));
+    }
+
+    @Test
+    void testGetDevicesByState() throws Exception {
+        List<Device> devices = Collections.singletonList(device);
+        when(deviceService.findAllDevicesByState(DeviceState.AVAILABLE)).thenReturn(devices);
+
+        mockMvc.perform(get("/device/v1/state/AVAILABLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].state").value("AVAILABLE"));
+    }
+
+    @Test
+    void testGetDevicesByStateIncludingArchived() throws Exception {
+        List<Device> devices = Collections.singletonList(device);
+        when(deviceService.findAllDevicesByStateIncludingArchived(DeviceState.AVAILABLE)).thenReturn(devices);
+
+        mockMvc.perform(get("/device/v1/state/AVAILABLE").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].state").value("AVAILABLE"));
+
+        verify(deviceService, never()).findAllDevicesByState(any());
+    }
+
+    @Test
+    void testUpdateDevice() throws Exception {
+        Device updatedDevice = Device.builder()
+                .id(deviceId)
+                .name("Watch")
+                .brand("Garmin")
+                .state(DeviceState.IN_USE)
+                .build();
+
+        when(deviceService.updateDevice(any(Device.class), isNull())).thenReturn(updatedDevice);
+
+        mockMvc.perform(patch("/device/v1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedDevice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("IN_USE"));
+    }
+
+    @Test
+    void testGetDeviceByIdReturnsVersionETag() throws Exception {
+        device.setVersion(3L);
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+
+        mockMvc.perform(get("/device/v1/id/" + deviceId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void testGetDeviceByIdNotModified() throws Exception {
+        device.setVersion(3L);
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+
+        mockMvc.perform(get("/device/v1/id/" + deviceId).header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetAllDevicesNotModifiedUntilAVersionChanges() throws Exception {
+        device.setVersion(1L);
+        when(deviceService.findAll()).thenReturn(List.of(device));
+
+        String eTag = mockMvc.perform(get("/device/v1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().string("ETag", startsWith("W/\"")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/device/v1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        device.setVersion(2L);
+        mockMvc.perform(get("/device/v1").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].version").value(2));
+    }
+
+    @Test
+    void testGetDevicePageETagCoversCursor() throws Exception {
+        device.setVersion(1L);
+        when(deviceService.findPage(null, 100)).thenReturn(DevicePage.builder().items(List.of(device)).nextCursor("a").build());
+        String first = mockMvc.perform(get("/device/v1/page")).andReturn().getResponse().getHeader("ETag");
+
+        when(deviceService.findPage(null, 100)).thenReturn(DevicePage.builder().items(List.of(device)).build());
+        mockMvc.perform(get("/device/v1/page").header("If-None-Match", first))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUpdateDeviceWithIfMatch() throws Exception {
+        Device updatedDevice = Device.builder()
+                .id(deviceId)
+                .state(DeviceState.IN_USE)
+                .version(4L)
+                .build();
+        when(deviceService.updateDevice(any(Device.class), eq(3L))).thenReturn(updatedDevice);
+
+        mockMvc.perform(patch("/device/v1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedDevice)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"4\""));
+    }
+
+    @Test
+    void testUpdateDeviceWithStaleIfMatch() throws Exception {
+        when(deviceService.updateDevice(any(Device.class), eq(2L)))
+                .thenThrow(new DeviceVersionMismatchException("Device is at version 3, not 2"));
+
+        mockMvc.perform(patch("/device/v1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(device)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdateDeviceWithUnknownIfMatch() throws Exception {
+        mockMvc.perform(patch("/device/v1")
+                        .header("If-Match", "\"not-a-version\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(device)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(deviceService, never()).updateDevice(any(), any());
+    }
+
+    @Test
+    void testTransitionState() throws Exception {
+        Device inUse = Device.builder()
+                .id(deviceId)
+                .state(DeviceState.IN_USE)
+                .version(1L)
+                .build();
+        when(deviceService.transitionState(deviceId, DeviceState.AVAILABLE, DeviceState.IN_USE)).thenReturn(inUse);
+
+        mockMvc.perform(post("/device/v1/id/" + deviceId + "/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceStateTransition(DeviceState.AVAILABLE, DeviceState.IN_USE))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1\""))
+                .andExpect(jsonPath("$.state").value("IN_USE"));
+    }
+
+    @Test
+    void testTransitionStateConflict() throws Exception {
+        when(deviceService.transitionState(deviceId, DeviceState.AVAILABLE, DeviceState.IN_USE))
+                .thenThrow(new DeviceStateConflictException("Device is IN_USE, not AVAILABLE"));
+
+        mockMvc.perform(post("/device/v1/id/" + deviceId + "/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceStateTransition(DeviceState.AVAILABLE, DeviceState.IN_USE))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testGetDeviceByIdNotFoundCountsError() throws Exception {
+        when(deviceService.getDeviceById(deviceId)).thenThrow(new DeviceNotFoundException("Device not found: " + deviceId));
+        double before = notFoundErrors();
+
+        mockMvc.perform(get("/device/v1/id/" + deviceId))
+                .andExpect(status().isNotFound());
+
+        assertEquals(before + 1, notFoundErrors());
+    }
+
+    @Test
+    void testGetDeviceByIdNotFoundReturnsProblemDetails() throws Exception {
+        when(deviceService.getDeviceById(deviceId)).thenThrow(new DeviceNotFoundException(deviceId));
+
+        mockMvc.perform(get("/device/v1/id/" + deviceId).accept(DeviceProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("urn:device-service:problem:device-not-found"))
+                .andExpect(jsonPath("$.title").value("Device not found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Device not found: " + deviceId));
+    }
+
+    @Test
+    void testArgumentTypeMismatchDetailIsEscaped() throws Exception {
+        mockMvc.perform(get("/device/v1/id/not\"a-uuid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Invalid value for id: not\"a-uuid"));
+    }
+
+    @Test
+    void testSetState_bufferedIsAccepted() throws Exception {
+        when(deviceStateBuffer.setState(deviceId, DeviceState.IN_USE, null)).thenReturn(null);
+
+        mockMvc.perform(put("/device/v1/id/" + deviceId + "/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceStateUpdate(DeviceState.IN_USE))))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testSetState_flushedReturnsDevice() throws Exception {
+        device.setState(DeviceState.IN_USE);
+        device.setVersion(4L);
+        when(deviceStateBuffer.setState(deviceId, DeviceState.IN_USE, WriteAck.FLUSHED)).thenReturn(device);
+
+        mockMvc.perform(put("/device/v1/id/" + deviceId + "/state?ack=FLUSHED")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceStateUpdate(DeviceState.IN_USE))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"4\""))
+                .andExpect(jsonPath("$.state").value("IN_USE"));
+    }
+
+    @Test
+    void testDeleteDevice() throws Exception {
+        doNothing().when(deviceService).deleteDeviceById(deviceId);
+
+        mockMvc.perform(delete("/device/v1/id/" + deviceId))
+                .andExpect(status().isOk());
+    }
+
+    private double notFoundErrors() {
+        return meterRegistry.counter("device.errors", "exception", "DeviceNotFoundException", "status", "404").count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.device.controller;
+
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.exception.InvalidImportException;
+import com.example.device.service.DeviceCopyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceCopyController.class)
+class DeviceCopyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeviceCopyService deviceCopyService;
+
+    @Test
+    void testImportCsv_readsTheBodyAsUtf8() throws Exception {
+        StringWriter received = new StringWriter();
+        when(deviceCopyService.importCsv(any(Reader.class))).thenAnswer(invocation -> {
+            invocation.<Reader>getArgument(0).transferTo(received);
+            return DeviceImportResult.builder()
+                    .received(2)
+                    .imported(1)
+                    .rejected(1)
+                    .rejections(List.of(BatchItemResult.builder().index(1).status(400).message("Unknown state: X").build()))
+                    .build();
+        });
+        String csv = "name,brand,state\nTéléphone,Apple,AVAILABLE\nWatch,Garmin,X\n";
+
+        mockMvc.perform(post("/device/v1/import")
+                        .contentType(DeviceCopyController.TEXT_CSV)
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejections[0].index").value(1))
+                .andExpect(jsonPath("$.rejections[0].message").value("Unknown state: X"));
+
+        assertEquals(csv, received.toString());
+    }
+
+    @Test
+    void testImportNdjson_invalidImportIsProblem() throws Exception {
+        when(deviceCopyService.importNdjson(any(Reader.class))).thenThrow(new InvalidImportException("Bad import"));
+
+        mockMvc.perform(post("/device/v1/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("urn:device-service:problem:invalid-import"))
+                .andExpect(jsonPath("$.detail").value("Bad import"));
+    }
+
+    @Test
+    void testExport_csvByDefault() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("id,name\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(deviceCopyService).exportCsv(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/device/v1/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceCopyController.TEXT_CSV))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=devices.csv"))
+                .andExpect(content().string("id,name\n"));
+    }
+
+    @Test
+    void testExport_ndjsonWhenPreferred() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(deviceCopyService).exportNdjson(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/device/v1/export")
+                        .header(HttpHeaders.ACCEPT, "text/csv;q=0.5, application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{}\n"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.device.controller;
+
+import com.example.device.service.DeviceEventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceEventController.class)
+class DeviceEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeviceEventService deviceEventService;
+
+    @Test
+    void testStreamEvents_resumesAfterLastEventId() throws Exception {
+        when(deviceEventService.subscribe(42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/device/v1/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(DeviceEventController.LAST_EVENT_ID, "42")
+                        .param("after", "7"))
+                .andExpect(request().asyncStarted());
+
+        verify(deviceEventService).subscribe(42L);
+    }
+
+    @Test
+    void testStreamEvents_withoutOffsetStartsAtLatest() throws Exception {
+        when(deviceEventService.subscribe(-1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/device/v1/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(deviceEventService).subscribe(-1L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.device.controller;
+
+import com.example.device.dto.DeviceStateInterval;
+import com.example.device.dto.DeviceTimeline;
+import com.example.device.dto.DeviceUtilization;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.InvalidTimeWindowException;
+import com.example.device.service.DeviceHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceHistoryController.class)
+class DeviceHistoryControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 2, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeviceHistoryService deviceHistoryService;
+
+    @Test
+    void testGetTimeline() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceHistoryService.getTimeline(id, FROM, TO)).thenReturn(DeviceTimeline.builder()
+                .id(id)
+                .from(FROM)
+                .to(TO)
+                .intervals(List.of(new DeviceStateInterval(DeviceState.IN_USE, FROM, TO)))
+                .secondsInState(Map.of(DeviceState.IN_USE, 86400.0))
+                .build());
+
+        mockMvc.perform(get("/device/v1/id/" + id + "/history")
+                        .param("from", "2026-01-01T00:00:00")
+                        .param("to", "2026-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervals[0].state").value("IN_USE"))
+                .andExpect(jsonPath("$.secondsInState.IN_USE").value(86400.0));
+    }
+
+    @Test
+    void testGetTimeline_invalidWindowIsProblem() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceHistoryService.getTimeline(id, TO, FROM)).thenThrow(new InvalidTimeWindowException("Bad window"));
+
+        mockMvc.perform(get("/device/v1/id/" + id + "/history")
+                        .param("from", "2026-01-02T00:00:00")
+                        .param("to", "2026-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("urn:device-service:problem:invalid-parameter"))
+                .andExpect(jsonPath("$.detail").value("Bad window"));
+    }
+
+    @Test
+    void testGetUtilization_defaultWindow() throws Exception {
+        when(deviceHistoryService.getUtilization(isNull(), isNull())).thenReturn(DeviceUtilization.builder()
+                .from(FROM)
+                .to(TO)
+                .secondsInState(Map.of(DeviceState.IN_USE, 30.0, DeviceState.AVAILABLE, 70.0))
+                .utilization(0.3)
+                .build());
+
+        mockMvc.perform(get("/device/v1/stats/utilization"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.utilization").value(0.3))
+                .andExpect(jsonPath("$.secondsInState.AVAILABLE").value(70.0));
+    }
+}
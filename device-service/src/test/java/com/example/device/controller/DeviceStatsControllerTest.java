@@ -0,0 +1,47 @@
+package com.example.device.controller;
+
+import com.example.device.dto.DeviceStats;
+import com.example.device.entity.DeviceState;
+import com.example.device.service.DeviceStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(DeviceStatsController.class)
+class DeviceStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeviceStatsService deviceStatsService;
+
+    @Test
+    void testGetStats() throws Exception {
+        when(deviceStatsService.getStats()).thenReturn(DeviceStats.builder()
+                .total(3)
+                .byState(Map.of(DeviceState.AVAILABLE, 2L, DeviceState.IN_USE, 1L))
+                .byBrand(Map.of("Apple", 3L))
+                .byBrandAndState(Map.of("Apple", Map.of(DeviceState.AVAILABLE, 2L, DeviceState.IN_USE, 1L)))
+                .build());
+
+        mockMvc.perform(get("/device/v1/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byState.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.byBrandAndState.Apple.IN_USE").value(1));
+    }
+}
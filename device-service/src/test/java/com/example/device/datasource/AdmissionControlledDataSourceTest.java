@@ -0,0 +1,121 @@
+package com.example.device.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlledDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void testPermitReturnedOnceWhenConnectionClosed() throws SQLException {
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 2, 0, Duration.ZERO);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        connection.close();
+        connection.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testRejectsImmediatelyWhenQueueIsFull() throws SQLException {
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 1, 0, Duration.ofSeconds(5));
+        dataSource.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void testTimesOutWaitingForPermit() throws SQLException {
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 1, 10, Duration.ofMillis(50));
+        dataSource.getConnection();
+
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getWaiting());
+    }
+
+    @Test
+    void testQueuedCallerAdmittedWhenConnectionClosed() throws Exception {
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 1, 10, Duration.ofSeconds(5));
+        Connection first = dataSource.getConnection();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        started.await();
+        first.close();
+
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testWrapperHasItsOwnIdentityAndUnwrapsToThePooledConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(targetDataSource.getConnection()).thenReturn(pooled);
+        when(pooled.unwrap(Savepoint.class)).thenReturn(mock(Savepoint.class));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 2, 0, Duration.ZERO);
+
+        Connection connection = dataSource.getConnection();
+
+        assertEquals(connection, connection);
+        assertNotEquals(connection, pooled);
+        assertNotEquals(connection, dataSource.getConnection());
+        assertEquals(System.identityHashCode(connection), connection.hashCode());
+        assertSame(connection, connection.unwrap(Connection.class));
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertNotNull(connection.unwrap(Savepoint.class));
+        verify(pooled, never()).unwrap(Connection.class);
+    }
+
+    @Test
+    void testPermitReturnedWhenPoolFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(targetDataSource, 1, 0, Duration.ZERO);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.device.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void testWriteSetsCookieAndPinsRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean pinned = pinnedDuring(new MockHttpServletRequest("PATCH", "/device/v1"), response);
+
+        assertTrue(pinned);
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertEquals(5, cookie.getMaxAge());
+        assertFalse(ReadYourWrites.isPinnedToPrimary());
+    }
+
+    @Test
+    void testReadWithCookieIsPinned() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/device/v1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(pinnedDuring(request, response));
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    @Test
+    void testReadWithHeaderIsPinned() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/device/v1");
+        request.addHeader(ReadYourWritesFilter.HEADER_NAME, "true");
+
+        assertTrue(pinnedDuring(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void testReadWithoutCookieIsNotPinned() throws Exception {
+        assertFalse(pinnedDuring(new MockHttpServletRequest("GET", "/device/v1"), new MockHttpServletResponse()));
+    }
+
+    private boolean pinnedDuring(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                pinned.set(ReadYourWrites.isPinnedToPrimary());
+            }
+        });
+        return pinned.get();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.device.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesTaskDecoratorTest {
+
+    private final ReadYourWritesTaskDecorator decorator = new ReadYourWritesTaskDecorator();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testTaskSubmittedByPinnedThreadIsPinned() throws Exception {
+        ReadYourWrites.pinToPrimary();
+        CompletableFuture<Boolean> pinned = new CompletableFuture<>();
+        Runnable task = decorator.decorate(() -> pinned.complete(ReadYourWrites.isPinnedToPrimary()));
+
+        executor.submit(task).get();
+
+        assertTrue(pinned.get());
+        assertFalse(executor.submit(ReadYourWrites::isPinnedToPrimary).get());
+    }
+
+    @Test
+    void testTaskSubmittedByUnpinnedThreadIsNotPinned() throws Exception {
+        CompletableFuture<Boolean> pinned = new CompletableFuture<>();
+        Runnable task = decorator.decorate(() -> pinned.complete(ReadYourWrites.isPinnedToPrimary()));
+
+        executor.submit(task).get();
+
+        assertFalse(pinned.get());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.device.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica0;
+
+    @Mock
+    private DataSource replica1;
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replica0Connection = mock(Connection.class);
+
+    private final Connection replica1Connection = mock(Connection.class);
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica0.getConnection()).thenReturn(replica0Connection);
+        lenient().when(replica1.getConnection()).thenReturn(replica1Connection);
+        dataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica0, "replica-1", replica1),
+                Duration.ofSeconds(1));
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void testReadsGoToPrimaryUntilReplicasAreChecked() throws SQLException {
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testReadsAlternateBetweenReplicasWithinMaxLag() throws SQLException {
+        lag(replica0Connection, 0L);
+        lag(replica1Connection, 200L);
+        dataSource.checkReplicas();
+
+        assertEquals(List.of("replica-0", "replica-1"), dataSource.getAvailableReplicas().stream().sorted().toList());
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(Set.of(replica0Connection, replica1Connection), Set.of(first, second));
+    }
+
+    @Test
+    void testLaggingOrUnreachableReplicaIsSkipped() throws SQLException {
+        lag(replica0Connection, 5_000L);
+        Statement failing = mock(Statement.class);
+        when(replica1Connection.createStatement()).thenReturn(failing);
+        when(failing.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenThrow(new SQLException("connection refused"));
+        dataSource.checkReplicas();
+
+        assertEquals(List.of(), dataSource.getAvailableReplicas());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testReadYourWritesPinsToPrimary() throws SQLException {
+        lag(replica0Connection, 0L);
+        lag(replica1Connection, 0L);
+        dataSource.checkReplicas();
+
+        ReadYourWrites.pinToPrimary();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    private static void lag(Connection connection, Long lagMillis) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMillis);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.device.handler;
+
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientErrorLogTest {
+
+    @Test
+    void testLogsAtMostPerSecondLinesPerExceptionType() {
+        ClientErrorLog clientErrorLog = new ClientErrorLog(2);
+        long start = System.nanoTime();
+
+        int logged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (clientErrorLog.log(new DeviceNotFoundException(UUID.randomUUID()), 404)) {
+                logged++;
+            }
+        }
+        long windows = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + 2;
+
+        assertTrue(logged >= 2);
+        assertTrue(logged <= 2 * windows);
+        assertTrue(clientErrorLog.log(new InvalidCursorException("Invalid cursor"), 400));
+    }
+}
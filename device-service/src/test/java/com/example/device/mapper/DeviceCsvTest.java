@@ -0,0 +1,78 @@
+package com.example.device.mapper;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceCsvTest {
+
+    @Test
+    void testWriteImportRow_quotesOnlyWhenNeeded() throws IOException {
+        UUID id = UUID.randomUUID();
+        StringWriter out = new StringWriter();
+
+        DeviceCsv.writeImportRow(out, new Device(id, "Phone, \"Pro\"", "Apple", null, LocalDateTime.of(2026, 1, 2, 3, 4, 5), null));
+
+        assertEquals(id + ",\"Phone, \"\"Pro\"\"\",Apple,,2026-01-02T03:04:05\n", out.toString());
+    }
+
+    @Test
+    void testRecordReader_readsWhatWriteImportRowWrites() throws IOException {
+        Device device = new Device(UUID.randomUUID(), "Line\r\nbreak", "", DeviceState.IN_USE, LocalDateTime.of(2026, 1, 2, 3, 4), null);
+        StringWriter out = new StringWriter();
+        DeviceCsv.writeImportRow(out, device);
+
+        List<String> record = new DeviceCsv.RecordReader(new StringReader(out.toString())).next();
+
+        assertEquals(List.of(device.getId().toString(), "Line\r\nbreak", "", "IN_USE", "2026-01-02T03:04"), record);
+    }
+
+    @Test
+    void testRecordReader_unquotedEmptyFieldIsNull() throws IOException {
+        List<String> record = new DeviceCsv.RecordReader(new StringReader("a,,\"\",\n")).next();
+
+        assertEquals(Arrays.asList("a", null, "", null), record);
+    }
+
+    @Test
+    void testRecordReader_skipsBlankLinesAndTracksLines() throws IOException {
+        DeviceCsv.RecordReader records = new DeviceCsv.RecordReader(new StringReader("name\r\n\r\n\"a\nb\"\nc"));
+
+        assertEquals(List.of("name"), records.next());
+        assertEquals(1, records.line());
+        assertEquals(List.of("a\nb"), records.next());
+        assertEquals(3, records.line());
+        assertEquals(List.of("c"), records.next());
+        assertEquals(5, records.line());
+        assertNull(records.next());
+    }
+
+    @Test
+    void testRecordReader_unterminatedQuoteIsMalformed() {
+        DeviceCsv.RecordReader records = new DeviceCsv.RecordReader(new StringReader("name\n\"Phone,Apple\n"));
+
+        assertThrows(DeviceCsv.MalformedCsvException.class, () -> {
+            records.next();
+            records.next();
+        });
+    }
+
+    @Test
+    void testFromExportRecord_readsPostgresTimestamps() {
+        UUID id = UUID.randomUUID();
+
+        Device device = DeviceCsv.fromExportRecord(Arrays.asList(id.toString(), "Phone", "Apple", null, "2026-01-02 03:04:05.123456", "7"));
+
+        assertEquals(new Device(id, "Phone", "Apple", null, LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000), 7L), device);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.device.mapper;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.proto.DeviceProto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeviceMapperTest {
+
+    @Test
+    void testToProto_createdAtIsTakenInTheJvmZone() {
+        TimeZone jvmZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+        try {
+            Device device = new Device(UUID.randomUUID(), "Phone", "Apple", DeviceState.AVAILABLE, LocalDateTime.of(2026, 1, 2, 3, 4, 5), 1L);
+
+            DeviceProto proto = DeviceMapper.toProto(device);
+
+            assertEquals(Instant.parse("2026-01-02T02:04:05Z"), Instant.EPOCH.plus(proto.getCreatedAtMicros(), ChronoUnit.MICROS));
+        } finally {
+            TimeZone.setDefault(jvmZone);
+        }
+    }
+}
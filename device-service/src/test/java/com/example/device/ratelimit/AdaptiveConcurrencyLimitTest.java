@@ -0,0 +1,86 @@
+package com.example.device.ratelimit;
+
+import com.example.device.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimit = new AdaptiveConcurrencyLimit(
+                new ConcurrencyLimitProperties(true, 20, 4, 100, 1.5, Duration.ofNanos(WINDOW)), clock::get);
+    }
+
+    @Test
+    void testRejectsAboveLimitUntilReleased() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(concurrencyLimit.tryAcquire());
+        }
+        assertFalse(concurrencyLimit.tryAcquire());
+        assertEquals(1, concurrencyLimit.getRejected());
+
+        concurrencyLimit.release(clock.get());
+        assertTrue(concurrencyLimit.tryAcquire());
+    }
+
+    @Test
+    void testGrowsWhileLatencyIsSteady() {
+        for (int window = 0; window < 10; window++) {
+            runWindow(concurrencyLimit.getLimit(), TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertTrue(concurrencyLimit.getLimit() > 20, "limit " + concurrencyLimit.getLimit());
+    }
+
+    @Test
+    void testShrinksWhenLatencyRises() {
+        for (int window = 0; window < 5; window++) {
+            runWindow(concurrencyLimit.getLimit(), TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        int steady = concurrencyLimit.getLimit();
+
+        for (int window = 0; window < 10; window++) {
+            runWindow(concurrencyLimit.getLimit(), TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertTrue(concurrencyLimit.getLimit() < steady, concurrencyLimit.getLimit() + " < " + steady);
+        assertTrue(concurrencyLimit.getLimit() >= 4);
+    }
+
+    @Test
+    void testKeepsLimitWhenLoadIsLow() {
+        for (int window = 0; window < 10; window++) {
+            runWindow(2, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertEquals(20, concurrencyLimit.getLimit());
+    }
+
+    /**
+     * Admits the given number of requests at once, each taking {@code rtt}, then moves to the end of the window.
+     */
+    private void runWindow(int requests, long rtt) {
+        long start = clock.get();
+        for (int i = 0; i < requests; i++) {
+            assertTrue(concurrencyLimit.tryAcquire());
+        }
+        clock.set(start + rtt);
+        for (int i = 0; i < requests - 1; i++) {
+            concurrencyLimit.release(start);
+        }
+        clock.set(start + WINDOW);
+        concurrencyLimit.release(start + WINDOW - rtt);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.device.ratelimit;
+
+import com.example.device.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private ClientRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", Duration.ofMinutes(1),
+                new RateLimitProperties.Budget(10, 5), new RateLimitProperties.Budget(1, 2), null, null);
+        rateLimiter = new ClientRateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void testAllowsBurstThenThrottlesUntilRefilled() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("a", "get", RequestClass.READ));
+        }
+        long wait = rateLimiter.tryAcquire("a", "get", RequestClass.READ);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, rateLimiter.tryAcquire("a", "get", RequestClass.READ));
+        assertTrue(rateLimiter.tryAcquire("a", "get", RequestClass.READ) > 0);
+    }
+
+    @Test
+    void testBudgetsAreSeparatePerClientEndpointAndClass() {
+        assertEquals(0, rateLimiter.tryAcquire("a", "list", RequestClass.SCAN));
+        assertEquals(0, rateLimiter.tryAcquire("a", "list", RequestClass.SCAN));
+        assertTrue(rateLimiter.tryAcquire("a", "list", RequestClass.SCAN) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("b", "list", RequestClass.SCAN));
+        assertEquals(0, rateLimiter.tryAcquire("a", "search", RequestClass.SCAN));
+        assertEquals(0, rateLimiter.tryAcquire("a", "get", RequestClass.READ));
+    }
+
+    @Test
+    void testEvictsOnlyRefilledBuckets() {
+        rateLimiter.tryAcquire("a", "list", RequestClass.SCAN);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimiter.tryAcquire("b", "list", RequestClass.SCAN);
+        rateLimiter.tryAcquire("b", "list", RequestClass.SCAN);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+
+        rateLimiter.evictIdle();
+
+        assertEquals(1, rateLimiter.getBucketCount());
+    }
+
+    @Test
+    void testCountsDecisionsByClass() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        rateLimiter.bindTo(registry);
+
+        rateLimiter.tryAcquire("a", "list", RequestClass.SCAN);
+        rateLimiter.tryAcquire("a", "list", RequestClass.SCAN);
+        rateLimiter.tryAcquire("a", "list", RequestClass.SCAN);
+
+        assertEquals(2, registry.get("device.ratelimit.requests").tags("class", "scan", "result", "allowed")
+                .functionCounter().count());
+        assertEquals(1, registry.get("device.ratelimit.requests").tags("class", "scan", "result", "throttled")
+                .functionCounter().count());
+        assertEquals(1, registry.get("device.ratelimit.buckets").gauge().value());
+    }
+}
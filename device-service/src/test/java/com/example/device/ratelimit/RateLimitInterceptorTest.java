@@ -0,0 +1,90 @@
+package com.example.device.ratelimit;
+
+import com.example.device.controller.DeviceController;
+import com.example.device.dto.Device;
+import com.example.device.service.DeviceService;
+import com.example.device.service.DeviceStateBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@WebMvcTest(value = DeviceController.class, properties = {
+        "device.rate-limit.enabled=true",
+        "device.concurrency-limit.enabled=true",
+        "device.rate-limit.scan.rate=0.1",
+        "device.rate-limit.scan.burst=1"
+})
+class RateLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @MockBean
+    private DeviceService deviceService;
+
+    @MockBean
+    private DeviceStateBuffer deviceStateBuffer;
+
+    @Test
+    void testScanOverBudgetIsRateLimitedPerClient() throws Exception {
+        when(deviceService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/device/v1").header("X-API-Key", "first"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/device/v1").header("X-API-Key", "first"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.type").value("urn:device-service:problem:rate-limited"));
+
+        mockMvc.perform(get("/device/v1").header("X-API-Key", "second"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testPointReadsHaveTheirOwnBudget() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceService.findAll()).thenReturn(List.of());
+        when(deviceService.getDeviceById(any())).thenReturn(Device.builder().id(id).name("Phone").brand("Apple").build());
+
+        mockMvc.perform(get("/device/v1").header("X-API-Key", "reader"));
+        mockMvc.perform(get("/device/v1").header("X-API-Key", "reader"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/device/v1/id/{id}", id).header("X-API-Key", "reader"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testReleasesConcurrencyPermitAfterCompletion() throws Exception {
+        when(deviceService.getDeviceById(any())).thenReturn(Device.builder().name("Phone").brand("Apple").build());
+
+        mockMvc.perform(get("/device/v1/id/{id}", UUID.randomUUID()))
+                .andExpect(status().isOk());
+
+        assertEquals(0, concurrencyLimit.getInFlight());
+    }
+}
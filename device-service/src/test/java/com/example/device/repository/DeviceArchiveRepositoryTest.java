@@ -0,0 +1,97 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs archiving against a real Postgres, with the state-change trigger and the partitioned archive table from the
+ * migrations. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DeviceArchiveRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceArchiveRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceArchiveRepository archiveRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testArchiveInactive_movesOnlyDevicesInactiveForLong() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID longInactive = save(DeviceState.INACTIVE, now.minusDays(100));
+        UUID recentlyInactive = save(DeviceState.INACTIVE, now.minusDays(10));
+        UUID available = save(DeviceState.AVAILABLE, now.minusDays(100));
+
+        archiveRepository.createPartition(YearMonth.from(now));
+        List<Device> archived = archiveRepository.archiveInactive(now.minusDays(90), 10, now);
+
+        assertEquals(List.of(longInactive), archived.stream().map(Device::getId).toList());
+        assertTrue(deviceRepository.findDeviceById(longInactive).isEmpty());
+        assertEquals(DeviceState.INACTIVE, archiveRepository.findDeviceById(longInactive).orElseThrow().getState());
+        assertTrue(deviceRepository.findDeviceById(recentlyInactive).isPresent());
+        assertTrue(deviceRepository.findDeviceById(available).isPresent());
+        assertEquals(List.of(longInactive), archiveRepository.findDevicesByBrand("Acme").stream().map(Device::getId).toList());
+    }
+
+    @Test
+    void testStateChange_restartsTheInactiveClock() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID id = save(DeviceState.AVAILABLE, now.minusDays(100));
+
+        jdbcTemplate.update("update device set state = 'INACTIVE' where id = ?", id);
+        archiveRepository.createPartition(YearMonth.from(now));
+
+        assertTrue(archiveRepository.archiveInactive(now.minusDays(90), 10, now).isEmpty());
+    }
+
+    @Test
+    void testDropPartition_removesTheMonth() {
+        YearMonth month = YearMonth.of(2020, 1);
+        archiveRepository.createPartition(month);
+        assertTrue(archiveRepository.findPartitions().contains(month));
+
+        archiveRepository.dropPartition(month);
+
+        assertFalse(archiveRepository.findPartitions().contains(month));
+    }
+
+    private UUID save(DeviceState state, LocalDateTime stateChangedAt) {
+        UUID id = deviceRepository.saveAndFlush(DeviceEntity.builder().name("Device").brand("Acme").state(state).build()).getId();
+        // Only an UPDATE OF state fires the trigger, so the timestamp can be backdated directly.
+        jdbcTemplate.update("update device set state_changed_at = ? where id = ?", stateChangedAt, id);
+        return id;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.entity.id.UuidV7;
+import com.example.device.mapper.DeviceCsv;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs COPY import and export against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DeviceCopyRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceCopyRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceCopyRepository copyRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Test
+    void testInsertNew_skipsExistingIdsAndRoundTripsThroughExport() {
+        UUID id = UuidV7.next();
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000);
+        Device device = new Device(id, "Phone, \"Pro\"", "Apple", DeviceState.IN_USE, createdAt, null);
+
+        long inserted = copyRepository.insertNew(out -> {
+            DeviceCsv.writeImportRow(out, device);
+            DeviceCsv.writeImportRow(out, device);
+        });
+        long insertedAgain = copyRepository.insertNew(out -> DeviceCsv.writeImportRow(out, device));
+
+        assertEquals(1, inserted);
+        assertEquals(0, insertedAgain);
+        Device stored = deviceRepository.findDeviceById(id).orElseThrow();
+        assertEquals(new Device(id, device.getName(), "Apple", DeviceState.IN_USE, createdAt, 0L), stored);
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        copyRepository.export(true, in -> in.transferTo(exported));
+        String csv = exported.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(String.join(",", DeviceCsv.COLUMNS) + "\n"));
+        assertTrue(csv.contains(id + ",\"Phone, \"\"Pro\"\"\",Apple,IN_USE,2026-01-02 03:04:05.123456,0\n"));
+    }
+}
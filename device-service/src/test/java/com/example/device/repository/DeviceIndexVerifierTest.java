@@ -0,0 +1,43 @@
+package com.example.device.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceIndexVerifierTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DeviceIndexVerifier deviceIndexVerifier;
+
+    @Test
+    void testAfterPropertiesSet_allIndexesPresent() {
+        List<String> indexes = new ArrayList<>(DeviceIndexVerifier.REQUIRED_INDEXES);
+        indexes.add("device_pkey");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(indexes);
+
+        assertDoesNotThrow(() -> deviceIndexVerifier.afterPropertiesSet());
+    }
+
+    @Test
+    void testAfterPropertiesSet_missingIndexFailsStartup() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("device_pkey", "idx_device_brand_state"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> deviceIndexVerifier.afterPropertiesSet());
+        assertTrue(exception.getMessage().contains("idx_device_created_at_id"));
+    }
+}
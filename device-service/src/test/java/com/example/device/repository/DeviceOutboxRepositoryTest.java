@@ -0,0 +1,71 @@
+package com.example.device.repository;
+
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.entity.id.UuidV7;
+import com.example.device.event.DeviceEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the outbox offset assignment against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceOutboxRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceOutboxRepository outboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testAssignOffsets_publishesPendingRowsInInsertionOrder() {
+        UUID first = saveEvent();
+        UUID second = saveEvent();
+        UUID third = saveEvent();
+        long latest = outboxRepository.findLatestOffset().orElse(0L);
+
+        assertTrue(outboxRepository.tryRelayLock(1L));
+        assertEquals(2, outboxRepository.assignOffsets(2));
+        assertEquals(1, outboxRepository.assignOffsets(2));
+        entityManager.clear();
+
+        List<DeviceOutboxEntity> published = outboxRepository.findPublishedAfter(latest, Limit.of(10));
+        assertEquals(List.of(first, second, third), published.stream().map(DeviceOutboxEntity::getId).toList());
+        assertTrue(published.get(0).getEventOffset() < published.get(1).getEventOffset());
+        assertTrue(published.get(1).getEventOffset() < published.get(2).getEventOffset());
+    }
+
+    private UUID saveEvent() {
+        DeviceOutboxEntity outboxEntity = DeviceOutboxEntity.builder()
+                .id(UuidV7.next())
+                .eventType(DeviceEventType.CREATED)
+                .deviceId(UUID.randomUUID())
+                .payload("{\"name\":\"Phone\"}")
+                .build();
+        entityManager.persistAndFlush(outboxEntity);
+        return outboxEntity.getId();
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.device.repository;
+
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.entity.DeviceState;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the migrations against a real Postgres, loads a skewed data set and checks that the device queries, as
+ * generated by the repository, use the migration indexes. {@code auto_explain} logs the plan of every statement
+ * with its bound parameters, which is read back from the container log. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withCommand("postgres", "-c", "fsync=off",
+                    "-c", "session_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0",
+                    "-c", "auto_explain.log_format=json");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final long PLAN_LOG_TIMEOUT_MILLIS = 5000;
+
+    private static final Pattern DEVICE_QUERY = Pattern.compile("\\bfrom\\s+device\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("select count(*) from device", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.execute("""
+                insert into device (id, name, brand, state, created_at)
+                select gen_random_uuid(),
+                       'device-' || g,
+                       'brand-' || (g % 50),
+                       case when g % 50 = 0 then 'IN_USE' when g % 10 = 0 then 'AVAILABLE' else 'INACTIVE' end,
+                       timestamp '2025-01-01' + g * interval '1 second'
+                from generate_series(1, 200000) g
+                """);
+        jdbcTemplate.execute("analyze device");
+    }
+
+    @Test
+    void testFindDeviceById_usesIndex() {
+        assertIndexScan(() -> deviceRepository.findDeviceById(FIRST_ID));
+    }
+
+    @Test
+    void testFindDevicesByBrand_usesIndex() {
+        assertIndexScan(() -> deviceRepository.findDevicesByBrand("brand-7"));
+    }
+
+    @Test
+    void testFindDevicesByState_usesIndex() {
+        assertIndexScan(() -> deviceRepository.findDevicesByState(DeviceState.IN_USE));
+    }
+
+    @Test
+    void testFindFirstPage_usesIndex() {
+        assertIndexScan(() -> deviceRepository.findFirstPage(Limit.of(101)));
+    }
+
+    @Test
+    void testFindPageAfter_usesIndex() {
+        assertIndexScan(() -> deviceRepository.findPageAfter(LocalDateTime.of(2025, 1, 2, 0, 0), FIRST_ID, Limit.of(101)));
+    }
+
+    @Test
+    void testSearchBrandIgnoreCase_usesIndex() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder().brand("BRAND-7").build();
+
+        assertIndexScan(() -> deviceRepository.search(request, null, null, 101));
+    }
+
+    @Test
+    void testSearchNamePrefix_usesIndex() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder().namePrefix("device-1234").build();
+
+        assertIndexScan(() -> deviceRepository.search(request, null, null, 101));
+    }
+
+    @Test
+    void testSearchBrandAndStates_usesIndex() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .brand("brand-7")
+                .states(Set.of(DeviceState.AVAILABLE, DeviceState.IN_USE))
+                .build();
+
+        assertIndexScan(() -> deviceRepository.search(request, null, null, 101));
+    }
+
+    @Test
+    void testSearchSortedByNameAfter_usesIndex() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder().sort(DeviceSortField.NAME).build();
+
+        assertIndexScan(() -> deviceRepository.search(request, "device-5", FIRST_ID, 101));
+    }
+
+    /**
+     * Runs the repository call and checks the plans {@code auto_explain} logged for the device queries it sent.
+     */
+    private static void assertIndexScan(Runnable repositoryCall) {
+        int logOffset = POSTGRES.getLogs().length();
+        repositoryCall.run();
+        List<JsonNode> plans = awaitDevicePlans(logOffset);
+
+        assertFalse(plans.isEmpty(), "No plan logged for the device query");
+        for (JsonNode plan : plans) {
+            List<String> nodeTypes = new ArrayList<>();
+            collectNodeTypes(plan.get("Plan"), nodeTypes);
+            String query = plan.get("Query Text").asText();
+            assertTrue(nodeTypes.stream().anyMatch(type -> type.contains("Index")), () -> "No index used for: " + query + " " + nodeTypes);
+            assertFalse(nodeTypes.contains("Seq Scan"), () -> "Sequential scan for: " + query + " " + nodeTypes);
+        }
+    }
+
+    /**
+     * The container log arrives asynchronously, so polls until the plans of the call show up.
+     */
+    private static List<JsonNode> awaitDevicePlans(int logOffset) {
+        long deadline = System.currentTimeMillis() + PLAN_LOG_TIMEOUT_MILLIS;
+        List<JsonNode> plans = devicePlans(POSTGRES.getLogs().substring(logOffset));
+        while (plans.isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            plans = devicePlans(POSTGRES.getLogs().substring(logOffset));
+        }
+        return plans;
+    }
+
+    /**
+     * Picks the {@code auto_explain} entries for queries on the device table out of the server log. Each entry
+     * is a {@code plan:} line followed by the JSON plan, one tab-indented line at a time, up to its closing brace.
+     */
+    private static List<JsonNode> devicePlans(String log) {
+        List<JsonNode> plans = new ArrayList<>();
+        StringBuilder json = null;
+        for (String line : log.split("\n")) {
+            if (json == null) {
+                if (line.endsWith("plan:")) {
+                    json = new StringBuilder();
+                }
+                continue;
+            }
+            if (!line.startsWith("\t")) {
+                json = null;
+                continue;
+            }
+            json.append(line.substring(1)).append('\n');
+            if (line.equals("\t}")) {
+                JsonNode plan = readPlan(json.toString());
+                if (DEVICE_QUERY.matcher(plan.get("Query Text").asText()).find()) {
+                    plans.add(plan);
+                }
+                json = null;
+            }
+        }
+        return plans;
+    }
+
+    private static JsonNode readPlan(String json) {
+        try {
+            return OBJECT_MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read plan: " + json, e);
+        }
+    }
+
+    private static void collectNodeTypes(JsonNode plan, List<String> nodeTypes) {
+        nodeTypes.add(plan.get("Node Type").asText());
+        if (plan.has("Plans")) {
+            plan.get("Plans").forEach(child -> collectNodeTypes(child, nodeTypes));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.device.repository;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the criteria search against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceSearchRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        deviceRepository.saveAll(List.of(
+                device("Watch 1", "Garmin", DeviceState.AVAILABLE),
+                device("Watch 2", "Garmin", DeviceState.IN_USE),
+                device("Watch_3", "garmin", DeviceState.INACTIVE),
+                device("Phone", "Apple", DeviceState.AVAILABLE)));
+        deviceRepository.flush();
+    }
+
+    @Test
+    void testSearch_combinesFilters() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .brand("GARMIN")
+                .states(Set.of(DeviceState.AVAILABLE, DeviceState.INACTIVE))
+                .namePrefix("Watch")
+                .sort(DeviceSortField.NAME)
+                .build();
+
+        List<Device> devices = deviceRepository.search(request, null, null, 10);
+
+        assertEquals(List.of("Watch 1", "Watch_3"), devices.stream().map(Device::getName).toList());
+    }
+
+    @Test
+    void testSearch_namePrefixEscapesWildcards() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder().namePrefix("Watch_").build();
+
+        List<Device> devices = deviceRepository.search(request, null, null, 10);
+
+        assertEquals(List.of("Watch_3"), devices.stream().map(Device::getName).toList());
+    }
+
+    @Test
+    void testSearch_keysetDescending() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .sort(DeviceSortField.NAME)
+                .direction(Sort.Direction.DESC)
+                .build();
+
+        List<Device> firstPage = deviceRepository.search(request, null, null, 2);
+        Device last = firstPage.get(1);
+        List<Device> secondPage = deviceRepository.search(request, last.getName(), last.getId(), 2);
+
+        assertEquals(List.of("Watch_3", "Watch 2"), firstPage.stream().map(Device::getName).toList());
+        assertEquals(List.of("Watch 1", "Phone"), secondPage.stream().map(Device::getName).toList());
+    }
+
+    @Test
+    void testSearch_createdRange() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .createdFrom(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertEquals(0, deviceRepository.search(request, null, null, 10).size());
+    }
+
+    private static DeviceEntity device(String name, String brand, DeviceState state) {
+        return DeviceEntity.builder()
+                .name(name)
+                .brand(brand)
+                .state(state)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.device.repository;
+
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.repository.DeviceStateHistoryRepository.StateChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the state-history triggers and queries against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DeviceStateHistoryRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceStateHistoryRepositoryTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 3, 0, 0);
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceStateHistoryRepository historyRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testTriggers_recordCreationStateChangesAndDeletion() {
+        UUID id = deviceRepository.saveAndFlush(device(DeviceState.AVAILABLE)).getId();
+        jdbcTemplate.update("update device set name = 'Renamed' where id = ?", id);
+        jdbcTemplate.update("update device set state = 'IN_USE' where id = ?", id);
+        jdbcTemplate.update("update device set state = 'AVAILABLE' where id = ?", id);
+        jdbcTemplate.update("delete from device where id = ?", id);
+
+        List<StateChange> changes = historyRepository.findChanges(id, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+
+        assertEquals(List.of(null, DeviceState.AVAILABLE, DeviceState.IN_USE, DeviceState.AVAILABLE),
+                changes.stream().map(StateChange::previousState).toList());
+        assertEquals(Arrays.asList(DeviceState.AVAILABLE, DeviceState.IN_USE, DeviceState.AVAILABLE, null),
+                changes.stream().map(StateChange::state).toList());
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.update("delete from device_state_history where device_id = ?", id));
+    }
+
+    @Test
+    void testSumTimeInState_countsTheStateAtTheWindowStart() {
+        // Available before the window, in use for its second half, and in use without a change throughout.
+        UUID changing = deviceRepository.saveAndFlush(device(DeviceState.IN_USE)).getId();
+        UUID unchanged = deviceRepository.saveAndFlush(device(DeviceState.IN_USE)).getId();
+        jdbcTemplate.execute("truncate device_state_history");
+        jdbcTemplate.update("update device set state_changed_at = ? where id = ?", FROM.plusDays(1), changing);
+        jdbcTemplate.update("update device set state_changed_at = ? where id = ?", FROM.minusDays(1), unchanged);
+        jdbcTemplate.update("insert into device_state_history values (?, 'AVAILABLE', 'IN_USE', ?)", changing, FROM.plusDays(1));
+
+        Map<DeviceState, Double> seconds = historyRepository.sumTimeInState(FROM, TO);
+
+        assertEquals(Map.of(DeviceState.AVAILABLE, 86400.0, DeviceState.IN_USE, 3 * 86400.0), seconds);
+    }
+
+    private static DeviceEntity device(DeviceState state) {
+        return DeviceEntity.builder()
+                .name("Device")
+                .brand("Acme")
+                .state(state)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.device.repository;
+
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the conditional state-transition UPDATE against a real Postgres. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceStateTransitionTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testTransitionState_movesDeviceAndBumpsVersion() {
+        DeviceEntity device = saveDevice(DeviceState.AVAILABLE);
+
+        Optional<DeviceEntity> transitioned = deviceRepository.transitionState(device.getId(), "AVAILABLE", "IN_USE");
+
+        assertTrue(transitioned.isPresent());
+        assertEquals(DeviceState.IN_USE, transitioned.get().getState());
+        assertEquals(device.getVersion() + 1, transitioned.get().getVersion());
+    }
+
+    @Test
+    void testTransitionState_otherStateLeavesDeviceUntouched() {
+        DeviceEntity device = saveDevice(DeviceState.IN_USE);
+
+        Optional<DeviceEntity> transitioned = deviceRepository.transitionState(device.getId(), "AVAILABLE", "IN_USE");
+
+        assertTrue(transitioned.isEmpty());
+        assertEquals(device.getVersion(), deviceRepository.findDeviceById(device.getId()).orElseThrow().getVersion());
+    }
+
+    private DeviceEntity saveDevice(DeviceState state) {
+        DeviceEntity device = entityManager.persistFlushFind(DeviceEntity.builder()
+                .name("Watch")
+                .brand("Garmin")
+                .state(state)
+                .build());
+        // The UPDATE must read the row from the database, not hand back the managed instance.
+        entityManager.clear();
+        return device;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceArchiveProperties;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.event.DeviceEventType;
+import com.example.device.repository.DeviceArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceArchiverTest {
+
+    @Mock
+    private DeviceArchiveRepository archiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final CacheManager cacheManager = new CaffeineCacheManager(CacheConfig.DEVICES);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DEVICES).clear();
+    }
+
+    @Test
+    void testArchive_movesBatchesUntilOneComesBackShort() {
+        Device first = device();
+        Device second = device();
+        Device third = device();
+        Cache cache = cacheManager.getCache(CacheConfig.DEVICES);
+        cache.put(first.getId(), first);
+        when(archiveRepository.tryArchiveLock(DeviceArchiver.ARCHIVE_LOCK_KEY)).thenReturn(true);
+        when(archiveRepository.archiveInactive(any(), eq(2), any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        LocalDateTime before = LocalDateTime.now();
+        long archived = archiver(Duration.ofDays(90), null).archive();
+
+        assertEquals(3, archived);
+        ArgumentCaptor<LocalDateTime> inactiveSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(archiveRepository, times(2)).archiveInactive(inactiveSince.capture(), eq(2), any());
+        assertFalse(inactiveSince.getValue().isBefore(before.minusDays(90)));
+        assertTrue(inactiveSince.getValue().isBefore(LocalDateTime.now().minusDays(89)));
+        verify(archiveRepository, times(2)).createPartition(YearMonth.from(inactiveSince.getValue().plusDays(90)));
+        verify(transactionManager, times(2)).commit(any());
+
+        ArgumentCaptor<DeviceChangedEvent> events = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.type() == DeviceEventType.ARCHIVED));
+        assertNull(cache.get(first.getId()));
+    }
+
+    @Test
+    void testArchive_stopsWhenAnotherInstanceHoldsTheLock() {
+        when(archiveRepository.tryArchiveLock(DeviceArchiver.ARCHIVE_LOCK_KEY)).thenReturn(false);
+
+        assertEquals(0, archiver(Duration.ofDays(90), null).archive());
+
+        verify(archiveRepository, never()).createPartition(any());
+        verify(archiveRepository, never()).archiveInactive(any(), anyInt(), any());
+    }
+
+    @Test
+    void testDropExpired_dropsOnlyMonthsPastTheRetention() {
+        YearMonth current = YearMonth.now();
+        YearMonth old = current.minusMonths(14);
+        when(archiveRepository.findPartitions()).thenReturn(List.of(current, current.minusMonths(6), old));
+
+        archiver(Duration.ofDays(90), Duration.ofDays(365)).dropExpired();
+
+        verify(archiveRepository).dropPartition(old);
+        verifyNoMoreInteractions(ignoreStubs(archiveRepository));
+    }
+
+    @Test
+    void testDropExpired_keepsEverythingWithoutRetention() {
+        archiver(Duration.ofDays(90), null).dropExpired();
+
+        verifyNoInteractions(archiveRepository);
+    }
+
+    private DeviceArchiver archiver(Duration inactiveFor, Duration retention) {
+        return new DeviceArchiver(archiveRepository, eventPublisher, cacheManager, transactionManager,
+                new DeviceArchiveProperties(true, inactiveFor, 2, Duration.ofHours(1), retention));
+    }
+
+    private static Device device() {
+        return new Device(UUID.randomUUID(), "Phone", "Apple", DeviceState.INACTIVE, LocalDateTime.now(), 1L);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceBatchProperties;
+import com.example.device.dto.BatchItemResult;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceBatchServiceTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache deviceCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DeviceBatchService deviceBatchService;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheConfig.DEVICES)).thenReturn(deviceCache);
+        deviceBatchService = new DeviceBatchService(deviceRepository, transactionManager, cacheManager, eventPublisher, new DeviceBatchProperties(2));
+    }
+
+    @Test
+    void testSaveDevices_oneTransactionPerChunk() {
+        when(deviceRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<DeviceEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(UUID.randomUUID()));
+            return entities;
+        });
+        List<Device> devices = List.of(device("Phone", "Apple"), device("Tablet", "Apple"), device("Watch", "Garmin"));
+
+        List<BatchItemResult> results = deviceBatchService.saveDevices(devices.iterator());
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+        assertEquals("Watch", results.get(2).getDevice().getName());
+        verify(deviceRepository, times(2)).saveAllAndFlush(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(deviceCache, times(3)).put(any(), any());
+    }
+
+    @Test
+    void testSaveDevices_invalidItemRejectedOthersSaved() {
+        when(deviceRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<Device> devices = List.of(device(null, "Apple"), device("Tablet", "Apple"));
+
+        List<BatchItemResult> results = deviceBatchService.saveDevices(devices.iterator());
+
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals(201, results.get(1).getStatus());
+    }
+
+    @Test
+    void testSaveDevices_failedChunkReportedPerItem() {
+        when(deviceRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("boom"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        List<Device> devices = List.of(device("Phone", "Apple"), device("Tablet", "Apple"), device("Watch", "Garmin"));
+
+        List<BatchItemResult> results = deviceBatchService.saveDevices(devices.iterator());
+
+        assertEquals(500, results.get(0).getStatus());
+        assertEquals(500, results.get(1).getStatus());
+        assertEquals(201, results.get(2).getStatus());
+        assertEquals(2, results.get(2).getIndex());
+    }
+
+    @Test
+    void testUpdateDevices_keepsInUseRulePerItem() {
+        UUID available = UUID.randomUUID();
+        UUID inUse = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(deviceRepository.findAllById(anyList())).thenReturn(List.of(
+                new DeviceEntity(available, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L),
+                new DeviceEntity(inUse, "Watch", "Garmin", DeviceState.IN_USE, null, 0L)));
+        when(deviceRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<DeviceEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setVersion(entity.getVersion() + 1));
+            return entities;
+        });
+        deviceBatchService = new DeviceBatchService(deviceRepository, transactionManager, cacheManager, eventPublisher, new DeviceBatchProperties(10));
+
+        List<Device> updates = List.of(
+                Device.builder().id(available).name("Router").brand("Juniper").build(),
+                Device.builder().id(inUse).name("NewWatch").brand("Garmin").build(),
+                Device.builder().id(missing).name("Phone").brand("Apple").build());
+
+        List<BatchItemResult> results = deviceBatchService.updateDevices(updates.iterator());
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals("Juniper", results.get(0).getDevice().getBrand());
+        assertEquals(1L, results.get(0).getDevice().getVersion());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        verify(deviceCache, times(1)).put(eq(available), argThat(device -> ((Device) device).getVersion() == 1L));
+    }
+
+    @Test
+    void testDeleteDevices_skipsInUseAndMissing() {
+        UUID available = UUID.randomUUID();
+        UUID inUse = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(
+                new DeviceEntity(available, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L),
+                new DeviceEntity(inUse, "Watch", "Garmin", DeviceState.IN_USE, null, 0L)));
+        deviceBatchService = new DeviceBatchService(deviceRepository, transactionManager, cacheManager, eventPublisher, new DeviceBatchProperties(10));
+
+        List<BatchItemResult> results = deviceBatchService.deleteDevices(List.of(available, inUse, missing).iterator());
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        verify(deviceRepository, times(1)).deleteAllByIdInBatch(List.of(available));
+        verify(deviceCache, times(1)).evict(available);
+    }
+
+    private static Device device(String name, String brand) {
+        return Device.builder()
+                .name(name)
+                .brand(brand)
+                .state(DeviceState.AVAILABLE)
+                .build();
+    }
+}
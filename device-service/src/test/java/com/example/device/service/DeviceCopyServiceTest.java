@@ -0,0 +1,185 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceImportProperties;
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceImportResult;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DevicesImportedEvent;
+import com.example.device.exception.InvalidImportException;
+import com.example.device.repository.DeviceCopyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceCopyServiceTest {
+
+    @Mock
+    private DeviceCopyRepository copyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private DeviceCopyService deviceCopyService;
+
+    /**
+     * What the service handed to COPY during the last import.
+     */
+    private final StringWriter copied = new StringWriter();
+
+    @BeforeEach
+    void setUp() {
+        deviceCopyService = new DeviceCopyService(copyRepository, eventPublisher, objectMapper,
+                transactionManager, new DeviceImportProperties(2), "time_ordered");
+    }
+
+    @Test
+    void testImportCsv_copiesValidRowsAndAnnouncesTheImport() {
+        UUID id = UUID.randomUUID();
+        copyInserting(1);
+
+        DeviceImportResult result = deviceCopyService.importCsv(new StringReader(
+                "brand,name,state,id,created_at\nApple,Phone,IN_USE," + id + ",2026-01-02 03:04:05\nGarmin,Watch,,,\n"));
+
+        String[] rows = copied.toString().split("\n");
+        assertEquals(id + ",Phone,Apple,IN_USE,2026-01-02T03:04:05", rows[0]);
+        assertTrue(rows[1].matches("[0-9a-f-]{36},Watch,Garmin,,.+"));
+        assertEquals(7, UUID.fromString(rows[1].substring(0, 36)).version());
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(0, result.getRejected());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher).publishEvent(new DevicesImportedEvent(1));
+    }
+
+    @Test
+    void testImportCsv_rejectsInvalidRowsAndReportsTheFirstOnes() {
+        copyInserting(1);
+        String name = "x".repeat(51);
+
+        DeviceImportResult result = deviceCopyService.importCsv(new StringReader(
+                "name,brand,state,version\n" + name + ",Apple,,0\nPhone,Apple,BROKEN,0\nPhone,Apple\nPhone,Apple,AVAILABLE,3\n"));
+
+        assertEquals("Phone,Apple,AVAILABLE", copied.toString().split("\n")[0].substring(37, 58));
+        assertEquals(4, result.getReceived());
+        assertEquals(3, result.getRejected());
+        assertEquals(2, result.getRejections().size());
+        assertEquals(0, result.getRejections().get(0).getIndex());
+        assertEquals(400, result.getRejections().get(0).getStatus());
+        assertTrue(result.getRejections().get(1).getMessage().startsWith("Unknown state: BROKEN"));
+    }
+
+    @Test
+    void testImportCsv_unknownColumnFailsTheImport() {
+        copyInserting(0);
+
+        InvalidImportException exception = assertThrows(InvalidImportException.class,
+                () -> deviceCopyService.importCsv(new StringReader("name,brand,colour\nPhone,Apple,red\n")));
+
+        assertTrue(exception.getMessage().contains("colour"));
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testImportCsv_unterminatedQuoteFailsTheImport() {
+        copyInserting(0);
+
+        assertThrows(InvalidImportException.class,
+                () -> deviceCopyService.importCsv(new StringReader("name,brand\n\"Phone,Apple\n")));
+    }
+
+    @Test
+    void testImportNdjson_readsOneDevicePerLine() {
+        copyInserting(1);
+
+        DeviceImportResult result = deviceCopyService.importNdjson(new StringReader(
+                "{\"name\":\"Phone\",\"brand\":\"Apple\",\"state\":\"AVAILABLE\",\"createdAt\":\"2026-01-02T03:04:05\"}\n\nnot json\n[1]\n"));
+
+        assertTrue(copied.toString().endsWith(",Phone,Apple,AVAILABLE,2026-01-02T03:04:05\n"));
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals("Not valid JSON", result.getRejections().get(0).getMessage());
+        assertEquals(1, result.getRejections().get(0).getIndex());
+    }
+
+    @Test
+    void testImport_nothingInsertedLeavesMemoryStateAlone() {
+        copyInserting(0);
+
+        DeviceImportResult result = deviceCopyService.importCsv(new StringReader(""));
+
+        assertEquals(0, result.getReceived());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testExportNdjson_convertsCopyRows() throws Exception {
+        UUID id = UUID.randomUUID();
+        exportRows(id + ",\"Phone, Pro\",Apple,IN_USE,2026-01-02 03:04:05.5,3\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        deviceCopyService.exportNdjson(out);
+
+        Device expected = new Device(id, "Phone, Pro", "Apple", DeviceState.IN_USE, LocalDateTime.of(2026, 1, 2, 3, 4, 5, 500_000_000), 3L);
+        assertEquals(objectMapper.writeValueAsString(expected) + "\n", out.toString(StandardCharsets.UTF_8));
+        verify(copyRepository).export(eq(false), any());
+    }
+
+    @Test
+    void testExportCsv_passesCopyOutputThrough() throws Exception {
+        String csv = "id,name,brand,state,created_at,version\n";
+        exportRows(csv);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        deviceCopyService.exportCsv(out);
+
+        assertEquals(csv, out.toString(StandardCharsets.UTF_8));
+        verify(copyRepository).export(eq(true), any());
+    }
+
+    private void copyInserting(long inserted) {
+        when(copyRepository.insertNew(any())).thenAnswer(invocation -> {
+            try {
+                invocation.<DeviceCopyRepository.RowWriter>getArgument(0).write(copied);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return inserted;
+        });
+    }
+
+    private void exportRows(String csv) {
+        doAnswer(invocation -> {
+            invocation.<DeviceCopyRepository.RowReader>getArgument(1).read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            return null;
+        }).when(copyRepository).export(anyBoolean(), any());
+    }
+}
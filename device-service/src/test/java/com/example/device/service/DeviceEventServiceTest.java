@@ -0,0 +1,167 @@
+package com.example.device.service;
+
+import com.example.device.config.DeviceEventProperties;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.event.DeviceEventType;
+import com.example.device.repository.DeviceOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceEventServiceTest {
+
+    @Mock
+    private DeviceOutboxRepository outboxRepository;
+
+    private DeviceEventService deviceEventService;
+
+    @BeforeEach
+    void setUp() {
+        DeviceEventProperties properties = new DeviceEventProperties(true, 2, 2,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofDays(1));
+        deviceEventService = new DeviceEventService(outboxRepository, new ObjectMapper().findAndRegisterModules(), properties);
+    }
+
+    @Test
+    void testSubscribe_replaysThenSkipsAlreadySentLiveEvents() throws Exception {
+        when(outboxRepository.findPublishedAfter(eq(5L), any(Limit.class))).thenReturn(List.of(outbox(6), outbox(7)));
+        when(outboxRepository.findPublishedAfter(eq(7L), any(Limit.class))).thenReturn(List.of());
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        deviceEventService.subscribe(5, emitter);
+        assertEquals("6", emitter.next());
+        assertEquals("7", emitter.next());
+
+        deviceEventService.broadcast(List.of(event(7), event(8)));
+        assertEquals("8", emitter.next());
+        assertEquals(1, deviceEventService.getSubscriberCount());
+    }
+
+    @Test
+    void testSubscribe_withoutOffsetStartsAtLatest() throws Exception {
+        when(outboxRepository.findLatestOffset()).thenReturn(Optional.of(10L));
+        when(outboxRepository.findPublishedAfter(eq(10L), any(Limit.class))).thenReturn(List.of());
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        deviceEventService.subscribe(-1, emitter);
+        deviceEventService.broadcast(List.of(event(11)));
+
+        assertEquals("11", emitter.next());
+    }
+
+    @Test
+    void testBroadcast_disconnectsSubscriberThatFallsBehind() throws Exception {
+        // The blocked client holds its thread on the first send, so it may never get as far as the replay.
+        lenient().when(outboxRepository.findPublishedAfter(eq(0L), any(Limit.class))).thenReturn(List.of());
+        CapturingEmitter emitter = new CapturingEmitter();
+        emitter.block();
+
+        deviceEventService.subscribe(0, emitter);
+        deviceEventService.broadcast(List.of(event(1), event(2), event(3), event(4)));
+
+        assertEquals(0, deviceEventService.getSubscriberCount());
+        assertTrue(emitter.completed);
+        emitter.unblock();
+    }
+
+    private static DeviceOutboxEntity outbox(long offset) {
+        return DeviceOutboxEntity.builder()
+                .id(UUID.randomUUID())
+                .eventOffset(offset)
+                .eventType(DeviceEventType.CREATED)
+                .deviceId(UUID.randomUUID())
+                .payload("{\"name\":\"Phone\"}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static DeviceEvent event(long offset) {
+        return DeviceEvent.builder()
+                .offset(offset)
+                .type(DeviceEventType.UPDATED)
+                .deviceId(UUID.randomUUID())
+                .device("{\"name\":\"Phone\"}")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Records the id of every event sent; can hold the sending thread to simulate a slow client.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+
+        private final Object gate = new Object();
+
+        private boolean blocked;
+
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            synchronized (gate) {
+                while (blocked) {
+                    try {
+                        gate.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            String event = builder.build().iterator().next().getData().toString();
+            if (event.startsWith("id:")) {
+                ids.add(event.substring(3, event.indexOf('\n')));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            String id = ids.poll(5, TimeUnit.SECONDS);
+            assertNotNull(id, "no event received");
+            return id;
+        }
+
+        void block() {
+            synchronized (gate) {
+                blocked = true;
+            }
+        }
+
+        void unblock() {
+            synchronized (gate) {
+                blocked = false;
+                gate.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.device.service;
+
+import com.example.device.dto.DeviceStateInterval;
+import com.example.device.dto.DeviceTimeline;
+import com.example.device.dto.DeviceUtilization;
+import com.example.device.entity.DeviceState;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.InvalidTimeWindowException;
+import com.example.device.repository.DeviceStateHistoryRepository;
+import com.example.device.repository.DeviceStateHistoryRepository.CurrentState;
+import com.example.device.repository.DeviceStateHistoryRepository.StateChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceHistoryServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 3, 0, 0);
+
+    @Mock
+    private DeviceStateHistoryRepository historyRepository;
+
+    @InjectMocks
+    private DeviceHistoryService deviceHistoryService;
+
+    private final UUID deviceId = UUID.randomUUID();
+
+    @Test
+    void testGetTimeline_cutsIntervalsToTheWindow() {
+        when(historyRepository.findChanges(deviceId, FROM, TO)).thenReturn(List.of(
+                new StateChange(DeviceState.AVAILABLE, DeviceState.IN_USE, FROM.plusHours(12)),
+                new StateChange(DeviceState.IN_USE, DeviceState.AVAILABLE, FROM.plusHours(24)),
+                new StateChange(DeviceState.AVAILABLE, DeviceState.INACTIVE, TO.plusDays(2))));
+
+        DeviceTimeline timeline = deviceHistoryService.getTimeline(deviceId, FROM, TO);
+
+        assertEquals(List.of(
+                new DeviceStateInterval(DeviceState.AVAILABLE, FROM, FROM.plusHours(12)),
+                new DeviceStateInterval(DeviceState.IN_USE, FROM.plusHours(12), FROM.plusHours(24)),
+                new DeviceStateInterval(DeviceState.AVAILABLE, FROM.plusHours(24), TO)), timeline.getIntervals());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 36 * 3600.0, DeviceState.IN_USE, 12 * 3600.0), timeline.getSecondsInState());
+        verify(historyRepository, never()).findCurrentState(any());
+    }
+
+    @Test
+    void testGetTimeline_leavesOutTimeBeforeCreationAndAfterDeletion() {
+        when(historyRepository.findChanges(deviceId, FROM, TO)).thenReturn(List.of(
+                new StateChange(null, DeviceState.IN_USE, FROM.plusHours(6)),
+                new StateChange(DeviceState.IN_USE, null, FROM.plusHours(30))));
+
+        DeviceTimeline timeline = deviceHistoryService.getTimeline(deviceId, FROM, TO);
+
+        assertEquals(List.of(new DeviceStateInterval(DeviceState.IN_USE, FROM.plusHours(6), FROM.plusHours(30))),
+                timeline.getIntervals());
+    }
+
+    @Test
+    void testGetTimeline_unchangedDeviceSpendsTheWindowInItsCurrentState() {
+        when(historyRepository.findChanges(deviceId, FROM, TO)).thenReturn(List.of());
+        when(historyRepository.findCurrentState(deviceId)).thenReturn(Optional.of(new CurrentState(DeviceState.IN_USE)));
+
+        DeviceTimeline timeline = deviceHistoryService.getTimeline(deviceId, FROM, TO);
+
+        assertEquals(List.of(new DeviceStateInterval(DeviceState.IN_USE, FROM, TO)), timeline.getIntervals());
+    }
+
+    @Test
+    void testGetTimeline_unknownDevice() {
+        when(historyRepository.findChanges(deviceId, FROM, TO)).thenReturn(List.of());
+        when(historyRepository.findCurrentState(deviceId)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceHistoryService.getTimeline(deviceId, FROM, TO));
+    }
+
+    @Test
+    void testGetTimeline_defaultsToTheLastWeekUntilNow() {
+        when(historyRepository.findChanges(eq(deviceId), any(), any())).thenReturn(List.of());
+        when(historyRepository.findCurrentState(deviceId)).thenReturn(Optional.of(new CurrentState(DeviceState.AVAILABLE)));
+
+        DeviceTimeline timeline = deviceHistoryService.getTimeline(deviceId, null, LocalDateTime.now().plusDays(1));
+
+        assertFalse(timeline.getTo().isAfter(LocalDateTime.now()));
+        assertEquals(DeviceHistoryService.DEFAULT_WINDOW, Duration.between(timeline.getFrom(), timeline.getTo()));
+    }
+
+    @Test
+    void testGetTimeline_rejectsInvertedAndOversizedWindows() {
+        assertThrows(InvalidTimeWindowException.class, () -> deviceHistoryService.getTimeline(deviceId, TO, FROM));
+        assertThrows(InvalidTimeWindowException.class, () -> deviceHistoryService.getTimeline(deviceId, TO.minusYears(2), TO));
+        verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void testGetUtilization_isTheInUseShareOfDeviceTime() {
+        when(historyRepository.sumTimeInState(FROM, TO)).thenReturn(Map.of(
+                DeviceState.IN_USE, 30.0,
+                DeviceState.AVAILABLE, 60.0,
+                DeviceState.INACTIVE, 10.0));
+
+        DeviceUtilization utilization = deviceHistoryService.getUtilization(FROM, TO);
+
+        assertEquals(0.3, utilization.getUtilization(), 1e-9);
+        assertEquals(60.0, utilization.getSecondsInState().get(DeviceState.AVAILABLE));
+    }
+
+    @Test
+    void testGetUtilization_emptyFleet() {
+        when(historyRepository.sumTimeInState(FROM, TO)).thenReturn(Map.of());
+
+        assertEquals(0, deviceHistoryService.getUtilization(FROM, TO).getUtilization());
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceBatchProperties;
+import com.example.device.config.DeviceIndexProperties;
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceEvent;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.event.DeviceEventType;
+import com.example.device.event.DevicesImportedEvent;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceIndexTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private DeviceIndex deviceIndex;
+
+    @BeforeEach
+    void setUp() {
+        deviceIndex = new DeviceIndex(deviceRepository, objectMapper, new DeviceIndexProperties(true, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void testReload_startsServingAndIndexesByBrandAndState() {
+        Device phone = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        Device watch = device("Watch", "Garmin", DeviceState.IN_USE, 3L);
+        when(deviceRepository.findAllDevices()).thenReturn(List.of(phone, watch));
+        assertFalse(deviceIndex.isServing());
+
+        deviceIndex.reload();
+
+        assertTrue(deviceIndex.isServing());
+        assertEquals(List.of(phone), deviceIndex.findByBrand("Apple"));
+        assertEquals(List.of(watch), deviceIndex.findByState(DeviceState.IN_USE));
+        assertEquals(watch, deviceIndex.findById(watch.getId()).orElseThrow());
+        assertEquals(2, deviceIndex.findAll().size());
+    }
+
+    @Test
+    void testOnDeviceChanged_movesDeviceBetweenIndexes() {
+        Device before = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.created(before));
+        Device after = copy(before, "Samsung", DeviceState.IN_USE, 2L);
+
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.updated(before, after));
+
+        assertEquals(List.of(), deviceIndex.findByBrand("Apple"));
+        assertEquals(List.of(), deviceIndex.findByState(DeviceState.AVAILABLE));
+        assertEquals(List.of(after), deviceIndex.findByBrand("Samsung"));
+        assertEquals(List.of(after), deviceIndex.findByState(DeviceState.IN_USE));
+    }
+
+    @Test
+    void testCallersCannotModifyTheIndex() {
+        Device device = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.created(device));
+
+        device.setState(DeviceState.INACTIVE);
+        deviceIndex.findById(device.getId()).orElseThrow().setBrand("Samsung");
+        deviceIndex.findAll().get(0).setName("Watch");
+
+        Device indexed = deviceIndex.findById(device.getId()).orElseThrow();
+        assertEquals(DeviceState.AVAILABLE, indexed.getState());
+        assertEquals("Apple", indexed.getBrand());
+        assertEquals("Phone", indexed.getName());
+        assertNotSame(indexed, deviceIndex.findByBrand("Apple").get(0));
+    }
+
+    @Test
+    void testOlderVersionIsIgnored() {
+        Device current = device("Phone", "Apple", DeviceState.IN_USE, 5L);
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.created(current));
+
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.updated(current, copy(current, "Apple", DeviceState.AVAILABLE, 4L)));
+
+        assertEquals(DeviceState.IN_USE, deviceIndex.findById(current.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    void testBatchUpdate_replacesTheIndexedDevice() {
+        DeviceEntity stored = new DeviceEntity(UUID.randomUUID(), "Phone", "Apple", DeviceState.AVAILABLE,
+                LocalDateTime.of(2026, 1, 1, 0, 0), 0L);
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.created(DeviceMapper.toDto(stored)));
+        when(deviceRepository.findAllById(anyList())).thenReturn(List.of(stored));
+        // Hibernate increments the version when the update is flushed.
+        when(deviceRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<DeviceEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setVersion(entity.getVersion() + 1));
+            return entities;
+        });
+        DeviceBatchService deviceBatchService = new DeviceBatchService(deviceRepository, transactionManager,
+                new ConcurrentMapCacheManager(CacheConfig.DEVICES),
+                event -> deviceIndex.onDeviceChanged((DeviceChangedEvent) event),
+                new DeviceBatchProperties(10));
+
+        deviceBatchService.updateDevices(List.of(Device.builder().id(stored.getId()).name("Phone").brand("Samsung").build()).iterator());
+
+        Device indexed = deviceIndex.findById(stored.getId()).orElseThrow();
+        assertEquals("Samsung", indexed.getBrand());
+        assertEquals(1L, indexed.getVersion());
+        assertEquals(List.of(), deviceIndex.findByBrand("Apple"));
+        assertEquals(List.of(indexed), deviceIndex.findByBrand("Samsung"));
+    }
+
+    @Test
+    void testLateUpdateDoesNotResurrectDeletedDevice() throws Exception {
+        Device device = device("Phone", "Apple", DeviceState.AVAILABLE, 2L);
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.created(device));
+        deviceIndex.onDeviceChanged(DeviceChangedEvent.deleted(device));
+
+        deviceIndex.onRelayed(List.of(event(DeviceEventType.UPDATED, device)));
+
+        assertTrue(deviceIndex.findById(device.getId()).isEmpty());
+        assertEquals(List.of(), deviceIndex.findByBrand("Apple"));
+    }
+
+    @Test
+    void testOnRelayed_appliesChangesOfOtherInstances() throws Exception {
+        Device device = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+
+        deviceIndex.onRelayed(List.of(event(DeviceEventType.CREATED, device)));
+        assertEquals(device, deviceIndex.findById(device.getId()).orElseThrow());
+
+        deviceIndex.onRelayed(List.of(event(DeviceEventType.DELETED, device)));
+        assertTrue(deviceIndex.findById(device.getId()).isEmpty());
+    }
+
+    @Test
+    void testOnRelayed_archivedDeviceLeavesTheIndex() throws Exception {
+        Device device = device("Phone", "Apple", DeviceState.INACTIVE, 1L);
+        deviceIndex.onRelayed(List.of(event(DeviceEventType.CREATED, device)));
+
+        deviceIndex.onRelayed(List.of(event(DeviceEventType.ARCHIVED, device)));
+
+        assertTrue(deviceIndex.findById(device.getId()).isEmpty());
+        assertEquals(List.of(), deviceIndex.findByState(DeviceState.INACTIVE));
+    }
+
+    @Test
+    void testReload_keepsChangesAppliedWhileTheTableIsRead() {
+        Device stale = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        Device newer = copy(stale, "Apple", DeviceState.IN_USE, 2L);
+        when(deviceRepository.findAllDevices()).thenAnswer(invocation -> {
+            deviceIndex.onDeviceChanged(DeviceChangedEvent.updated(stale, newer));
+            return List.of(stale);
+        });
+
+        deviceIndex.reload();
+
+        assertEquals(DeviceState.IN_USE, deviceIndex.findById(stale.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    void testReload_dropsDevicesDeletedOutsideTheService() {
+        Device kept = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        Device deleted = device("Watch", "Garmin", DeviceState.AVAILABLE, 1L);
+        when(deviceRepository.findAllDevices()).thenReturn(List.of(kept, deleted), List.of(kept));
+
+        deviceIndex.reload();
+        deviceIndex.reload();
+
+        assertEquals(List.of(kept), deviceIndex.findAll());
+        assertEquals(List.of(kept), deviceIndex.findByState(DeviceState.AVAILABLE));
+    }
+
+    @Test
+    void testDevicesImported_reloadWaitsForTheRunningReload() throws Exception {
+        Device phone = device("Phone", "Apple", DeviceState.AVAILABLE, 1L);
+        Device imported = device("Watch", "Garmin", DeviceState.AVAILABLE, 1L);
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch secondReading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(deviceRepository.findAllDevices()).thenAnswer(invocation -> {
+            firstReading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(phone);
+        }).thenAnswer(invocation -> {
+            secondReading.countDown();
+            return List.of(phone, imported);
+        });
+
+        CompletableFuture<Void> scheduled = CompletableFuture.runAsync(deviceIndex::reload);
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> afterImport = CompletableFuture.runAsync(() -> deviceIndex.onDevicesImported(new DevicesImportedEvent(1)));
+
+        assertFalse(secondReading.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        scheduled.get(5, TimeUnit.SECONDS);
+        afterImport.get(5, TimeUnit.SECONDS);
+        assertEquals(2, deviceIndex.size());
+    }
+
+    @Test
+    void testReload_failureBeforeFirstLoadKeepsReadsOnTheDatabase() {
+        when(deviceRepository.findAllDevices()).thenThrow(new QueryTimeoutException("timeout"));
+
+        deviceIndex.reload();
+
+        assertFalse(deviceIndex.isServing());
+    }
+
+    @Test
+    void testDisabledIndexNeverLoads() {
+        DeviceIndex disabled = new DeviceIndex(deviceRepository, objectMapper, new DeviceIndexProperties(false, Duration.ofMinutes(5)));
+
+        disabled.reload();
+        disabled.onDeviceChanged(DeviceChangedEvent.created(device("Phone", "Apple", DeviceState.AVAILABLE, 1L)));
+
+        assertFalse(disabled.isServing());
+        assertEquals(0, disabled.size());
+        verifyNoInteractions(deviceRepository);
+    }
+
+    private DeviceEvent event(DeviceEventType type, Device device) throws Exception {
+        return DeviceEvent.builder()
+                .type(type)
+                .deviceId(device.getId())
+                .device(objectMapper.writeValueAsString(device))
+                .build();
+    }
+
+    private static Device device(String name, String brand, DeviceState state, long version) {
+        return new Device(UUID.randomUUID(), name, brand, state, LocalDateTime.of(2026, 1, 1, 0, 0), version);
+    }
+
+    private static Device copy(Device device, String brand, DeviceState state, long version) {
+        return new Device(device.getId(), device.getName(), brand, state, device.getCreatedAt(), version);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceOutboxEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.event.DeviceEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceOutboxWriterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    private DeviceOutboxWriter deviceOutboxWriter;
+
+    @BeforeEach
+    void setUp() {
+        deviceOutboxWriter = new DeviceOutboxWriter(entityManager, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void testOnDeviceChanged_stateChangeRecordsAfterImage() {
+        Device before = device(DeviceState.AVAILABLE);
+        Device after = device(DeviceState.IN_USE);
+        after.setId(before.getId());
+
+        deviceOutboxWriter.onDeviceChanged(DeviceChangedEvent.updated(before, after));
+
+        DeviceOutboxEntity outboxEntity = persisted();
+        assertNotNull(outboxEntity.getId());
+        assertNull(outboxEntity.getEventOffset());
+        assertEquals(DeviceEventType.STATE_CHANGED, outboxEntity.getEventType());
+        assertEquals(before.getId(), outboxEntity.getDeviceId());
+        assertTrue(outboxEntity.getPayload().contains("\"state\":\"IN_USE\""));
+    }
+
+    @Test
+    void testOnDeviceChanged_deleteRecordsBeforeImage() {
+        Device before = device(DeviceState.INACTIVE);
+
+        deviceOutboxWriter.onDeviceChanged(DeviceChangedEvent.deleted(before));
+
+        DeviceOutboxEntity outboxEntity = persisted();
+        assertEquals(DeviceEventType.DELETED, outboxEntity.getEventType());
+        assertTrue(outboxEntity.getPayload().contains("\"state\":\"INACTIVE\""));
+    }
+
+    @Test
+    void testOnDeviceChanged_archiveIsItsOwnType() {
+        deviceOutboxWriter.onDeviceChanged(DeviceChangedEvent.archived(device(DeviceState.INACTIVE)));
+
+        assertEquals(DeviceEventType.ARCHIVED, persisted().getEventType());
+    }
+
+    private DeviceOutboxEntity persisted() {
+        ArgumentCaptor<DeviceOutboxEntity> captor = ArgumentCaptor.forClass(DeviceOutboxEntity.class);
+        verify(entityManager).persist(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Device device(DeviceState state) {
+        return Device.builder()
+                .id(UUID.randomUUID())
+                .name("Phone")
+                .brand("Apple")
+                .state(state)
+                .version(1L)
+                .build();
+    }
+}
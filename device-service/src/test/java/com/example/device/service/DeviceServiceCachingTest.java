@@ -0,0 +1,109 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.dto.Device;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceArchiveRepository;
+import com.example.device.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(DeviceServiceCachingTest.Config.class)
+class DeviceServiceCachingTest {
+
+    @Configuration
+    @Import({CacheConfig.class, DeviceService.class})
+    static class Config {
+    }
+
+    @MockBean
+    private DeviceRepository deviceRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private DeviceIndex deviceIndex;
+
+    @MockBean
+    private DeviceArchiveRepository archiveRepository;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DEVICES).clear();
+        deviceId = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(deviceId, "Phone", "Apple", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.findById(deviceId)).thenReturn(Optional.of(entity));
+        when(deviceRepository.findDeviceById(deviceId)).thenReturn(Optional.of(DeviceMapper.toDto(entity)));
+    }
+
+    @Test
+    void testGetDeviceById_servedFromCacheOnSecondRead() {
+        deviceService.getDeviceById(deviceId);
+        var result = deviceService.getDeviceById(deviceId);
+
+        assertEquals("Phone", result.getName());
+        verify(deviceRepository, times(1)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testGetDeviceById_callersGetTheirOwnCopy() {
+        deviceService.getDeviceById(deviceId).setName("Changed");
+        var result = deviceService.getDeviceById(deviceId);
+
+        assertEquals("Phone", result.getName());
+        assertNotSame(result, deviceService.getDeviceById(deviceId));
+        verify(deviceRepository, times(1)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testDeleteDeviceById_evictsEntry() {
+        deviceService.getDeviceById(deviceId);
+        deviceService.deleteDeviceById(deviceId);
+        deviceService.getDeviceById(deviceId);
+
+        verify(deviceRepository, times(2)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testUpdateDevice_refreshesEntry() {
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        deviceService.getDeviceById(deviceId);
+        Device update = Device.builder()
+                .id(deviceId)
+                .name("Phone")
+                .brand("Apple")
+                .state(DeviceState.IN_USE)
+                .build();
+
+        deviceService.updateDevice(update, null);
+        var result = deviceService.getDeviceById(deviceId);
+
+        assertEquals(DeviceState.IN_USE, result.getState());
+        verify(deviceRepository, times(1)).findDeviceById(deviceId);
+    }
+}
@@ -0,0 +1,504 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DevicePage;
+import com.example.device.dto.DeviceSearchRequest;
+import com.example.device.dto.DeviceSortField;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.exception.DeviceInUseException;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.exception.DeviceStateConflictException;
+import com.example.device.exception.DeviceVersionMismatchException;
+import com.example.device.exception.InvalidCursorException;
+import com.example.device.exception.InvalidDeviceException;
+import com.example.device.mapper.DeviceMapper;
+import com.example.device.repository.DeviceArchiveRepository;
+import com.example.device.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeviceServiceTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DeviceIndex deviceIndex;
+
+    @Mock
+    private DeviceArchiveRepository archiveRepository;
+
+    @InjectMocks
+    private DeviceService deviceService;
+
+    private UUID deviceId;
+    private DeviceEntity deviceEntity;
+
+    @BeforeEach
+    void setUp() {
+        deviceId = UUID.randomUUID();
+        deviceEntity = new DeviceEntity();
+        deviceEntity.setId(deviceId);
+        deviceEntity.setName("Test Device");
+        deviceEntity.setBrand("Test Brand");
+        deviceEntity.setState(DeviceState.AVAILABLE);
+    }
+
+    @Test
+    void testCreateDevice_success() {
+        DeviceEntity entity = new DeviceEntity(deviceId, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device toSave = DeviceMapper.toDto(entity);
+        Device result = deviceService.saveDevice(toSave);
+
+        assertEquals("Cisco", result.getBrand());
+        verify(deviceRepository, times(1)).saveAndFlush(any(DeviceEntity.class));
+    }
+
+    @Test
+    void testCreateDevice_nameTooLong() {
+        Device toSave = Device.builder().name("x".repeat(51)).brand("Cisco").build();
+
+        InvalidDeviceException exception = assertThrows(InvalidDeviceException.class, () -> deviceService.saveDevice(toSave));
+
+        assertEquals("Device name is required and must be at most 50 characters", exception.getMessage());
+        verify(deviceRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testGetDeviceById_found() {
+        when(deviceRepository.findDeviceById(deviceId)).thenReturn(Optional.of(DeviceMapper.toDto(deviceEntity)));
+
+        var result = deviceService.getDeviceById(deviceId);
+
+        assertEquals("Test Device", result.getName());
+        verify(deviceRepository, times(1)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testGetDeviceById_notFound() {
+        when(deviceRepository.findDeviceById(deviceId)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class,
+                () -> deviceService.getDeviceById(deviceId));
+
+        verify(deviceRepository, times(1)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testGetDeviceById_archivedOnlyWhenIncluded() {
+        Device archived = DeviceMapper.toDto(deviceEntity);
+        archived.setState(DeviceState.INACTIVE);
+        when(deviceRepository.findDeviceById(deviceId)).thenReturn(Optional.empty());
+        when(archiveRepository.findDeviceById(deviceId)).thenReturn(Optional.of(archived));
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceService.getDeviceById(deviceId));
+        assertEquals(archived, deviceService.getDeviceByIdIncludingArchived(deviceId));
+
+        verify(archiveRepository, times(1)).findDeviceById(deviceId);
+    }
+
+    @Test
+    void testFindAllDevicesByBrand_includingArchivedAppendsArchive() {
+        Device active = DeviceMapper.toDto(deviceEntity);
+        Device archived = new Device(UUID.randomUUID(), "Old", "Test Brand", DeviceState.INACTIVE, null, 3L);
+        when(deviceRepository.findDevicesByBrand("Test Brand")).thenReturn(List.of(active));
+        when(archiveRepository.findDevicesByBrand("Test Brand")).thenReturn(List.of(archived));
+
+        assertEquals(List.of(active), deviceService.findAllDevicesByBrand("Test Brand"));
+        assertEquals(List.of(active, archived), deviceService.findAllDevicesByBrandIncludingArchived("Test Brand"));
+
+        verify(archiveRepository, times(1)).findDevicesByBrand("Test Brand");
+    }
+
+    @Test
+    void testGetAllDevices_found() {
+        when(deviceRepository.findAllDevices()).thenReturn(Collections.singletonList(DeviceMapper.toDto(deviceEntity)));
+
+        var result = deviceService.findAll();
+
+        assertFalse(result.isEmpty());
+        verify(deviceRepository, times(1)).findAllDevices();
+    }
+
+    @Test
+    void testGetAllDevices_NotFound() {
+        when(deviceRepository.findAllDevices()).thenReturn(Collections.emptyList());
+        var result = deviceService.findAll();
+        assertTrue(result.isEmpty());
+
+        verify(deviceRepository, times(1)).findAllDevices();
+    }
+
+    @Test
+    void testFindPage_firstPageWithNext() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        DeviceEntity first = new DeviceEntity(UUID.randomUUID(), "Phone", "Apple", DeviceState.AVAILABLE, createdAt, 0L);
+        DeviceEntity second = new DeviceEntity(UUID.randomUUID(), "Tablet", "Apple", DeviceState.AVAILABLE, createdAt.plusSeconds(1), 0L);
+        when(deviceRepository.findFirstPage(Limit.of(2))).thenReturn(List.of(DeviceMapper.toDto(first), DeviceMapper.toDto(second)));
+
+        DevicePage page = deviceService.findPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(first.getId(), page.getItems().get(0).getId());
+        DeviceCursor next = DeviceCursor.decode(page.getNextCursor());
+        assertEquals(createdAt, next.createdAt());
+        assertEquals(first.getId(), next.id());
+    }
+
+    @Test
+    void testFindPage_continuesAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        UUID lastSeen = UUID.randomUUID();
+        String cursor = new DeviceCursor(createdAt, lastSeen).encode();
+        when(deviceRepository.findPageAfter(createdAt, lastSeen, Limit.of(11)))
+                .thenReturn(Collections.singletonList(DeviceMapper.toDto(deviceEntity)));
+
+        DevicePage page = deviceService.findPage(cursor, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFindPage_invalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> deviceService.findPage("not-a-cursor", 10));
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void testStreamAll_detachesEachEntity() {
+        when(deviceRepository.streamAll()).thenReturn(Stream.of(deviceEntity));
+        List<Device> streamed = new ArrayList<>();
+
+        deviceService.streamAll(streamed::add);
+
+        assertEquals(1, streamed.size());
+        assertEquals("Test Device", streamed.get(0).getName());
+        verify(entityManager, times(1)).detach(deviceEntity);
+    }
+
+    @Test
+    void testSearch_firstPageWithNext() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder()
+                .brand("apple")
+                .sort(DeviceSortField.NAME)
+                .build();
+        Device phone = Device.builder().id(UUID.randomUUID()).name("Phone").brand("Apple").build();
+        Device tablet = Device.builder().id(UUID.randomUUID()).name("Tablet").brand("Apple").build();
+        when(deviceRepository.search(request, null, null, 2)).thenReturn(List.of(phone, tablet));
+
+        DevicePage page = deviceService.search(request, null, 1);
+
+        assertEquals(List.of(phone), page.getItems());
+        DeviceSearchCursor next = DeviceSearchCursor.decode(page.getNextCursor(), DeviceSortField.NAME);
+        assertEquals("Phone", next.value());
+        assertEquals(phone.getId(), next.id());
+    }
+
+    @Test
+    void testSearch_continuesAfterCursor() {
+        DeviceSearchRequest request = DeviceSearchRequest.builder().build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        UUID lastSeen = UUID.randomUUID();
+        String cursor = new DeviceSearchCursor(DeviceSortField.CREATED_AT, createdAt, lastSeen).encode();
+        when(deviceRepository.search(request, createdAt, lastSeen, 11)).thenReturn(List.of());
+
+        DevicePage page = deviceService.search(request, cursor, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testSearch_cursorFromOtherSortRejected() {
+        String cursor = new DeviceSearchCursor(DeviceSortField.NAME, "Phone", UUID.randomUUID()).encode();
+        DeviceSearchRequest request = DeviceSearchRequest.builder().build();
+
+        assertThrows(InvalidCursorException.class, () -> deviceService.search(request, cursor, 10));
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void testGetDevicesByBrand_found() {
+        when(deviceRepository.findDevicesByBrand("Test Brand")).thenReturn(Collections.singletonList(DeviceMapper.toDto(deviceEntity)));
+
+        var result = deviceService.findAllDevicesByBrand("Test Brand");
+
+        assertFalse(result.isEmpty());
+        verify(deviceRepository, times(1)).findDevicesByBrand("Test Brand");
+    }
+
+    @Test
+    void testGetDevicesByBrand_NotFound() {
+        when(deviceRepository.findDevicesByBrand("Test Brand")).thenReturn(Collections.emptyList());
+
+        var result = deviceService.findAllDevicesByBrand("Test Brand");
+
+        assertTrue(result.isEmpty());
+        verify(deviceRepository, times(1)).findDevicesByBrand("Test Brand");
+    }
+
+
+    @Test
+    void testGetDevicesByState_Found() {
+        when(deviceRepository.findDevicesByState(DeviceState.AVAILABLE)).thenReturn(Collections.singletonList(DeviceMapper.toDto(deviceEntity)));
+        var result = deviceService.findAllDevicesByState(DeviceState.AVAILABLE);
+        assertFalse(result.isEmpty());
+
+        verify(deviceRepository, times(1)).findDevicesByState(DeviceState.AVAILABLE);
+    }
+
+    @Test
+    void testGetDevicesByState_NotFound() {
+        when(deviceRepository.findDevicesByState(DeviceState.AVAILABLE)).thenReturn(Collections.emptyList());
+        var result = deviceService.findAllDevicesByState(DeviceState.AVAILABLE);
+        assertTrue(result.isEmpty());
+
+        verify(deviceRepository, times(1)).findDevicesByState(DeviceState.AVAILABLE);
+    }
+
+    @Test
+    void testDeleteDeviceById_inUseThrowsException() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Laptop", "Dell", DeviceState.IN_USE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        assertThrows(DeviceInUseException.class, () -> deviceService.deleteDeviceById(id));
+        verify(deviceRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void testDeleteDeviceById_NotFound() {
+        when(deviceRepository.findById(deviceId)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceService.deleteDeviceById(deviceId));
+        verify(deviceRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void testDeleteDeviceById_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Tablet", "Apple", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        deviceService.deleteDeviceById(id);
+
+        verify(deviceRepository, times(1)).deleteById(id);
+    }
+
+    @Test
+    void testUpdateDevice_inUseChangeStatus_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Watch", "Garmin", DeviceState.IN_USE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setState(DeviceState.INACTIVE);
+
+        Device result = deviceService.updateDevice(updated, null);
+
+        assertEquals(DeviceState.INACTIVE, result.getState());
+        verify(deviceRepository, times(1)).saveAndFlush(any(DeviceEntity.class));
+    }
+
+    @Test
+    void testUpdateDevice_inUseNameChangeThrowsException() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Watch", "Garmin", DeviceState.IN_USE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setName("NewWatch");
+
+        assertThrows(DeviceInUseException.class, () -> deviceService.updateDevice(updated, null));
+    }
+
+    @Test
+    void testUpdateDevice_partialUpdate_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setBrand("Juniper");
+
+        Device result = deviceService.updateDevice(updated, null);
+
+        assertEquals("Juniper", result.getBrand());
+        verify(deviceRepository, times(1)).saveAndFlush(any(DeviceEntity.class));
+    }
+
+    @Test
+    void testUpdateDevice_fullUpdate_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setBrand("Juniper");
+        updated.setName("Juniper Inc");
+        updated.setState(DeviceState.IN_USE);
+
+        Device result = deviceService.updateDevice(updated, null);
+
+        assertEquals("Juniper", result.getBrand());
+        verify(deviceRepository, times(1)).saveAndFlush(any(DeviceEntity.class));
+    }
+
+    @Test
+    void testUpdateDevice_matchingVersion_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Router", "Cisco", DeviceState.AVAILABLE, null, 3L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setState(DeviceState.IN_USE);
+
+        Device result = deviceService.updateDevice(updated, 3L);
+
+        assertEquals(DeviceState.IN_USE, result.getState());
+    }
+
+    @Test
+    void testUpdateDevice_publishesChange() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Router", "Cisco", DeviceState.AVAILABLE, null, 0L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setState(DeviceState.IN_USE);
+
+        deviceService.updateDevice(updated, null);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DeviceChangedEvent changed
+                && changed.before().getState() == DeviceState.AVAILABLE
+                && changed.after().getState() == DeviceState.IN_USE));
+    }
+
+    @Test
+    void testUpdateDevice_staleVersionThrowsException() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity entity = new DeviceEntity(id, "Router", "Cisco", DeviceState.AVAILABLE, null, 3L);
+        when(deviceRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        Device updated = DeviceMapper.toDto(entity);
+        updated.setState(DeviceState.IN_USE);
+
+        assertThrows(DeviceVersionMismatchException.class, () -> deviceService.updateDevice(updated, 2L));
+        verify(deviceRepository, never()).saveAndFlush(any(DeviceEntity.class));
+    }
+
+    @Test
+    void testTransitionState_success() {
+        UUID id = UUID.randomUUID();
+        DeviceEntity transitioned = new DeviceEntity(id, "Watch", "Garmin", DeviceState.IN_USE, null, 1L);
+        when(deviceRepository.transitionState(id, "AVAILABLE", "IN_USE")).thenReturn(Optional.of(transitioned));
+
+        Device result = deviceService.transitionState(id, DeviceState.AVAILABLE, DeviceState.IN_USE);
+
+        assertEquals(DeviceState.IN_USE, result.getState());
+        assertEquals(1L, result.getVersion());
+        verify(deviceRepository, never()).findById(any());
+        verify(deviceRepository, never()).findDeviceById(any());
+    }
+
+    @Test
+    void testTransitionState_otherStateThrowsConflict() {
+        UUID id = UUID.randomUUID();
+        when(deviceRepository.transitionState(id, "AVAILABLE", "IN_USE")).thenReturn(Optional.empty());
+        when(deviceRepository.findDeviceById(id)).thenReturn(Optional.of(Device.builder()
+                .id(id)
+                .state(DeviceState.IN_USE)
+                .build()));
+
+        assertThrows(DeviceStateConflictException.class,
+                () -> deviceService.transitionState(id, DeviceState.AVAILABLE, DeviceState.IN_USE));
+    }
+
+    @Test
+    void testTransitionState_notFound() {
+        UUID id = UUID.randomUUID();
+        when(deviceRepository.transitionState(id, "AVAILABLE", "IN_USE")).thenReturn(Optional.empty());
+        when(deviceRepository.findDeviceById(id)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class,
+                () -> deviceService.transitionState(id, DeviceState.AVAILABLE, DeviceState.IN_USE));
+    }
+
+    @Test
+    void testSetState_inUseDeviceCanChangeState() {
+        deviceEntity.setState(DeviceState.IN_USE);
+        when(deviceRepository.findById(deviceId)).thenReturn(Optional.of(deviceEntity));
+        when(deviceRepository.saveAndFlush(deviceEntity)).thenReturn(deviceEntity);
+
+        Device result = deviceService.setState(deviceId, DeviceState.AVAILABLE);
+
+        assertEquals(DeviceState.AVAILABLE, result.getState());
+        verify(eventPublisher).publishEvent(any(DeviceChangedEvent.class));
+    }
+
+    @Test
+    void testSetState_sameStateWritesNothing() {
+        when(deviceRepository.findById(deviceId)).thenReturn(Optional.of(deviceEntity));
+
+        deviceService.setState(deviceId, DeviceState.AVAILABLE);
+
+        verify(deviceRepository, never()).saveAndFlush(any(DeviceEntity.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testFindAllDevicesByBrand_servedFromIndex() {
+        Device indexed = DeviceMapper.toDto(deviceEntity);
+        when(deviceIndex.isServing()).thenReturn(true);
+        when(deviceIndex.findByBrand("Test Brand")).thenReturn(List.of(indexed));
+
+        assertEquals(List.of(indexed), deviceService.findAllDevicesByBrand("Test Brand"));
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void testGetDeviceById_notInIndexThrows() {
+        when(deviceIndex.isServing()).thenReturn(true);
+        when(deviceIndex.findById(deviceId)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceService.getDeviceById(deviceId));
+        verifyNoInteractions(deviceRepository);
+    }
+}
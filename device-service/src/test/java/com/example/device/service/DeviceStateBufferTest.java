@@ -0,0 +1,239 @@
+package com.example.device.service;
+
+import com.example.device.config.CacheConfig;
+import com.example.device.config.DeviceBatchProperties;
+import com.example.device.config.WriteBehindProperties;
+import com.example.device.dto.Device;
+import com.example.device.dto.WriteAck;
+import com.example.device.entity.DeviceEntity;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.exception.DeviceNotFoundException;
+import com.example.device.repository.DeviceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStateBufferTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache deviceCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DeviceStateBuffer deviceStateBuffer;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheConfig.DEVICES)).thenReturn(deviceCache);
+        deviceStateBuffer = buffer(true);
+        // A flush interval that never fires on its own; the tests flush explicitly.
+        deviceStateBuffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deviceStateBuffer.stop();
+    }
+
+    @Test
+    void testSetState_disabledWritesThrough() {
+        DeviceStateBuffer disabled = buffer(false);
+        disabled.start();
+        UUID id = UUID.randomUUID();
+        Device device = Device.builder().id(id).state(DeviceState.IN_USE).build();
+        when(deviceService.setState(id, DeviceState.IN_USE)).thenReturn(device);
+
+        assertSame(device, disabled.setState(id, DeviceState.IN_USE, WriteAck.ACCEPTED));
+        assertFalse(disabled.isRunning());
+    }
+
+    @Test
+    void testFlush_coalescesWritesToOneUpdatePerDevice() {
+        DeviceEntity deviceEntity = entity(DeviceState.AVAILABLE);
+        UUID id = deviceEntity.getId();
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(deviceEntity));
+        doAnswer(invocation -> {
+            deviceEntity.setVersion(deviceEntity.getVersion() + 1);
+            return null;
+        }).when(deviceRepository).flush();
+
+        assertNull(deviceStateBuffer.setState(id, DeviceState.IN_USE, null));
+        assertNull(deviceStateBuffer.setState(id, DeviceState.AVAILABLE, null));
+        assertNull(deviceStateBuffer.setState(id, DeviceState.INACTIVE, null));
+        assertEquals(1, deviceStateBuffer.getPendingCount());
+
+        assertEquals(1, deviceStateBuffer.flush());
+
+        assertEquals(DeviceState.INACTIVE, deviceEntity.getState());
+        ArgumentCaptor<DeviceChangedEvent> event = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(DeviceState.AVAILABLE, event.getValue().before().getState());
+        assertEquals(DeviceState.INACTIVE, event.getValue().after().getState());
+        assertEquals(2L, event.getValue().after().getVersion());
+        verify(deviceCache).put(eq(id), any(Device.class));
+        verify(transactionManager).commit(any());
+        verifyNoInteractions(deviceService);
+        assertEquals(0, deviceStateBuffer.getPendingCount());
+    }
+
+    @Test
+    void testFlush_unchangedStateWritesNothing() {
+        DeviceEntity deviceEntity = entity(DeviceState.IN_USE);
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(deviceEntity));
+
+        deviceStateBuffer.setState(deviceEntity.getId(), DeviceState.IN_USE, null);
+        deviceStateBuffer.flush();
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1L, deviceEntity.getVersion());
+    }
+
+    @Test
+    void testSetState_flushedAckWaitsForTheFlush() throws Exception {
+        DeviceEntity deviceEntity = entity(DeviceState.AVAILABLE);
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(deviceEntity));
+
+        CompletableFuture<Device> written = CompletableFuture.supplyAsync(
+                () -> deviceStateBuffer.setState(deviceEntity.getId(), DeviceState.IN_USE, WriteAck.FLUSHED));
+        awaitPending(1);
+        assertFalse(written.isDone());
+
+        deviceStateBuffer.flush();
+
+        assertEquals(DeviceState.IN_USE, written.get(5, TimeUnit.SECONDS).getState());
+    }
+
+    @Test
+    void testSetState_flushedAckReportsMissingDevice() {
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of());
+        UUID id = UUID.randomUUID();
+
+        CompletableFuture<Device> written = CompletableFuture.supplyAsync(
+                () -> deviceStateBuffer.setState(id, DeviceState.IN_USE, WriteAck.FLUSHED));
+        awaitPending(1);
+        deviceStateBuffer.flush();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> written.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeviceNotFoundException.class, thrown.getCause());
+    }
+
+    @Test
+    void testFlush_failedChunkIsRequeued() {
+        DeviceEntity deviceEntity = entity(DeviceState.AVAILABLE);
+        when(deviceRepository.findAllByIdForUpdate(anyCollection()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(deviceEntity));
+
+        deviceStateBuffer.setState(deviceEntity.getId(), DeviceState.IN_USE, null);
+        assertEquals(0, deviceStateBuffer.flush());
+        assertEquals(1, deviceStateBuffer.getPendingCount());
+
+        deviceStateBuffer.flush();
+        assertEquals(0, deviceStateBuffer.getPendingCount());
+        assertEquals(DeviceState.IN_USE, deviceEntity.getState());
+    }
+
+    @Test
+    void testFlush_failingListenerFailsTheWaitingWriters() {
+        DeviceEntity deviceEntity = entity(DeviceState.AVAILABLE);
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(deviceEntity));
+        doThrow(new IllegalStateException("not serializable")).when(eventPublisher).publishEvent(any(DeviceChangedEvent.class));
+
+        CompletableFuture<Device> written = CompletableFuture.supplyAsync(
+                () -> deviceStateBuffer.setState(deviceEntity.getId(), DeviceState.IN_USE, WriteAck.FLUSHED));
+        awaitPending(1);
+
+        assertEquals(0, deviceStateBuffer.flush());
+        assertEquals(0, deviceStateBuffer.getPendingCount());
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> written.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    }
+
+    @Test
+    void testStop_flushesWhatIsBuffered() {
+        DeviceEntity deviceEntity = entity(DeviceState.AVAILABLE);
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(deviceEntity));
+
+        deviceStateBuffer.setState(deviceEntity.getId(), DeviceState.IN_USE, null);
+        deviceStateBuffer.stop();
+
+        assertEquals(DeviceState.IN_USE, deviceEntity.getState());
+        assertEquals(0, deviceStateBuffer.getPendingCount());
+    }
+
+    @Test
+    void testFlush_chunksByBatchSize() {
+        when(deviceRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of());
+        for (int i = 0; i < 5; i++) {
+            deviceStateBuffer.setState(UUID.randomUUID(), DeviceState.IN_USE, null);
+        }
+
+        assertEquals(5, deviceStateBuffer.flush());
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.captor();
+        verify(deviceRepository, times(3)).findAllByIdForUpdate(ids.capture());
+        assertEquals(List.of(2, 2, 1), ids.getAllValues().stream().map(Collection::size).toList());
+    }
+
+    private DeviceStateBuffer buffer(boolean enabled) {
+        WriteBehindProperties properties = new WriteBehindProperties(enabled, Duration.ofHours(1), 1000, 100, WriteAck.ACCEPTED,
+                Duration.ofSeconds(5));
+        return new DeviceStateBuffer(deviceService, deviceRepository, transactionManager, cacheManager, eventPublisher,
+                properties, new DeviceBatchProperties(2));
+    }
+
+    private void awaitPending(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deviceStateBuffer.getPendingCount() < count && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(count, deviceStateBuffer.getPendingCount());
+    }
+
+    private static DeviceEntity entity(DeviceState state) {
+        return DeviceEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Watch")
+                .brand("Garmin")
+                .state(state)
+                .version(1L)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.device.service;
+
+import com.example.device.dto.Device;
+import com.example.device.dto.DeviceCount;
+import com.example.device.dto.DeviceStats;
+import com.example.device.entity.DeviceState;
+import com.example.device.event.DeviceChangedEvent;
+import com.example.device.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatsServiceTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    private DeviceStatsService deviceStatsService;
+
+    @BeforeEach
+    void setUp() {
+        deviceStatsService = new DeviceStatsService(deviceRepository);
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                new DeviceCount("Apple", DeviceState.AVAILABLE, 3L),
+                new DeviceCount("Apple", DeviceState.IN_USE, 1L),
+                new DeviceCount("Garmin", DeviceState.AVAILABLE, 2L),
+                new DeviceCount("Garmin", null, 1L)));
+        deviceStatsService.reconcile();
+    }
+
+    @Test
+    void testReconcile_aggregatesGroupByRows() {
+        DeviceStats stats = deviceStatsService.getStats();
+
+        assertEquals(7, stats.getTotal());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 5L, DeviceState.IN_USE, 1L), stats.getByState());
+        assertEquals(Map.of("Apple", 4L, "Garmin", 3L), stats.getByBrand());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 3L, DeviceState.IN_USE, 1L), stats.getByBrandAndState().get("Apple"));
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    void testEvents_adjustCounters() {
+        deviceStatsService.onDeviceChanged(DeviceChangedEvent.created(device("Nokia", DeviceState.AVAILABLE)));
+        deviceStatsService.onDeviceChanged(DeviceChangedEvent.updated(
+                device("Apple", DeviceState.AVAILABLE), device("Apple", DeviceState.IN_USE)));
+        deviceStatsService.onDeviceChanged(DeviceChangedEvent.deleted(device("Garmin", DeviceState.AVAILABLE)));
+
+        DeviceStats stats = deviceStatsService.getStats();
+
+        assertEquals(7, stats.getTotal());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 4L, DeviceState.IN_USE, 2L), stats.getByState());
+        assertEquals(Map.of("Apple", 4L, "Garmin", 2L, "Nokia", 1L), stats.getByBrand());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 2L, DeviceState.IN_USE, 2L), stats.getByBrandAndState().get("Apple"));
+    }
+
+    @Test
+    void testEvents_unchangedBrandAndStateLeaveCountersAlone() {
+        deviceStatsService.onDeviceChanged(DeviceChangedEvent.updated(
+                device("Apple", DeviceState.IN_USE), device("Apple", DeviceState.IN_USE)));
+
+        assertEquals(Map.of(DeviceState.AVAILABLE, 3L, DeviceState.IN_USE, 1L),
+                deviceStatsService.getStats().getByBrandAndState().get("Apple"));
+    }
+
+    @Test
+    void testReconcile_replacesDriftedCounters() {
+        deviceStatsService.onDeviceChanged(DeviceChangedEvent.created(device("Nokia", DeviceState.AVAILABLE)));
+
+        deviceStatsService.reconcile();
+
+        assertEquals(Map.of("Apple", 4L, "Garmin", 3L), deviceStatsService.getStats().getByBrand());
+    }
+
+    private static Device device(String brand, DeviceState state) {
+        return Device.builder()
+                .name("Device")
+                .brand(brand)
+                .state(state)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+// k6 load test for the read endpoints. Run once against each execution mode:
+//
+//   DEVICE_VIRTUAL_THREADS=false docker compose up   ->  k6 run -e CLIENTS=1000 loadtest/device-reads.js
+//   DEVICE_VIRTUAL_THREADS=true  docker compose up   ->  k6 run -e CLIENTS=1000 loadtest/device-reads.js
+//
+// and repeat with CLIENTS=2500, 5000 and 10000.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8000/device-service/device/v1';
+const CLIENTS = parseInt(__ENV.CLIENTS || '1000');
+const SEED_DEVICES = parseInt(__ENV.SEED_DEVICES || '1000');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            vus: CLIENTS,
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(99)<1000'],
+    },
+};
+
+export function setup() {
+    const devices = [];
+    for (let i = 0; i < SEED_DEVICES; i++) {
+        devices.push({ name: `load-${i}`, brand: `brand-${i % 20}` });
+    }
+    const response = http.post(`${BASE_URL}/batch`, JSON.stringify(devices),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { ids: response.json().map(result => result.id) };
+}
+
+export default function (data) {
+    const roll = Math.random();
+    let response;
+    if (roll < 0.7) {
+        response = http.get(`${BASE_URL}/id/${data.ids[Math.floor(Math.random() * data.ids.length)]}`);
+    } else if (roll < 0.9) {
+        response = http.get(`${BASE_URL}/search?brand=brand-${Math.floor(Math.random() * 20)}&size=50`);
+    } else {
+        response = http.get(`${BASE_URL}/page?size=100`);
+    }
+    // 503 is the admission or concurrency limit shedding load, 429 the client's rate limit; both are counted
+    // separately from errors.
+    check(response, {
+        'ok': r => r.status === 200,
+        'shed': r => r.status === 503,
+        'throttled': r => r.status === 429,
+    });
+}
@@ -0,0 +1,55 @@
+// k6 load test comparing the servlet/JPA service with the WebFlux/R2DBC one, on the endpoints both serve: fetch by
+// id and fetch by brand. Start both (`docker compose --profile reactive up`), then run once per stack:
+//
+//   k6 run -e CLIENTS=5000 -e BASE_URL=http://localhost:8000/device-service/device/v1 loadtest/device-stacks.js
+//   k6 run -e CLIENTS=5000 -e BASE_URL=http://localhost:8001/device-service/device/v1 loadtest/device-stacks.js
+//
+// Start the servlet service with DEVICE_CACHE_MAX_SIZE=0 so both stacks query the database.
+// Compare http_reqs/s and latency from k6 with memory from `docker stats` and the services' own
+// jvm.memory.used and jvm.threads.live metrics, read while the test runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8000/device-service/device/v1';
+const CLIENTS = parseInt(__ENV.CLIENTS || '1000');
+const SEED_DEVICES = parseInt(__ENV.SEED_DEVICES || '1000');
+const BRANDS = 100;
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            vus: CLIENTS,
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(99)<1000'],
+    },
+};
+
+export function setup() {
+    // One device at a time: the reactive service has no batch endpoint.
+    const ids = [];
+    for (let i = 0; i < SEED_DEVICES; i++) {
+        const device = { name: `stack-${i}`, brand: `stack-brand-${i % BRANDS}`, state: 'AVAILABLE' };
+        const response = http.post(BASE_URL, JSON.stringify(device), { headers: { 'Content-Type': 'application/json' } });
+        ids.push(response.json().id);
+    }
+    return { ids };
+}
+
+export default function (data) {
+    let response;
+    if (Math.random() < 0.8) {
+        response = http.get(`${BASE_URL}/id/${data.ids[Math.floor(Math.random() * data.ids.length)]}`);
+    } else {
+        response = http.get(`${BASE_URL}/brand/stack-brand-${Math.floor(Math.random() * BRANDS)}`);
+    }
+    // 503 is the database pool or admission limit shedding load; it is counted separately from errors.
+    check(response, {
+        'ok': r => r.status === 200,
+        'shed': r => r.status === 503,
+    });
+}
@@ -1,16 +0,0 @@
-package com.example.device.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class ErrorResponse {
-    private String message;
-    private int status;
-}
-
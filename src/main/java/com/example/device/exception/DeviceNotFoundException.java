@@ -1,7 +0,0 @@
-package com.example.device.exception;
-
-public class DeviceNotFoundException extends RuntimeException {
-    public DeviceNotFoundException(String message) {
-        super(message);
-    }
-}
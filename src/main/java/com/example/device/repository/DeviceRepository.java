@@ -1,15 +0,0 @@
-package com.example.device.repository;
-
-import com.example.device.entity.DeviceEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.UUID;
-
-@Repository
-public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID> {
-    List<DeviceEntity> findByBrand(String brand);
-
-    List<DeviceEntity> findByState(String state);
-}